@@ -1,11 +1,14 @@
 package com.ch.authservice.auth_service.api.controllers.contracts;
 
 
+import com.ch.authservice.auth_service.api.models.requests.RefreshTokenRequest;
+import com.ch.authservice.auth_service.api.models.requests.RevokeTokenRequest;
 import com.ch.core.chcore.models.LoginRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -22,8 +25,34 @@ public interface AuthController {
             @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
             @ApiResponse(responseCode = "401", description = "Unauthorized, invalid credentials"),
             @ApiResponse(responseCode = "404", description = "Not found, user does not exist"),
+            @ApiResponse(responseCode = "429", description = "Too many requests, too many failed attempts"),
             @ApiResponse(responseCode = "500", description = "Internal server error, unexpected error occurred")
     })
-    public ResponseEntity<?> login(@RequestBody LoginRequest request);
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest);
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh token",
+            description = "This endpoint exchanges a refresh token for a new JWT token and a new refresh token. " +
+                    "Each refresh token can be used only once; reusing it revokes the whole session.")
+    @Parameter(name = "request", description = "Refresh request containing the refresh token")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Refresh successful, JWT token returned"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized, invalid, expired or reused refresh token"),
+            @ApiResponse(responseCode = "404", description = "Not found, user does not exist"),
+            @ApiResponse(responseCode = "500", description = "Internal server error, unexpected error occurred")
+    })
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest request);
+
+    @PostMapping("/revoke")
+    @Operation(summary = "Revoke token",
+            description = "This endpoint revokes a JWT token before its expiration and, if provided, " +
+                    "the session of a refresh token. Services verifying tokens are notified of the revocation.")
+    @Parameter(name = "request", description = "Revoke request containing the JWT token and optionally the refresh token")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized, invalid token"),
+            @ApiResponse(responseCode = "500", description = "Internal server error, unexpected error occurred")
+    })
+    public ResponseEntity<?> revoke(@RequestBody RevokeTokenRequest request);
 
 }
@@ -1,9 +1,12 @@
 package com.ch.authservice.auth_service.api.controllers.impl;
 
 import com.ch.authservice.auth_service.api.controllers.contracts.AuthController;
+import com.ch.authservice.auth_service.api.models.requests.RefreshTokenRequest;
+import com.ch.authservice.auth_service.api.models.requests.RevokeTokenRequest;
 import com.ch.authservice.auth_service.service.contracts.AuthService;
 import com.ch.core.chcore.models.LoginRequest;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,7 +20,18 @@ public class AuthControllerImpl implements AuthController {
     private final AuthService authService;
 
     @Override
-    public ResponseEntity<?> login(LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<?> login(LoginRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
+    }
+
+    @Override
+    public ResponseEntity<?> refresh(RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @Override
+    public ResponseEntity<?> revoke(RevokeTokenRequest request) {
+        authService.revoke(request);
+        return ResponseEntity.noContent().build();
     }
 }
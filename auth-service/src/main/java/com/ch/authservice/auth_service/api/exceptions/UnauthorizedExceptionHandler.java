@@ -0,0 +1,35 @@
+package com.ch.authservice.auth_service.api.exceptions;
+
+import com.ch.core.chcore.exceptions.UnauthorizedException;
+import com.ch.core.chcore.models.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Handles UnauthorizedException and returns a standardized error response.
+ * This class is annotated with @RestControllerAdvice
+ * to handle exceptions globally across all controllers.
+ *
+ * @author caito
+ *
+ */
+@RestControllerAdvice
+public class UnauthorizedExceptionHandler {
+    @ExceptionHandler(UnauthorizedException.class)
+    protected ResponseEntity<ErrorResponse> unauthorizedHandler(UnauthorizedException e,
+                                                                HttpServletRequest request){
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ErrorResponse.builder()
+                        .code(HttpStatus.UNAUTHORIZED.value())
+                        .status(HttpStatus.UNAUTHORIZED.getReasonPhrase())
+                        .timestamp(LocalDateTime.now())
+                        .message(e.getMessage())
+                        .method(request.getMethod())
+                        .path(request.getRequestURL().toString())
+                .build());
+    }
+}
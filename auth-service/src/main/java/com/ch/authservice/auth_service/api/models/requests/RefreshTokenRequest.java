@@ -0,0 +1,20 @@
+package com.ch.authservice.auth_service.api.models.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * RefreshTokenRequest
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class RefreshTokenRequest implements Serializable {
+    private String refresh_token;
+}
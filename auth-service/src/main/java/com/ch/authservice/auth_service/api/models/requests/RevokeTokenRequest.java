@@ -0,0 +1,21 @@
+package com.ch.authservice.auth_service.api.models.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * RevokeTokenRequest
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class RevokeTokenRequest implements Serializable {
+    private String access_token;
+    private String refresh_token;
+}
@@ -17,4 +17,5 @@ import java.io.Serializable;
 @Data@Builder
 public class LoginResponse implements Serializable {
     private String access_token;
+    private String refresh_token;
 }
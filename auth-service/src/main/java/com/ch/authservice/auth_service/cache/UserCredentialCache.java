@@ -0,0 +1,75 @@
+package com.ch.authservice.auth_service.cache;
+
+import com.ch.authservice.auth_service.service.contracts.UserClient;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Near-cache of user credentials keyed by email.
+ * Entries are bounded in number, expire after a fixed time and are dropped
+ * as soon as the user service announces a change on the user.
+ * Hits, misses and evictions are published under the "auth.user.credentials" cache metrics.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class UserCredentialCache {
+    private final UserClient userClient;
+    private final Cache<String, UserAuthResponse> cache;
+    private final Counter invalidations;
+
+    public UserCredentialCache(UserClient userClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.credential-cache.max-size:10000}") long maxSize,
+                               @Value("${application.credential-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userClient = userClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.user.credentials");
+        this.invalidations = Counter.builder("auth.user.credentials.invalidations")
+                .description("Credential cache entries dropped by user change events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the credentials of a user, loading them from the user service on a miss.
+     *
+     * @param email the email of the user
+     * @return the cached or freshly loaded UserAuthResponse
+     */
+    public UserAuthResponse get(String email) {
+        return cache.get(key(email), k -> userClient.findByEmail(email));
+    }
+
+    /**
+     * Drops the cached credentials of a user.
+     *
+     * @param email the email of the user
+     */
+    public void invalidate(String email) {
+        if (email == null) return;
+        log.info(WriteLog.logInfo("--> credential cache - invalidating " + email));
+        cache.invalidate(key(email));
+        invalidations.increment();
+    }
+
+    private String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ch.authservice.auth_service.configs.http;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuration class for the HTTP client used to call other services.
+ * A single HttpClient is shared by the whole application so that connections
+ * are kept alive and reused between requests instead of being opened on every call.
+ *
+ * @author caito
+ *
+ */
+@Configuration
+public class HttpClientConfig {
+    @Value("${application.user-service.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    /**
+     * Provides a shared, HTTP/2 capable HttpClient.
+     * The client keeps its connections alive and falls back to HTTP/1.1
+     * when the remote server does not support HTTP/2.
+     *
+     * @return a HttpClient instance
+     */
+    @Bean
+    HttpClient httpClient(){
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+}
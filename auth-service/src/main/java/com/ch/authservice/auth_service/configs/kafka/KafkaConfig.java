@@ -0,0 +1,83 @@
+package com.ch.authservice.auth_service.configs.kafka;
+
+import com.ch.core.chcore.models.UserAuthResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Configuration class for the Kafka request-reply login lookup.
+ * Requests are published on "loginLookupTopic" and every instance listens to the shared
+ * "loginLookupReplyTopic" with its own consumer group, keeping only the replies it is waiting for.
+ *
+ * @author caito
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.user-service.kafka-lookup.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class KafkaConfig {
+    public static final String LOGIN_LOOKUP_TOPIC = "loginLookupTopic";
+    public static final String LOGIN_LOOKUP_REPLY_TOPIC = "loginLookupReplyTopic";
+
+    @Value("${application.user-service.kafka-lookup.timeout-ms:500}")
+    private long replyTimeoutMs;
+
+    /**
+     * Provides the template used by the producers of the service.
+     * Spring Boot backs off from its own template once the replying template is declared,
+     * so it is declared here as the primary one.
+     *
+     * @param producerFactory the producer factory configured by Spring Boot
+     * @return the KafkaTemplate
+     */
+    @Bean
+    @Primary
+    KafkaTemplate<?, ?> kafkaTemplate(ProducerFactory<Object, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Provides the container listening to the login lookup replies.
+     *
+     * @param factory the listener container factory configured by Spring Boot
+     * @return the reply container
+     */
+    @Bean
+    ConcurrentMessageListenerContainer<String, UserAuthResponse> loginReplyContainer(
+            ConcurrentKafkaListenerContainerFactory<String, UserAuthResponse> factory) {
+        var container = factory.createContainer(LOGIN_LOOKUP_REPLY_TOPIC);
+        container.getContainerProperties().setGroupId("auth-login-reply-" + UUID.randomUUID());
+        container.getContainerProperties().getKafkaConsumerProperties().setProperty("auto.offset.reset", "latest");
+        container.setAutoStartup(false);
+        return container;
+    }
+
+    /**
+     * Provides the template used to send lookups and wait for their correlated reply.
+     * Pending requests are dropped by the template once the reply timeout elapses.
+     *
+     * @param producerFactory the producer factory configured by Spring Boot
+     * @param loginReplyContainer the reply container
+     * @return the ReplyingKafkaTemplate
+     */
+    @Bean
+    ReplyingKafkaTemplate<String, String, UserAuthResponse> loginReplyingTemplate(
+            ProducerFactory<String, String> producerFactory,
+            ConcurrentMessageListenerContainer<String, UserAuthResponse> loginReplyContainer) {
+        var template = new ReplyingKafkaTemplate<>(producerFactory, loginReplyContainer);
+        template.setSharedReplyTopic(true);
+        template.setDefaultReplyTimeout(Duration.ofMillis(replyTimeoutMs));
+        return template;
+    }
+}
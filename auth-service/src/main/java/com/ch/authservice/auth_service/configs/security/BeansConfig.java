@@ -1,5 +1,6 @@
 package com.ch.authservice.auth_service.configs.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -14,14 +15,18 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  */
 @Configuration
 public class BeansConfig {
+    @Value("${application.security.bcrypt-strength:10}")
+    private int bcryptStrength;
 
     /**
      * Provides a PasswordEncoder bean that uses BCrypt hashing.
+     * Hashes stored with a lower cost than the configured strength are
+     * upgraded on the next successful login.
      *
      * @return a PasswordEncoder instance
      */
     @Bean
     PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
@@ -1,19 +1,32 @@
 package com.ch.authservice.auth_service.configs.security;
 
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.models.RoleResponse;
 import com.ch.core.chcore.models.UserAuthResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
-import java.util.Date;
-import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Componente para la generación de tokens JWT.
  * Utiliza una clave secreta para firmar los tokens.
- * Los tokens incluyen el correo electrónico del usuario y sus roles.
+ * Los tokens incluyen el correo electrónico del usuario, sus roles y un identificador único
+ * (jti) que permite revocarlos antes de su expiración.
  * La expiración del token está configurada para 1 hora.
+ * <p>
+ * La clave, la cabecera codificada y la codificación JSON de cada combinación de roles
+ * se calculan una sola vez; cada hilo reutiliza su propia instancia de {@link Mac}.
+ * Los tokens generados son HS256 compactos, compatibles con el parser de JJWT.
  *
  * @author caito
  *
@@ -21,6 +34,17 @@ import java.util.List;
 @Component
 public class JwtTokenProvider {
     private static final String SECRET = "Hw9z1Yk8Nmq1IzlwcCg8j6yHzw6RKjzZUi9r7Ww555o0PP";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final long EXPIRATION_SECONDS = 60 * 60;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final RoleName[] ROLE_NAMES = RoleName.values();
+
+    private final SecretKeySpec key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    private final String encodedHeader = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+    private final String[] roleClaims = this.buildRoleClaims();
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
     /**
      * Genera un token JWT para el usuario proporcionado.
@@ -29,31 +53,112 @@ public class JwtTokenProvider {
      * @return El token JWT generado.
      */
     public String generateToken(UserAuthResponse user){
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("roles", this.getRoles(user))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis()+ 1000 * 60 * 60))
-                .signWith(generateKey())
-                .compact();
+        long now = System.currentTimeMillis() / 1000;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder payload = new StringBuilder(128)
+                .append("{\"sub\":\"");
+        appendEscaped(payload, user.getEmail());
+        payload.append("\",\"roles\":").append(roleClaims[this.roleMask(user.getRole())])
+                .append(",\"iat\":").append(now)
+                .append(",\"exp\":").append(now + EXPIRATION_SECONDS)
+                .append(",\"jti\":\"").append(new UUID(random.nextLong(), random.nextLong())).append('"')
+                .append('}');
+
+        String signingInput = encodedHeader + '.'
+                + ENCODER.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * Verifica la firma y la expiración de un token y devuelve sus claims.
+     *
+     * @param token El token JWT.
+     * @return Los claims del token.
+     */
+    public Claims getClaims(String token){
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Calcula la máscara de bits de los roles del usuario, usada como índice
+     * de la codificación precalculada.
+     *
+     * @param roles Los roles del usuario.
+     * @return La máscara de bits de los roles.
+     */
+    private int roleMask(Set<RoleResponse> roles){
+        int mask = 0;
+        if (roles != null) {
+            for (RoleResponse role : roles) {
+                if (role.getRole() != null) {
+                    mask |= 1 << role.getRole().ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Precalcula la lista JSON de roles para cada combinación posible.
+     *
+     * @return Las listas JSON indexadas por máscara de bits.
+     */
+    private String[] buildRoleClaims(){
+        String[] claims = new String[1 << ROLE_NAMES.length];
+        for (int mask = 0; mask < claims.length; mask++) {
+            StringBuilder json = new StringBuilder("[");
+            for (RoleName role : ROLE_NAMES) {
+                if ((mask & (1 << role.ordinal())) != 0) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append('"').append(role.name()).append('"');
+                }
+            }
+            claims[mask] = json.append(']').toString();
+        }
+        return claims;
     }
 
     /**
-     * Genera un token de refresco JWT para el usuario proporcionado.
+     * Crea una instancia de {@link Mac} inicializada con la clave secreta.
      *
-     * @param user El usuario para el cual se genera el token de refresco.
-     * @return El token de refresco JWT generado.
+     * @return El Mac inicializado.
      */
-    private List<String> getRoles(UserAuthResponse user){
-        return user.getRole().stream().map(rol -> rol.getRole().name()).toList();
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
     }
 
     /**
-     * Genera una clave secreta para firmar los tokens JWT.
+     * Escribe el texto como cadena JSON escapada.
      *
-     * @return La clave secreta generada.
+     * @param out El destino.
+     * @param value El texto a escapar.
      */
-    private Key generateKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    private static void appendEscaped(StringBuilder out, String value){
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,33 @@
+package com.ch.authservice.auth_service.consumers;
+
+import com.ch.authservice.auth_service.service.contracts.LoginThrottle;
+import com.ch.core.chcore.events.LoginLockoutMsg;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for login lockout messages.
+ * This class listens to the "loginLockoutTopic" Kafka topic, where every auth service instance
+ * publishes the emails and client addresses it locked out, and applies the lockout locally.
+ * Every instance uses its own consumer group so that all of them see every lockout.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginLockoutConsumer {
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Listens to the "loginLockoutTopic" Kafka topic and applies the lockout.
+     *
+     * @param msg the LoginLockoutMsg received from the Kafka topic
+     */
+    @KafkaListener(topics = "loginLockoutTopic", groupId = "auth-login-lockout-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void handleLoginLockout(LoginLockoutMsg msg){
+        loginThrottle.applyLockout(msg);
+    }
+}
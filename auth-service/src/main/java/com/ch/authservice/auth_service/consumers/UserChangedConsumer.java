@@ -0,0 +1,33 @@
+package com.ch.authservice.auth_service.consumers;
+
+import com.ch.authservice.auth_service.cache.UserCredentialCache;
+import com.ch.core.chcore.events.UserChangedMsg;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for user change messages.
+ * This class listens to the "userChangedTopic" Kafka topic and drops the cached
+ * credentials of every user that was enabled, promoted or deleted.
+ * Every instance uses its own consumer group so that all of them see every change.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangedConsumer {
+    private final UserCredentialCache userCredentialCache;
+
+    /**
+     * Listens to the "userChangedTopic" Kafka topic and invalidates the cached user.
+     *
+     * @param msg the UserChangedMsg received from the Kafka topic
+     */
+    @KafkaListener(topics = "userChangedTopic", groupId = "auth-user-changed-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void handleUserChanged(UserChangedMsg msg){
+        userCredentialCache.invalidate(msg.getEmail());
+    }
+}
@@ -0,0 +1,40 @@
+package com.ch.authservice.auth_service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event recorded for every login, with its outcome and the time spent in each phase.
+ * The event duration is the whole login.
+ *
+ * @author caito
+ *
+ */
+@Name("com.ch.auth.Login")
+@Label("Login")
+@Category({"Chemical Co", "Auth"})
+@Description("Login request with the time spent in each phase")
+class LoginEvent extends Event {
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Lookup")
+    @Timespan(Timespan.NANOSECONDS)
+    long lookup;
+
+    @Label("Decode")
+    @Timespan(Timespan.NANOSECONDS)
+    long decode;
+
+    @Label("Verify")
+    @Timespan(Timespan.NANOSECONDS)
+    long verify;
+
+    @Label("Sign")
+    @Timespan(Timespan.NANOSECONDS)
+    long sign;
+}
@@ -0,0 +1,16 @@
+package com.ch.authservice.auth_service.metrics;
+
+/**
+ * Outcomes of a login used to tag the login metrics.
+ *
+ * @author caito
+ *
+ */
+public enum LoginOutcome {
+    SUCCESS,
+    NOT_FOUND,
+    BAD_PASSWORD,
+    DISABLED,
+    THROTTLED,
+    ERROR
+}
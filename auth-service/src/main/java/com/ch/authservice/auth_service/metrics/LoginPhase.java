@@ -0,0 +1,14 @@
+package com.ch.authservice.auth_service.metrics;
+
+/**
+ * Phases of a login measured by {@link LoginTrace}.
+ *
+ * @author caito
+ *
+ */
+public enum LoginPhase {
+    LOOKUP,
+    DECODE,
+    VERIFY,
+    SIGN
+}
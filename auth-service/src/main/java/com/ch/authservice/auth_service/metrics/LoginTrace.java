@@ -0,0 +1,104 @@
+package com.ch.authservice.auth_service.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace of a single login.
+ * It accumulates the time spent in each phase and, when the login finishes, records the
+ * phase timers tagged with the final outcome and commits a {@link LoginEvent}.
+ * The trace is bound to the request thread so that code deeper in the call, such as the
+ * user client decoding the response, can report its own phase.
+ * The lookup phase does not include the time reported as decode.
+ *
+ * @author caito
+ *
+ */
+public class LoginTrace {
+    private static final ThreadLocal<LoginTrace> CURRENT = new ThreadLocal<>();
+    private final LoginMetrics metrics;
+    private final long[] phaseNanos = new long[LoginPhase.values().length];
+    private final long startNanos;
+    private final LoginEvent event;
+    private LoginOutcome outcome;
+
+    private LoginTrace(LoginMetrics metrics) {
+        this.metrics = metrics;
+        this.event = new LoginEvent();
+        this.event.begin();
+        this.startNanos = System.nanoTime();
+    }
+
+    static LoginTrace start(LoginMetrics metrics) {
+        LoginTrace trace = new LoginTrace(metrics);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Returns the trace of the login running on the current thread.
+     *
+     * @return the current trace, or null outside a login
+     */
+    public static LoginTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns a timestamp marking the start of a phase.
+     *
+     * @return the current value of the nanosecond clock
+     */
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time elapsed since the given timestamp to a phase.
+     *
+     * @param phase the phase that ended
+     * @param beginNanos the timestamp returned by {@link #begin()}
+     */
+    public void end(LoginPhase phase, long beginNanos) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - beginNanos;
+    }
+
+    /**
+     * Sets the outcome of the login, unless one was already set.
+     *
+     * @param outcome the outcome of the login
+     */
+    public void outcome(LoginOutcome outcome) {
+        if (this.outcome == null) {
+            this.outcome = outcome;
+        }
+    }
+
+    /**
+     * Finishes the login, records its timers and its JFR event and unbinds the trace.
+     *
+     * @param outcome the outcome of the login, used if none was set before
+     */
+    public void finish(LoginOutcome outcome) {
+        CURRENT.remove();
+        this.outcome(outcome);
+        long total = System.nanoTime() - startNanos;
+        long lookup = Math.max(0, phaseNanos[LoginPhase.LOOKUP.ordinal()] - phaseNanos[LoginPhase.DECODE.ordinal()]);
+        phaseNanos[LoginPhase.LOOKUP.ordinal()] = lookup;
+        for (LoginPhase phase : LoginPhase.values()) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                metrics.phaseTimer(phase, this.outcome).record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        metrics.loginTimer(this.outcome).record(total, TimeUnit.NANOSECONDS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = this.outcome.name();
+            event.lookup = lookup;
+            event.decode = phaseNanos[LoginPhase.DECODE.ordinal()];
+            event.verify = phaseNanos[LoginPhase.VERIFY.ordinal()];
+            event.sign = phaseNanos[LoginPhase.SIGN.ordinal()];
+            event.commit();
+        }
+    }
+}
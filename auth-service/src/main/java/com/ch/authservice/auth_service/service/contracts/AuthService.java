@@ -1,5 +1,7 @@
 package com.ch.authservice.auth_service.service.contracts;
 
+import com.ch.authservice.auth_service.api.models.requests.RefreshTokenRequest;
+import com.ch.authservice.auth_service.api.models.requests.RevokeTokenRequest;
 import com.ch.authservice.auth_service.api.models.responses.LoginResponse;
 import com.ch.core.chcore.models.LoginRequest;
 
@@ -14,5 +16,7 @@ import com.ch.core.chcore.models.LoginRequest;
  */
 public interface AuthService {
 
-    LoginResponse login(LoginRequest request);
+    LoginResponse login(LoginRequest request, String clientIp);
+    LoginResponse refresh(RefreshTokenRequest request);
+    void revoke(RevokeTokenRequest request);
 }
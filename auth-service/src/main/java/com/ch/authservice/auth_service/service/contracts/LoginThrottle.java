@@ -0,0 +1,18 @@
+package com.ch.authservice.auth_service.service.contracts;
+
+import com.ch.core.chcore.events.LoginLockoutMsg;
+
+/**
+ * LoginThrottle interface defining the admission of login attempts.
+ * Attempts from an email or a client address with too many recent failures are rejected
+ * before the user lookup and the password hashing.
+ *
+ * @author caito
+ *
+ */
+public interface LoginThrottle {
+
+    void check(String email, String clientIp);
+    void recordFailure(String email, String clientIp);
+    void applyLockout(LoginLockoutMsg msg);
+}
@@ -0,0 +1,17 @@
+package com.ch.authservice.auth_service.service.contracts;
+
+import com.ch.core.chcore.models.UserAuthResponse;
+
+/**
+ * PasswordVerifier interface defining the verification of passwords against stored hashes.
+ * Implementations run the hashing work off the request threads, reject work they have
+ * no capacity for and upgrade hashes that were computed with an outdated cost.
+ *
+ * @author caito
+ *
+ */
+public interface PasswordVerifier {
+
+    boolean matches(String rawPassword, String encodedPassword);
+    void rehashIfNeeded(UserAuthResponse user, String rawPassword);
+}
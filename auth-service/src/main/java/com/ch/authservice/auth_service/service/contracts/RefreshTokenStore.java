@@ -0,0 +1,19 @@
+package com.ch.authservice.auth_service.service.contracts;
+
+import com.ch.authservice.auth_service.service.models.RefreshToken;
+
+/**
+ * RefreshTokenStore interface defining the persistence of refresh tokens.
+ * The default implementation keeps the tokens in memory; another implementation
+ * can be plugged in by setting "application.refresh-token.store".
+ *
+ * @author caito
+ *
+ */
+public interface RefreshTokenStore {
+
+    void save(RefreshToken token);
+    RefreshToken find(String token);
+    boolean markUsed(RefreshToken token);
+    void revokeFamily(String familyId);
+}
@@ -0,0 +1,16 @@
+package com.ch.authservice.auth_service.service.contracts;
+
+import com.ch.core.chcore.models.UserAuthResponse;
+
+/**
+ * UserClient interface defining the lookup of user credentials in the user service.
+ * Implementations are responsible for reaching the user service, decoding its answer
+ * and translating remote failures into the application exceptions.
+ *
+ * @author caito
+ *
+ */
+public interface UserClient {
+
+    UserAuthResponse findByEmail(String email);
+}
@@ -1,72 +1,183 @@
 package com.ch.authservice.auth_service.service.impl;
 
+import com.ch.authservice.auth_service.api.models.requests.RefreshTokenRequest;
+import com.ch.authservice.auth_service.api.models.requests.RevokeTokenRequest;
 import com.ch.authservice.auth_service.api.models.responses.LoginResponse;
+import com.ch.authservice.auth_service.cache.UserCredentialCache;
 import com.ch.authservice.auth_service.configs.security.JwtTokenProvider;
+import com.ch.authservice.auth_service.metrics.LoginMetrics;
+import com.ch.authservice.auth_service.metrics.LoginOutcome;
+import com.ch.authservice.auth_service.metrics.LoginPhase;
+import com.ch.authservice.auth_service.metrics.LoginTrace;
 import com.ch.authservice.auth_service.service.contracts.AuthService;
+import com.ch.authservice.auth_service.service.contracts.LoginThrottle;
+import com.ch.authservice.auth_service.service.contracts.PasswordVerifier;
+import com.ch.authservice.auth_service.service.contracts.RefreshTokenStore;
+import com.ch.authservice.auth_service.service.models.RefreshToken;
+import com.ch.core.chcore.events.TokenRevokedMsg;
 import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.exceptions.TooManyRequestsException;
 import com.ch.core.chcore.exceptions.UnauthorizedException;
 import com.ch.core.chcore.logs.WriteLog;
 import com.ch.core.chcore.models.LoginRequest;
 import com.ch.core.chcore.models.UserAuthResponse;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.support.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
+    public static final String TOKEN_REVOKED_TOPIC = "tokenRevokedTopic";
     private final JwtTokenProvider jwtTokenProvider;
-    private final PasswordEncoder passwordEncoder;
-
-
+    private final PasswordVerifier passwordVerifier;
+    private final UserCredentialCache userCredentialCache;
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginThrottle loginThrottle;
+    private final LoginMetrics loginMetrics;
+    private final KafkaTemplate<String, TokenRevokedMsg> tokenRevokedTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+    @Value("${application.refresh-token.ttl-hours:168}")
+    private long refreshTtlHours;
+    @Value("${application.refresh-token.max-session-hours:720}")
+    private long maxSessionHours;
 
     @Override
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientIp) {
         log.info(WriteLog.logInfo("--> authService - login - start"));
-        HttpClient client = HttpClient.newHttpClient();
-        ObjectMapper mapper = new ObjectMapper();
+        LoginTrace trace = loginMetrics.start();
         try {
-            HttpRequest re = HttpRequest.newBuilder()
-                    .uri(URI.create("http://localhost:10300/chco/api/v1/users/full-data/" + request.getEmail()))
-                    .header("content-type", "application/json")
-                    .GET()
-                    .build();
-            HttpResponse<String> response = client.send(re, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() != 200){
-                log.error(WriteLog.logError("--> authService - login - user not found"));
-                throw new NotFoundException("User not found");
+            loginThrottle.check(request.getEmail(), clientIp);
+            UserAuthResponse user;
+            try {
+                long lookup = trace.begin();
+                user = userCredentialCache.get(request.getEmail());
+                trace.end(LoginPhase.LOOKUP, lookup);
+                this.authenticate(user, request, trace);
+            } catch (UnauthorizedException | NotFoundException e) {
+                loginThrottle.recordFailure(request.getEmail(), clientIp);
+                throw e;
             }
-            UserAuthResponse user = mapper.readValue(response.body(), UserAuthResponse.class);
-            this.authenticate(user, request);
-            return LoginResponse.builder()
+            long sign = trace.begin();
+            long now = System.currentTimeMillis();
+            LoginResponse response = LoginResponse.builder()
                     .access_token(jwtTokenProvider.generateToken(user))
+                    .refresh_token(this.issueRefreshToken(user.getEmail(), UUID.randomUUID().toString(),
+                            now + maxSessionHours * 3_600_000L))
                     .build();
-        } catch (IOException | InterruptedException e) {
-            log.error(WriteLog.logError("Error during login: " + e.getMessage()));
+            trace.end(LoginPhase.SIGN, sign);
+            trace.finish(LoginOutcome.SUCCESS);
+            return response;
+        } catch (NotFoundException e) {
+            trace.finish(LoginOutcome.NOT_FOUND);
+            throw e;
+        } catch (UnauthorizedException e) {
+            trace.finish(LoginOutcome.DISABLED);
+            throw e;
+        } catch (TooManyRequestsException e) {
+            trace.finish(LoginOutcome.THROTTLED);
+            throw e;
+        } catch (RuntimeException e) {
+            trace.finish(LoginOutcome.ERROR);
+            throw e;
         }
+    }
 
-        return null;
+    @Override
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        log.info(WriteLog.logInfo("--> authService - refresh - start"));
+        RefreshToken token = request.getRefresh_token() == null ? null
+                : refreshTokenStore.find(request.getRefresh_token());
+        if (token == null) {
+            log.error(WriteLog.logError("--> Refresh token not valid"));
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        if (!refreshTokenStore.markUsed(token)) {
+            log.error(WriteLog.logError("--> Refresh token reused, revoking session of " + token.getEmail()));
+            refreshTokenStore.revokeFamily(token.getFamilyId());
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        UserAuthResponse user = userCredentialCache.get(token.getEmail());
+        this.checkAccount(user);
+        return LoginResponse.builder()
+                .access_token(jwtTokenProvider.generateToken(user))
+                .refresh_token(this.issueRefreshToken(token.getEmail(), token.getFamilyId(),
+                        token.getFamilyExpiresAt()))
+                .build();
     }
 
-    private void authenticate(UserAuthResponse user, LoginRequest request) {
-        log.info(WriteLog.logInfo("--> authService - authenticate - start"));
+    @Override
+    public void revoke(RevokeTokenRequest request) {
+        log.info(WriteLog.logInfo("--> authService - revoke - start"));
+        if (request.getRefresh_token() != null) {
+            RefreshToken token = refreshTokenStore.find(request.getRefresh_token());
+            if (token != null) {
+                refreshTokenStore.revokeFamily(token.getFamilyId());
+            }
+        }
+        if (request.getAccess_token() == null) {
+            return;
+        }
+        Claims claims;
+        try {
+            claims = jwtTokenProvider.getClaims(request.getAccess_token());
+        } catch (ExpiredJwtException e) {
+            log.info(WriteLog.logInfo("--> Token already expired, nothing to revoke"));
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error(WriteLog.logError("--> Token not valid"));
+            throw new UnauthorizedException("Invalid token");
+        }
+        if (claims.getId() == null) {
+            log.error(WriteLog.logError("--> Token without id, cannot be revoked"));
+            throw new UnauthorizedException("Invalid token");
+        }
+        tokenRevokedTemplate.send(TOKEN_REVOKED_TOPIC, claims.getId(), TokenRevokedMsg.builder()
+                .jti(claims.getId())
+                .expiresAt(claims.getExpiration().getTime())
+                .build());
+    }
 
+    private String issueRefreshToken(String email, String familyId, long familyExpiresAt) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenStore.save(RefreshToken.builder()
+                .token(value)
+                .familyId(familyId)
+                .email(email)
+                .expiresAt(Math.min(System.currentTimeMillis() + refreshTtlHours * 3_600_000L, familyExpiresAt))
+                .familyExpiresAt(familyExpiresAt)
+                .build());
+        return value;
+    }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+    private void authenticate(UserAuthResponse user, LoginRequest request, LoginTrace trace) {
+        log.info(WriteLog.logInfo("--> authService - authenticate - start"));
+
+        long verify = trace.begin();
+        boolean matches = passwordVerifier.matches(request.getPassword(), user.getPassword());
+        trace.end(LoginPhase.VERIFY, verify);
+        if (!matches) {
             log.error(WriteLog.logError("--> Password not match"));
+            trace.outcome(LoginOutcome.BAD_PASSWORD);
             throw new UnauthorizedException("Incorrect Password");
         }
+        this.checkAccount(user);
+        passwordVerifier.rehashIfNeeded(user, request.getPassword());
+    }
 
+    private void checkAccount(UserAuthResponse user) {
         if (!user.isEnabled()) {
             log.error(WriteLog.logError("--> User not enabled"));
             throw new UnauthorizedException("User not enabled");
@@ -0,0 +1,160 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.authservice.auth_service.metrics.LoginPhase;
+import com.ch.authservice.auth_service.metrics.LoginTrace;
+import com.ch.authservice.auth_service.service.contracts.UserClient;
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.exceptions.ServiceUnavailableException;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpUserClientImpl retrieves user credentials from the user service over HTTP.
+ * It reuses the shared HttpClient and prebuilt Jackson readers, caps the number of
+ * requests in flight and records latency and saturation metrics.
+ * Users are requested as CBOR, which is smaller and faster to decode than JSON;
+ * JSON answers are still accepted.
+ *
+ * @author caito
+ *
+ */
+@Service
+@Slf4j
+public class HttpUserClientImpl implements UserClient {
+    private static final String CBOR = "application/cbor";
+    private final HttpClient httpClient;
+    private final ObjectReader reader;
+    private final ObjectReader cborReader;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final long acquireTimeoutMs;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public HttpUserClientImpl(HttpClient httpClient,
+                          ObjectMapper mapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${application.user-service.url:http://localhost:10300/chco/api}") String baseUrl,
+                          @Value("${application.user-service.request-timeout-ms:3000}") long requestTimeoutMs,
+                          @Value("${application.user-service.max-in-flight:200}") int maxInFlight,
+                          @Value("${application.user-service.acquire-timeout-ms:100}") long acquireTimeoutMs) {
+        this.httpClient = httpClient;
+        this.reader = mapper.readerFor(UserAuthResponse.class);
+        this.cborReader = new CBORMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readerFor(UserAuthResponse.class);
+        this.baseUrl = baseUrl + "/v1/users/full-data/";
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("auth.user.client.rejected")
+                .description("User service calls rejected because too many were in flight")
+                .register(meterRegistry);
+        Gauge.builder("auth.user.client.in.flight", inFlight, s -> this.maxInFlight - s.availablePermits())
+                .description("User service calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("auth.user.client.in.flight.max", () -> this.maxInFlight)
+                .description("Maximum number of user service calls allowed in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retrieves the credentials of a user by email.
+     *
+     * @param email the email of the user to retrieve
+     * @return the UserAuthResponse returned by the user service
+     * @throws NotFoundException if the user service does not know the email
+     * @throws ServiceUnavailableException if the user service cannot be reached in time
+     */
+    @Override
+    public UserAuthResponse findByEmail(String email) {
+        if (!this.acquire()) {
+            rejected.increment();
+            log.error(WriteLog.logError("--> userClient - too many requests in flight"));
+            throw new ServiceUnavailableException("User service is busy, try again later");
+        }
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + URLEncoder.encode(email, StandardCharsets.UTF_8)))
+                    .header("accept", CBOR + ", application/json;q=0.5")
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                outcome = "not_found";
+                log.error(WriteLog.logError("--> userClient - user not found"));
+                throw new NotFoundException("User not found");
+            }
+            if (response.statusCode() != 200) {
+                log.error(WriteLog.logError("--> userClient - unexpected status " + response.statusCode()));
+                throw new ServiceUnavailableException("User service answered with status " + response.statusCode());
+            }
+            LoginTrace trace = LoginTrace.current();
+            long decode = trace == null ? 0 : trace.begin();
+            boolean cbor = response.headers().firstValue("content-type")
+                    .map(type -> type.startsWith(CBOR))
+                    .orElse(false);
+            UserAuthResponse user = (cbor ? cborReader : reader).readValue(response.body());
+            if (trace != null) trace.end(LoginPhase.DECODE, decode);
+            outcome = "success";
+            return user;
+        } catch (IOException e) {
+            log.error(WriteLog.logError("--> userClient - error calling user service: " + e.getMessage()));
+            throw new ServiceUnavailableException("User service unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("User service call interrupted");
+        } finally {
+            inFlight.release();
+            Timer.builder("auth.user.client.requests")
+                    .description("Latency of user service lookups")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Waits a short time for a free in-flight slot.
+     *
+     * @return true if a slot was acquired
+     */
+    private boolean acquire() {
+        try {
+            return inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
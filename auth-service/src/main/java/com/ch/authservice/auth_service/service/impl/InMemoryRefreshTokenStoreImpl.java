@@ -0,0 +1,88 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.authservice.auth_service.service.contracts.RefreshTokenStore;
+import com.ch.authservice.auth_service.service.models.RefreshToken;
+import com.ch.core.chcore.helpers.HashedWheelExpiry;
+import com.ch.core.chcore.logs.WriteLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory RefreshTokenStore.
+ * Tokens live in a concurrent map and are scheduled on a hashed timing wheel
+ * that drops them once expired, so renewing a token costs a single map lookup.
+ * Used tokens are kept until they expire to detect their reuse; revoked tokens are
+ * removed from the wheel as well.
+ *
+ * @author caito
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "application.refresh-token.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryRefreshTokenStoreImpl implements RefreshTokenStore {
+    private final Map<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+    private final HashedWheelExpiry<String> expiry;
+
+    public InMemoryRefreshTokenStoreImpl(MeterRegistry meterRegistry,
+                                         @Value("${application.refresh-token.tick-ms:10000}") long tickMs,
+                                         @Value("${application.refresh-token.wheel-size:8192}") int wheelSize) {
+        this.expiry = new HashedWheelExpiry<>(tickMs, wheelSize);
+        Gauge.builder("auth.refresh.tokens", tokens, Map::size)
+                .description("Refresh tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(RefreshToken token) {
+        tokens.put(token.getToken(), token);
+        expiry.schedule(token.getToken(), token.getExpiresAt());
+    }
+
+    @Override
+    public RefreshToken find(String token) {
+        RefreshToken found = tokens.get(token);
+        if (found == null || found.getExpiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return found;
+    }
+
+    @Override
+    public boolean markUsed(RefreshToken token) {
+        synchronized (token) {
+            if (token.isUsed()) return false;
+            token.setUsed(true);
+            return true;
+        }
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        log.warn(WriteLog.logWarning("--> refresh token store - revoking family " + familyId));
+        tokens.values().removeIf(token -> {
+            if (!familyId.equals(token.getFamilyId())) return false;
+            expiry.cancel(token.getToken(), token.getExpiresAt());
+            return true;
+        });
+    }
+
+    /**
+     * Advances the expiry wheel and drops the expired tokens.
+     */
+    @Scheduled(fixedDelayString = "${application.refresh-token.tick-ms:10000}")
+    public void expire() {
+        int expired = expiry.advance(System.currentTimeMillis(), tokens::remove);
+        if (expired > 0) {
+            log.info(WriteLog.logInfo("--> refresh token store - expired " + expired + " tokens"));
+        }
+    }
+}
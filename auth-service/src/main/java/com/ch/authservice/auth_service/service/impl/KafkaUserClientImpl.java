@@ -0,0 +1,102 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.authservice.auth_service.configs.kafka.KafkaConfig;
+import com.ch.authservice.auth_service.service.contracts.UserClient;
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.kafka.requestreply.RequestReplyFuture;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * KafkaUserClientImpl retrieves user credentials through a Kafka request-reply exchange.
+ * The user service answers lookups in batches, so concurrent logins share a single query.
+ * When no reply arrives in time, or the broker cannot be reached, the lookup falls back to
+ * the HTTP client and Kafka is skipped for a short window before being tried again.
+ *
+ * @author caito
+ *
+ */
+@Service
+@Primary
+@Slf4j
+@ConditionalOnProperty(name = "application.user-service.kafka-lookup.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class KafkaUserClientImpl implements UserClient {
+    private final ReplyingKafkaTemplate<String, String, UserAuthResponse> template;
+    private final HttpUserClientImpl httpUserClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration replyTimeout;
+    private final long suspendMs;
+    private volatile long suspendedUntil;
+
+    public KafkaUserClientImpl(ReplyingKafkaTemplate<String, String, UserAuthResponse> template,
+                               HttpUserClientImpl httpUserClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.user-service.kafka-lookup.timeout-ms:500}") long timeoutMs,
+                               @Value("${application.user-service.kafka-lookup.suspend-ms:30000}") long suspendMs) {
+        this.template = template;
+        this.httpUserClient = httpUserClient;
+        this.meterRegistry = meterRegistry;
+        this.replyTimeout = Duration.ofMillis(timeoutMs);
+        this.suspendMs = suspendMs;
+    }
+
+    /**
+     * Retrieves the credentials of a user by email.
+     *
+     * @param email the email of the user to retrieve
+     * @return the UserAuthResponse returned by the user service
+     * @throws NotFoundException if the user service does not know the email
+     */
+    @Override
+    public UserAuthResponse findByEmail(String email) {
+        if (System.currentTimeMillis() < suspendedUntil) {
+            return this.fallback(email, "suspended");
+        }
+        RequestReplyFuture<String, String, UserAuthResponse> future = null;
+        ConsumerRecord<String, UserAuthResponse> reply;
+        try {
+            future = template.sendAndReceive(
+                    new ProducerRecord<>(KafkaConfig.LOGIN_LOOKUP_TOPIC, email, email), replyTimeout);
+            reply = future.get(replyTimeout.toMillis() + 100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return this.fallback(email, "interrupted");
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            if (future != null) future.cancel(true);
+            suspendedUntil = System.currentTimeMillis() + suspendMs;
+            log.warn(WriteLog.logWarning("--> kafkaUserClient - no reply, falling back to http: " + e.getMessage()));
+            return this.fallback(email, e instanceof TimeoutException ? "timeout" : "error");
+        }
+        if (reply.value() == null) {
+            this.count("not_found");
+            log.error(WriteLog.logError("--> kafkaUserClient - user not found"));
+            throw new NotFoundException("User not found");
+        }
+        this.count("reply");
+        return reply.value();
+    }
+
+    private UserAuthResponse fallback(String email, String reason) {
+        this.count("fallback_" + reason);
+        return httpUserClient.findByEmail(email);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("auth.user.lookup.kafka", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,148 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.authservice.auth_service.service.contracts.LoginThrottle;
+import com.ch.core.chcore.enums.LockoutScope;
+import com.ch.core.chcore.events.LoginLockoutMsg;
+import com.ch.core.chcore.exceptions.TooManyRequestsException;
+import com.ch.core.chcore.helpers.SlidingWindowSketch;
+import com.ch.core.chcore.logs.WriteLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LoginThrottleImpl counts failed logins per email and per client address in lock-free
+ * sliding-window sketches. Once a key reaches its limit it is locked out for a while;
+ * the lockout is published so that every auth service instance rejects the key too.
+ * Checking an attempt costs a map lookup and a few array reads, with no I/O or hashing.
+ *
+ * @author caito
+ *
+ */
+@Service
+@Slf4j
+public class LoginThrottleImpl implements LoginThrottle {
+    public static final String LOCKOUT_TOPIC = "loginLockoutTopic";
+    private final KafkaTemplate<String, LoginLockoutMsg> kafkaTemplate;
+    private final SlidingWindowSketch emailFailures;
+    private final SlidingWindowSketch ipFailures;
+    private final Map<String, Long> lockouts = new ConcurrentHashMap<>();
+    private final int maxEmailFailures;
+    private final int maxIpFailures;
+    private final long lockoutMillis;
+    private final Counter throttledEmail;
+    private final Counter throttledIp;
+    private final Counter failures;
+
+    public LoginThrottleImpl(KafkaTemplate<String, LoginLockoutMsg> kafkaTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.login-throttle.window-seconds:300}") long windowSeconds,
+                             @Value("${application.login-throttle.width:65536}") int width,
+                             @Value("${application.login-throttle.max-email-failures:5}") int maxEmailFailures,
+                             @Value("${application.login-throttle.max-ip-failures:50}") int maxIpFailures,
+                             @Value("${application.login-throttle.lockout-seconds:900}") long lockoutSeconds) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.emailFailures = new SlidingWindowSketch(width, windowSeconds * 1000);
+        this.ipFailures = new SlidingWindowSketch(width, windowSeconds * 1000);
+        this.maxEmailFailures = maxEmailFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.lockoutMillis = lockoutSeconds * 1000;
+        this.throttledEmail = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before the password check")
+                .tag("scope", "email")
+                .register(meterRegistry);
+        this.throttledIp = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before the password check")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        this.failures = Counter.builder("auth.login.failures")
+                .description("Failed login attempts")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.lockouts", lockouts, Map::size)
+                .description("Emails and client addresses currently locked out")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void check(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (email != null && this.isLocked(key(LockoutScope.EMAIL, email), now)) {
+            throttledEmail.increment();
+            log.warn(WriteLog.logWarning("--> Login throttled for " + email));
+            throw new TooManyRequestsException("Too many failed attempts, try again later");
+        }
+        if (clientIp != null && this.isLocked(key(LockoutScope.IP, clientIp), now)) {
+            throttledIp.increment();
+            log.warn(WriteLog.logWarning("--> Login throttled for address " + clientIp));
+            throw new TooManyRequestsException("Too many failed attempts, try again later");
+        }
+    }
+
+    @Override
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        failures.increment();
+        if (email != null) {
+            String key = key(LockoutScope.EMAIL, email);
+            if (emailFailures.increment(key, now) >= maxEmailFailures) {
+                this.lockout(LockoutScope.EMAIL, email.toLowerCase(Locale.ROOT), key, now);
+            }
+        }
+        if (clientIp != null) {
+            String key = key(LockoutScope.IP, clientIp);
+            if (ipFailures.increment(key, now) >= maxIpFailures) {
+                this.lockout(LockoutScope.IP, clientIp, key, now);
+            }
+        }
+    }
+
+    @Override
+    public void applyLockout(LoginLockoutMsg msg) {
+        if (msg.getScope() == null || msg.getKey() == null) return;
+        lockouts.merge(key(msg.getScope(), msg.getKey()), msg.getUntil(), Math::max);
+    }
+
+    /**
+     * Drops the lockouts that are over.
+     */
+    @Scheduled(fixedDelayString = "${application.login-throttle.purge-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        lockouts.values().removeIf(until -> until <= now);
+    }
+
+    private boolean isLocked(String key, long now) {
+        Long until = lockouts.get(key);
+        return until != null && until > now;
+    }
+
+    private void lockout(LockoutScope scope, String value, String key, long now) {
+        long until = now + lockoutMillis;
+        Long previous = lockouts.put(key, until);
+        if (previous != null && previous > now) return;
+        log.warn(WriteLog.logWarning("--> Locking out " + scope + " " + value));
+        kafkaTemplate.send(LOCKOUT_TOPIC, key, LoginLockoutMsg.builder()
+                        .scope(scope)
+                        .key(value)
+                        .until(until)
+                        .build())
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error(WriteLog.logError("--> Error publishing lockout of " + value + ": " + ex.getMessage()));
+                    }
+                });
+    }
+
+    private static String key(LockoutScope scope, String value) {
+        return scope == LockoutScope.EMAIL ? "e:" + value.toLowerCase(Locale.ROOT) : "i:" + value;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.authservice.auth_service.service.contracts.PasswordVerifier;
+import com.ch.core.chcore.events.PasswordRehashMsg;
+import com.ch.core.chcore.exceptions.ServiceUnavailableException;
+import com.ch.core.chcore.exceptions.TooManyRequestsException;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordVerifierImpl runs BCrypt verifications on a dedicated executor sized to the
+ * number of cores with a bounded queue. When the queue is full the login is rejected
+ * right away instead of holding a request thread, and successful logins whose hash
+ * was computed with an outdated cost are rehashed and sent to the user service.
+ *
+ * @author caito
+ *
+ */
+@Service
+@Slf4j
+public class PasswordVerifierImpl implements PasswordVerifier {
+    public static final String REHASH_TOPIC = "passwordRehashTopic";
+    private final PasswordEncoder passwordEncoder;
+    private final KafkaTemplate<String, PasswordRehashMsg> kafkaTemplate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+    private final Timer verifyTimer;
+    private final Counter shed;
+
+    public PasswordVerifierImpl(PasswordEncoder passwordEncoder,
+                                KafkaTemplate<String, PasswordRehashMsg> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${application.password-verifier.threads:0}") int threads,
+                                @Value("${application.password-verifier.queue-capacity:64}") int queueCapacity,
+                                @Value("${application.password-verifier.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.kafkaTemplate = kafkaTemplate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-verifier-" + sequence.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.verifyTimer = Timer.builder("auth.password.verify")
+                .description("Time spent hashing a password to verify it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.shed = Counter.builder("auth.password.verify.shed")
+                .description("Verifications rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.verify.queue", executor, e -> e.getQueue().size())
+                .description("Verifications waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Verifications being computed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies a raw password against its stored hash on the verification executor.
+     *
+     * @param rawPassword the password typed by the user
+     * @param encodedPassword the stored hash
+     * @return true if the password matches the hash
+     * @throws TooManyRequestsException if there is no room left in the queue
+     */
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            log.warn(WriteLog.logWarning("--> passwordVerifier - queue full, shedding login"));
+            throw new TooManyRequestsException("Too many login attempts in progress, try again later");
+        }
+        try {
+            return result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new TooManyRequestsException("Password verification timed out, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new ServiceUnavailableException("Password verification interrupted");
+        } catch (ExecutionException e) {
+            log.error(WriteLog.logError("--> passwordVerifier - error verifying password: " + e.getCause()));
+            throw new ServiceUnavailableException("Password verification failed");
+        }
+    }
+
+    /**
+     * Upgrades the stored hash of a user after a successful login when the configured
+     * cost changed. The new hash is computed in the background, only if the executor has
+     * spare room, and sent to the user service.
+     *
+     * @param user the authenticated user
+     * @param rawPassword the verified password
+     */
+    @Override
+    public void rehashIfNeeded(UserAuthResponse user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) return;
+        try {
+            executor.execute(() -> {
+                log.info(WriteLog.logInfo("--> passwordVerifier - rehashing password of " + user.getEmail()));
+                kafkaTemplate.send(REHASH_TOPIC, user.getEmail(), PasswordRehashMsg.builder()
+                        .email(user.getEmail())
+                        .previousPassword(user.getPassword())
+                        .password(passwordEncoder.encode(rawPassword))
+                        .build());
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn(WriteLog.logWarning("--> passwordVerifier - busy, rehash postponed to next login"));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ch.authservice.auth_service.service.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * RefreshToken represents an issued refresh token.
+ * Every token belongs to a family started by a login; rotating a token issues a new
+ * token of the same family and marks the old one as used, so that presenting a used
+ * token again reveals a stolen token and revokes the whole family.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class RefreshToken implements Serializable {
+    private String token;
+    private String familyId;
+    private String email;
+    private long expiresAt;
+    private long familyExpiresAt;
+    private volatile boolean used;
+}
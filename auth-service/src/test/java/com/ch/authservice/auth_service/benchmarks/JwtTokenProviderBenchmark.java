@@ -0,0 +1,83 @@
+package com.ch.authservice.auth_service.benchmarks;
+
+import com.ch.authservice.auth_service.configs.security.JwtTokenProvider;
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.models.RoleResponse;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the JWT minter.
+ * Compares {@link JwtTokenProvider#generateToken(UserAuthResponse)} against the previous
+ * JJWT builder path, which derived the key and the role list on every call.
+ * Run the main method from the test classpath; the GC profiler reports the bytes
+ * allocated per token as gc.alloc.rate.norm.
+ *
+ * @author caito
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtTokenProviderBenchmark {
+    private static final String SECRET = "Hw9z1Yk8Nmq1IzlwcCg8j6yHzw6RKjzZUi9r7Ww555o0PP";
+
+    private JwtTokenProvider provider;
+    private UserAuthResponse user;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider();
+        user = UserAuthResponse.builder()
+                .email("benchmark.user@example.com")
+                .role(Set.of(new RoleResponse(RoleName.ROLE_USER), new RoleResponse(RoleName.ROLE_ADMIN)))
+                .build();
+    }
+
+    @Benchmark
+    public String precomputed() {
+        return provider.generateToken(user);
+    }
+
+    @Benchmark
+    public String jjwtBuilder() {
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim("roles", user.getRole().stream().map(rol -> rol.getRole().name()).toList())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
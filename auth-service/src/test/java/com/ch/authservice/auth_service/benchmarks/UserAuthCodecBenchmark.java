@@ -0,0 +1,106 @@
+package com.ch.authservice.auth_service.benchmarks;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.models.RoleResponse;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the codecs of the full-data lookup between the user and the auth services.
+ * Compares encoding and decoding a {@link UserAuthResponse} as JSON and as CBOR; the payload sizes
+ * of both formats are compared by HttpUserClientImplTest.
+ * Run the main method from the test classpath; the GC profiler reports the bytes
+ * allocated per operation as gc.alloc.rate.norm.
+ *
+ * @author caito
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class UserAuthCodecBenchmark {
+    private UserAuthResponse user;
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private ObjectWriter cborWriter;
+    private ObjectReader cborReader;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setup() throws IOException {
+        user = UserAuthResponse.builder()
+                .id(123456L)
+                .name("Benchmark User")
+                .email("benchmark.user@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4fH0ZrZ1Zy6Qp6GZQe0xZ2K")
+                .phone("+34 600 000 000")
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enabled(true)
+                .role(Set.of(new RoleResponse(RoleName.ROLE_USER), new RoleResponse(RoleName.ROLE_ADMIN)))
+                .build();
+        ObjectMapper jsonMapper = new ObjectMapper();
+        CBORMapper cborMapper = new CBORMapper();
+        jsonWriter = jsonMapper.writerFor(UserAuthResponse.class);
+        jsonReader = jsonMapper.readerFor(UserAuthResponse.class);
+        cborWriter = cborMapper.writerFor(UserAuthResponse.class);
+        cborReader = cborMapper.readerFor(UserAuthResponse.class);
+        json = jsonWriter.writeValueAsBytes(user);
+        cbor = cborWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return jsonWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] cborEncode() throws IOException {
+        return cborWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserAuthResponse jsonDecode() throws IOException {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public UserAuthResponse cborDecode() throws IOException {
+        return cborReader.readValue(cbor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserAuthCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ch.authservice.auth_service.cache;
+
+import com.ch.authservice.auth_service.consumers.UserChangedConsumer;
+import com.ch.authservice.auth_service.service.contracts.UserClient;
+import com.ch.core.chcore.enums.UserChangeType;
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.core.chcore.exceptions.ServiceUnavailableException;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCredentialCacheTest {
+    private static final String EMAIL = "user@chemical.co";
+
+    private UserClient userClient;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCredentialCache cache;
+    private UserChangedConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        userClient = mock(UserClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCredentialCache(userClient, meterRegistry, 100, 300);
+        consumer = new UserChangedConsumer(cache);
+    }
+
+    @Test
+    void changedUserIsReloaded() {
+        UserAuthResponse disabled = UserAuthResponse.builder().email(EMAIL).enabled(false).build();
+        UserAuthResponse enabled = UserAuthResponse.builder().email(EMAIL).enabled(true).build();
+        when(userClient.findByEmail(EMAIL)).thenReturn(disabled, enabled);
+
+        assertThat(cache.get(EMAIL)).isSameAs(disabled);
+        assertThat(cache.get(EMAIL.toUpperCase())).isSameAs(disabled);
+
+        consumer.handleUserChanged(UserChangedMsg.builder().email(EMAIL).type(UserChangeType.ENABLED).build());
+
+        assertThat(cache.get(EMAIL)).isSameAs(enabled);
+        verify(userClient, times(2)).findByEmail(EMAIL);
+        assertThat(meterRegistry.counter("auth.user.credentials.invalidations").count()).isEqualTo(1);
+    }
+
+    @Test
+    void changeWithoutEmailIsIgnored() {
+        UserAuthResponse user = UserAuthResponse.builder().email(EMAIL).build();
+        when(userClient.findByEmail(EMAIL)).thenReturn(user);
+        cache.get(EMAIL);
+
+        consumer.handleUserChanged(UserChangedMsg.builder().type(UserChangeType.DELETED).build());
+
+        assertThat(cache.get(EMAIL)).isSameAs(user);
+        verify(userClient).findByEmail(EMAIL);
+        assertThat(meterRegistry.counter("auth.user.credentials.invalidations").count()).isZero();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        UserAuthResponse user = UserAuthResponse.builder().email(EMAIL).build();
+        when(userClient.findByEmail(EMAIL))
+                .thenThrow(new ServiceUnavailableException("User service unavailable"))
+                .thenReturn(user);
+
+        assertThatThrownBy(() -> cache.get(EMAIL)).isInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(cache.get(EMAIL)).isSameAs(user);
+    }
+}
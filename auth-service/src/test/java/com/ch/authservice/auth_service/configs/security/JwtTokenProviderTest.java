@@ -0,0 +1,92 @@
+package com.ch.authservice.auth_service.configs.security;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.models.RoleResponse;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+    private static final Key KEY = Keys.hmacShaKeyFor(
+            "Hw9z1Yk8Nmq1IzlwcCg8j6yHzw6RKjzZUi9r7Ww555o0PP".getBytes(StandardCharsets.UTF_8));
+    private static final JwtParser JJWT = Jwts.parserBuilder().setSigningKey(KEY).build();
+
+    private final JwtTokenProvider provider = new JwtTokenProvider();
+
+    @Test
+    void tokensAreVerifiedByJjwt() {
+        long before = System.currentTimeMillis() / 1000;
+        String token = provider.generateToken(user("user@chemical.co", RoleName.ROLE_ADMIN, RoleName.ROLE_USER));
+
+        Claims claims = JJWT.parseClaimsJws(token).getBody();
+
+        assertThat(claims.getSubject()).isEqualTo("user@chemical.co");
+        assertThat(claims.get("roles", List.class))
+                .containsExactlyInAnyOrder(RoleName.ROLE_ADMIN.name(), RoleName.ROLE_USER.name());
+        assertThat(claims.getIssuedAt().getTime() / 1000).isBetween(before, before + 5);
+        assertThat(claims.getExpiration().getTime() - claims.getIssuedAt().getTime()).isEqualTo(3_600_000L);
+        assertThat(claims.getId()).isNotBlank();
+        assertThat(JJWT.parseClaimsJws(token).getHeader().getAlgorithm()).isEqualTo("HS256");
+    }
+
+    @Test
+    void everyTokenHasItsOwnId() {
+        UserAuthResponse user = user("user@chemical.co", RoleName.ROLE_USER);
+
+        assertThat(provider.getClaims(provider.generateToken(user)).getId())
+                .isNotEqualTo(provider.getClaims(provider.generateToken(user)).getId());
+    }
+
+    @Test
+    void subjectsAreEscapedAndUsersWithoutRolesGetAnEmptyList() {
+        String email = "quote\"back\\slash\u0001@chemical.co";
+
+        Claims claims = JJWT.parseClaimsJws(provider.generateToken(user(email))).getBody();
+
+        assertThat(claims.getSubject()).isEqualTo(email);
+        assertThat(claims.get("roles", List.class)).isEmpty();
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = provider.generateToken(user("user@chemical.co", RoleName.ROLE_USER));
+        String forged = provider.generateToken(user("admin@chemical.co", RoleName.ROLE_ADMIN));
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertThatThrownBy(() -> provider.getClaims(tampered)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> JJWT.parseClaimsJws(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        String expired = Jwts.builder()
+                .setSubject("user@chemical.co")
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(KEY)
+                .compact();
+
+        assertThatThrownBy(() -> provider.getClaims(expired)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    private static UserAuthResponse user(String email, RoleName... roles) {
+        return UserAuthResponse.builder()
+                .email(email)
+                .role(Arrays.stream(roles).map(RoleResponse::new).collect(Collectors.toSet()))
+                .build();
+    }
+}
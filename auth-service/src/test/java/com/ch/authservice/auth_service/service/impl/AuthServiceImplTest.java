@@ -0,0 +1,154 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.authservice.auth_service.api.models.requests.RefreshTokenRequest;
+import com.ch.authservice.auth_service.api.models.requests.RevokeTokenRequest;
+import com.ch.authservice.auth_service.api.models.responses.LoginResponse;
+import com.ch.authservice.auth_service.cache.UserCredentialCache;
+import com.ch.authservice.auth_service.configs.security.JwtTokenProvider;
+import com.ch.authservice.auth_service.metrics.LoginMetrics;
+import com.ch.authservice.auth_service.service.contracts.LoginThrottle;
+import com.ch.authservice.auth_service.service.contracts.PasswordVerifier;
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.events.TokenRevokedMsg;
+import com.ch.core.chcore.exceptions.TooManyRequestsException;
+import com.ch.core.chcore.exceptions.UnauthorizedException;
+import com.ch.core.chcore.models.LoginRequest;
+import com.ch.core.chcore.models.RoleResponse;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthServiceImplTest {
+    private static final String EMAIL = "user@chemical.co";
+
+    private final PasswordVerifier passwordVerifier = mock(PasswordVerifier.class);
+    private final UserCredentialCache userCredentialCache = mock(UserCredentialCache.class);
+    private final LoginThrottle loginThrottle = mock(LoginThrottle.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, TokenRevokedMsg> tokenRevokedTemplate = mock(KafkaTemplate.class);
+    private final InMemoryRefreshTokenStoreImpl refreshTokenStore =
+            new InMemoryRefreshTokenStoreImpl(meterRegistry, 1000, 64);
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthServiceImpl(new JwtTokenProvider(), passwordVerifier, userCredentialCache,
+                refreshTokenStore, loginThrottle, new LoginMetrics(meterRegistry), tokenRevokedTemplate);
+        ReflectionTestUtils.setField(authService, "refreshTtlHours", 168L);
+        ReflectionTestUtils.setField(authService, "maxSessionHours", 720L);
+        when(userCredentialCache.get(EMAIL)).thenReturn(UserAuthResponse.builder()
+                .email(EMAIL)
+                .password("hash")
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .role(Set.of(new RoleResponse(RoleName.ROLE_USER)))
+                .build());
+        when(passwordVerifier.matches(anyString(), any())).thenReturn(true);
+    }
+
+    @Test
+    void refreshRotatesTheToken() {
+        LoginResponse login = this.login();
+
+        LoginResponse refreshed = authService.refresh(refresh(login.getRefresh_token()));
+
+        assertThat(refreshed.getRefresh_token()).isNotEqualTo(login.getRefresh_token());
+        assertThat(refreshed.getAccess_token()).isNotBlank();
+        assertThat(authService.refresh(refresh(refreshed.getRefresh_token())).getRefresh_token()).isNotBlank();
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        LoginResponse login = this.login();
+        LoginResponse other = this.login();
+        String rotated = authService.refresh(refresh(login.getRefresh_token())).getRefresh_token();
+
+        assertThatThrownBy(() -> authService.refresh(refresh(login.getRefresh_token())))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> authService.refresh(refresh(rotated)))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(authService.refresh(refresh(other.getRefresh_token())).getRefresh_token()).isNotBlank();
+    }
+
+    @Test
+    void revokingARefreshTokenEndsItsSession() {
+        LoginResponse login = this.login();
+        String rotated = authService.refresh(refresh(login.getRefresh_token())).getRefresh_token();
+
+        authService.revoke(RevokeTokenRequest.builder().refresh_token(rotated).build());
+
+        assertThatThrownBy(() -> authService.refresh(refresh(rotated)))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void unknownTokensAreRejected() {
+        assertThatThrownBy(() -> authService.refresh(refresh("unknown")))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> authService.refresh(refresh(null)))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void successfulLoginIsTimedPerPhase() {
+        this.login();
+
+        assertThat(meterRegistry.timer("auth.login", "outcome", "success").count()).isEqualTo(1);
+        assertThat(this.phaseCount("lookup", "success")).isEqualTo(1);
+        assertThat(this.phaseCount("verify", "success")).isEqualTo(1);
+        assertThat(this.phaseCount("sign", "success")).isEqualTo(1);
+        assertThat(this.phaseCount("decode", "success")).isZero();
+    }
+
+    @Test
+    void wrongPasswordIsTimedAsBadPassword() {
+        when(passwordVerifier.matches(anyString(), any())).thenReturn(false);
+
+        assertThatThrownBy(this::login).isInstanceOf(UnauthorizedException.class);
+
+        assertThat(meterRegistry.timer("auth.login", "outcome", "bad-password").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.login", "outcome", "disabled").count()).isZero();
+        assertThat(this.phaseCount("verify", "bad-password")).isEqualTo(1);
+        assertThat(this.phaseCount("sign", "bad-password")).isZero();
+    }
+
+    @Test
+    void throttledLoginIsTimedWithoutPhases() {
+        doThrow(new TooManyRequestsException("Too many failed logins"))
+                .when(loginThrottle).check(anyString(), anyString());
+
+        assertThatThrownBy(this::login).isInstanceOf(TooManyRequestsException.class);
+
+        assertThat(meterRegistry.timer("auth.login", "outcome", "throttled").count()).isEqualTo(1);
+        assertThat(this.phaseCount("lookup", "throttled")).isZero();
+        assertThat(this.phaseCount("verify", "throttled")).isZero();
+    }
+
+    private long phaseCount(String phase, String outcome) {
+        return meterRegistry.timer("auth.login.phase", "phase", phase, "outcome", outcome).count();
+    }
+
+    private LoginResponse login() {
+        return authService.login(LoginRequest.builder().email(EMAIL).password("secret").build(), "127.0.0.1");
+    }
+
+    private static RefreshTokenRequest refresh(String token) {
+        return RefreshTokenRequest.builder().refresh_token(token).build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.exceptions.ServiceUnavailableException;
+import com.ch.core.chcore.models.RoleResponse;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpUserClientImplTest {
+    private static final UserAuthResponse USER = UserAuthResponse.builder()
+            .id(42L)
+            .name("Test User")
+            .email("test.user@example.com")
+            .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4fH0ZrZ1Zy6Qp6GZQe0xZ2K")
+            .phone("+34 600 000 000")
+            .accountNonExpired(true)
+            .accountNonLocked(true)
+            .credentialsNonExpired(true)
+            .enabled(true)
+            .role(Set.of(new RoleResponse(RoleName.ROLE_USER), new RoleResponse(RoleName.ROLE_ADMIN)))
+            .build();
+
+    private final CountDownLatch slowEntered = new CountDownLatch(1);
+    private final CountDownLatch slowReleased = new CountDownLatch(1);
+    private HttpServer server;
+    private byte[] json;
+    private byte[] cbor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        json = new ObjectMapper().writeValueAsBytes(USER);
+        cbor = new CBORMapper().writeValueAsBytes(USER);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/json/v1/users/full-data/", exchange -> {
+            exchange.getResponseHeaders().add("content-type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            exchange.getResponseBody().write(json);
+            exchange.close();
+        });
+        server.createContext("/cbor/v1/users/full-data/", exchange -> {
+            exchange.getResponseHeaders().add("content-type", "application/cbor");
+            exchange.sendResponseHeaders(200, cbor.length);
+            exchange.getResponseBody().write(cbor);
+            exchange.close();
+        });
+        server.createContext("/missing/v1/users/full-data/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/slow/v1/users/full-data/", exchange -> {
+            slowEntered.countDown();
+            try {
+                slowReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("content-type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            exchange.getResponseBody().write(json);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowReleased.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void decodesCborAnswers() {
+        assertThat(this.client("/cbor").findByEmail(USER.getEmail())).isEqualTo(USER);
+    }
+
+    @Test
+    void decodesJsonAnswers() {
+        assertThat(this.client("/json").findByEmail(USER.getEmail())).isEqualTo(USER);
+    }
+
+    @Test
+    void cborPayloadIsSmallerThanJson() {
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    @Test
+    void unknownEmailIsNotFound() {
+        assertThatThrownBy(() -> this.client("/missing").findByEmail("nobody@example.com"))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void callsBeyondMaxInFlightAreRejected() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HttpUserClientImpl client = this.client("/slow", meterRegistry, 5000, 1);
+        CompletableFuture<UserAuthResponse> first =
+                CompletableFuture.supplyAsync(() -> client.findByEmail(USER.getEmail()));
+        assertThat(slowEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> client.findByEmail(USER.getEmail()))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.counter("auth.user.client.rejected").count()).isEqualTo(1);
+
+        slowReleased.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(USER);
+        assertThat(client.findByEmail(USER.getEmail())).isEqualTo(USER);
+    }
+
+    @Test
+    void slowAnswerTimesOutAsUnavailable() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HttpUserClientImpl client = this.client("/slow", meterRegistry, 100, 10);
+
+        assertThatThrownBy(() -> client.findByEmail(USER.getEmail()))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.timer("auth.user.client.requests", "outcome", "error").count()).isEqualTo(1);
+    }
+
+    private HttpUserClientImpl client(String path) {
+        return this.client(path, new SimpleMeterRegistry(), 1000, 10);
+    }
+
+    private HttpUserClientImpl client(String path, SimpleMeterRegistry meterRegistry, long requestTimeoutMs,
+                                      int maxInFlight) {
+        return new HttpUserClientImpl(HttpClient.newHttpClient(), new ObjectMapper(), meterRegistry,
+                "http://localhost:" + server.getAddress().getPort() + path, requestTimeoutMs, maxInFlight, 100);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.kafka.requestreply.RequestReplyFuture;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaUserClientImplTest {
+    private static final String EMAIL = "user@chemical.co";
+    private static final UserAuthResponse USER = UserAuthResponse.builder().email(EMAIL).build();
+    private static final long TIMEOUT_MS = 50;
+
+    private ReplyingKafkaTemplate<String, String, UserAuthResponse> template;
+    private HttpUserClientImpl httpUserClient;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        template = mock(ReplyingKafkaTemplate.class);
+        httpUserClient = mock(HttpUserClientImpl.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(httpUserClient.findByEmail(EMAIL)).thenReturn(USER);
+    }
+
+    @Test
+    void replyIsReturned() {
+        when(template.sendAndReceive(anyRecord(), eq(Duration.ofMillis(TIMEOUT_MS)))).thenReturn(this.reply(USER));
+
+        assertThat(this.client(60_000).findByEmail(EMAIL)).isSameAs(USER);
+
+        verify(httpUserClient, never()).findByEmail(any());
+        assertThat(this.count("reply")).isEqualTo(1);
+    }
+
+    @Test
+    void emptyReplyIsNotFound() {
+        when(template.sendAndReceive(anyRecord(), any(Duration.class))).thenReturn(this.reply(null));
+
+        assertThatThrownBy(() -> this.client(60_000).findByEmail(EMAIL)).isInstanceOf(NotFoundException.class);
+
+        verify(httpUserClient, never()).findByEmail(any());
+    }
+
+    @Test
+    void missingReplyFallsBackToHttpAndSuspendsKafka() {
+        RequestReplyFuture<String, String, UserAuthResponse> pending = new RequestReplyFuture<>();
+        when(template.sendAndReceive(anyRecord(), any(Duration.class))).thenReturn(pending);
+        KafkaUserClientImpl client = this.client(60_000);
+
+        assertThat(client.findByEmail(EMAIL)).isSameAs(USER);
+        assertThat(pending).isCancelled();
+        assertThat(this.count("fallback_timeout")).isEqualTo(1);
+
+        assertThat(client.findByEmail(EMAIL)).isSameAs(USER);
+        verify(template).sendAndReceive(anyRecord(), any(Duration.class));
+        assertThat(this.count("fallback_suspended")).isEqualTo(1);
+    }
+
+    @Test
+    void unreachableBrokerFallsBackToHttpUntilTheSuspensionEnds() throws InterruptedException {
+        when(template.sendAndReceive(anyRecord(), any(Duration.class)))
+                .thenThrow(new KafkaException("broker unreachable"))
+                .thenReturn(this.reply(USER));
+        KafkaUserClientImpl client = this.client(50);
+
+        assertThat(client.findByEmail(EMAIL)).isSameAs(USER);
+        assertThat(this.count("fallback_error")).isEqualTo(1);
+
+        Thread.sleep(100);
+
+        assertThat(client.findByEmail(EMAIL)).isSameAs(USER);
+        assertThat(this.count("reply")).isEqualTo(1);
+        verify(httpUserClient).findByEmail(EMAIL);
+    }
+
+    private KafkaUserClientImpl client(long suspendMs) {
+        return new KafkaUserClientImpl(template, httpUserClient, meterRegistry, TIMEOUT_MS, suspendMs);
+    }
+
+    private RequestReplyFuture<String, String, UserAuthResponse> reply(UserAuthResponse user) {
+        RequestReplyFuture<String, String, UserAuthResponse> future = new RequestReplyFuture<>();
+        future.complete(new ConsumerRecord<>("loginLookupReplies", 0, 0, EMAIL, user));
+        return future;
+    }
+
+    private static ProducerRecord<String, String> anyRecord() {
+        return any();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("auth.user.lookup.kafka", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,104 @@
+package com.ch.authservice.auth_service.service.impl;
+
+import com.ch.core.chcore.events.PasswordRehashMsg;
+import com.ch.core.chcore.exceptions.TooManyRequestsException;
+import com.ch.core.chcore.models.UserAuthResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PasswordVerifierImplTest {
+    private final CountDownLatch verifying = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordEncoder passwordEncoder;
+    private KafkaTemplate<String, PasswordRehashMsg> kafkaTemplate;
+    private PasswordVerifierImpl verifier;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            verifying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        verifier.shutdown();
+    }
+
+    @Test
+    void verificationsBeyondTheQueueAreShed() throws Exception {
+        verifier = this.verifier(5000);
+        CompletableFuture<Boolean> running = this.fillQueue();
+
+        assertThatThrownBy(() -> verifier.matches("secret", "hash")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.counter("auth.password.verify.shed").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(verifier.matches("secret", "hash")).isTrue();
+    }
+
+    @Test
+    void verificationWaitingTooLongIsRejected() {
+        verifier = this.verifier(50);
+
+        assertThatThrownBy(() -> verifier.matches("secret", "hash")).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void rehashIsPostponedWhenBusy() throws Exception {
+        verifier = this.verifier(5000);
+        when(passwordEncoder.upgradeEncoding("hash")).thenReturn(true);
+        CompletableFuture<Boolean> running = this.fillQueue();
+
+        verifier.rehashIfNeeded(UserAuthResponse.builder().email("user@chemical.co").password("hash").build(),
+                "secret");
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        verifier.matches("secret", "hash");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private PasswordVerifierImpl verifier(long waitTimeoutMs) {
+        return new PasswordVerifierImpl(passwordEncoder, kafkaTemplate, meterRegistry, 1, 1, waitTimeoutMs);
+    }
+
+    /**
+     * Occupies the only thread with a verification and the only queue slot with another.
+     *
+     * @return both verifications, completing once released
+     */
+    private CompletableFuture<Boolean> fillQueue() throws InterruptedException {
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> verifier.matches("secret", "hash"));
+        assertThat(verifying.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> verifier.matches("secret", "hash"));
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> meterRegistry.get("auth.password.verify.queue").gauge().value() == 1);
+        return running.thenCombine(queued, Boolean::logicalAnd);
+    }
+}
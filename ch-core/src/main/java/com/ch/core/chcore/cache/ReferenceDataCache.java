@@ -0,0 +1,168 @@
+package com.ch.core.chcore.cache;
+
+import com.ch.core.chcore.events.ReferenceDataChangedEvent;
+import com.ch.core.chcore.logs.WriteLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ReferenceDataCache keeps a small, rarely changing table fully in memory, indexed by key.
+ * The whole table is loaded at once and published as an immutable snapshot, so lookups are
+ * a single map read without locking. The snapshot is replaced when the application is ready,
+ * periodically, when the owning service announces a change with a
+ * {@link ReferenceDataChangedEvent} naming the cache, or when a lookup misses, the latter at
+ * most once per reload interval so that unknown keys cannot hammer the database.
+ * The change event is an in-process Spring event: it refreshes the cache of the instance that
+ * made the change once its transaction commits, while the other instances pick the change up
+ * with their next periodic refresh, or on a miss for a new key.
+ * Lookups, reloads and the snapshot size are published as metrics tagged with the cache name.
+ * Subclasses only provide the loader and the key of the rows of their table.
+ *
+ * @param <K> the type of the lookup key, usually an enum or an id
+ * @param <V> the type of the cached values
+ * @author caito
+ */
+@Slf4j
+public class ReferenceDataCache<K, V> {
+    private final String name;
+    private final Supplier<? extends Collection<V>> loader;
+    private final Function<V, K> keyExtractor;
+    private final long minReloadNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loads;
+    private volatile Map<K, V> snapshot = Map.of();
+    private volatile long loadedAt = Long.MIN_VALUE / 2;
+
+    /**
+     * Creates a cache. The cache is empty until the first refresh or lookup.
+     *
+     * @param name the name of the cache, used in logs and metric tags
+     * @param loader the supplier of every row of the table
+     * @param keyExtractor the function extracting the lookup key of a row
+     * @param minReloadInterval the minimum time between two reloads triggered by misses
+     * @param meterRegistry the registry of the cache metrics
+     */
+    public ReferenceDataCache(String name,
+                              Supplier<? extends Collection<V>> loader,
+                              Function<V, K> keyExtractor,
+                              Duration minReloadInterval,
+                              MeterRegistry meterRegistry) {
+        this.name = name;
+        this.loader = loader;
+        this.keyExtractor = keyExtractor;
+        this.minReloadNanos = minReloadInterval.toNanos();
+        this.hits = Counter.builder("reference.data.lookups")
+                .description("Reference data lookups")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("reference.data.lookups")
+                .description("Reference data lookups")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.loads = Timer.builder("reference.data.loads")
+                .description("Time spent loading reference data")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("reference.data.size", this, cache -> cache.snapshot.size())
+                .description("Reference data rows held in memory")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the table when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        this.refresh();
+    }
+
+    /**
+     * Reloads the table periodically, so changes made by other instances are picked up.
+     */
+    @Scheduled(fixedDelayString = "${application.reference-data.refresh-ms:300000}",
+            initialDelayString = "${application.reference-data.refresh-ms:300000}")
+    public void scheduledRefresh() {
+        this.refresh();
+    }
+
+    /**
+     * Reloads the table once the transaction announcing a change on it commits.
+     *
+     * @param event the change, naming the cache to refresh
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(ReferenceDataChangedEvent event) {
+        if (name.equals(event.getCache())) {
+            this.refresh();
+        }
+    }
+
+    /**
+     * Returns the value of a key, reloading the table once if the key is unknown.
+     *
+     * @param key the key to look up
+     * @return the value, or empty if the key does not exist
+     */
+    public Optional<V> get(K key) {
+        V value = snapshot.get(key);
+        if (value != null) {
+            hits.increment();
+            return Optional.of(value);
+        }
+        misses.increment();
+        if (System.nanoTime() - loadedAt >= minReloadNanos) {
+            synchronized (this) {
+                if (System.nanoTime() - loadedAt >= minReloadNanos) {
+                    this.refresh();
+                }
+            }
+            return Optional.ofNullable(snapshot.get(key));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns every cached value.
+     *
+     * @return the values of the current snapshot
+     */
+    public Collection<V> all() {
+        return snapshot.values();
+    }
+
+    /**
+     * Reloads the whole table and replaces the snapshot.
+     * If loading fails, the previous snapshot is kept.
+     */
+    public synchronized void refresh() {
+        try {
+            Map<K, V> loaded = new HashMap<>();
+            loads.record(() -> loader.get().forEach(value -> loaded.put(keyExtractor.apply(value), value)));
+            snapshot = Map.copyOf(loaded);
+            log.info(WriteLog.logInfo("--> reference data " + name + " loaded with " + loaded.size() + " rows"));
+        } catch (RuntimeException e) {
+            log.error(WriteLog.logError("--> reference data " + name + " could not be loaded: " + e.getMessage()));
+        } finally {
+            loadedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ch.core.chcore.datasource;
+
+import com.ch.core.chcore.logs.WriteLog;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReadWriteRoutingDataSource sends the connections of read-only transactions to the read replicas,
+ * round-robin, and every other connection to the primary.
+ * The lag of every replica is checked in the background; a replica lagging more than the maximum,
+ * or that cannot be reached, is skipped until it catches up, and read-only transactions fall back
+ * to the primary when no replica is usable.
+ * The transaction is known to be read-only only once it has started, so this data source must be
+ * wrapped in a LazyConnectionDataSourceProxy that defers fetching the connection to the first statement.
+ * Connections per target, fallbacks and the lag and health of every replica are published as metrics;
+ * the pools publish their own metrics under their pool name.
+ *
+ * @author caito
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final ReplicaLagProbe lagProbe;
+    private final long maxLagMillis;
+    private final long checkMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final Counter fallbacks;
+    private ScheduledExecutorService checker;
+
+    /**
+     * Creates a routing data source.
+     *
+     * @param primary the primary data source
+     * @param replicas the replica data sources by name
+     * @param lagProbe the probe measuring the lag of a replica
+     * @param maxLagMillis the maximum lag of a usable replica in milliseconds
+     * @param checkMillis the interval between two lag checks in milliseconds
+     * @param meterRegistry the registry of the routing metrics
+     */
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      Map<String, DataSource> replicas,
+                                      ReplicaLagProbe lagProbe,
+                                      long maxLagMillis,
+                                      long checkMillis,
+                                      MeterRegistry meterRegistry) {
+        this.lagProbe = lagProbe;
+        this.maxLagMillis = maxLagMillis;
+        this.checkMillis = checkMillis;
+        this.primaryConnections = connections(meterRegistry, PRIMARY);
+        this.fallbacks = Counter.builder("db.routing.fallbacks")
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(meterRegistry);
+        this.replicas = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, connections(meterRegistry, name));
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .description("Replication lag of the replica, as last checked")
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .tag("replica", name)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+        });
+        this.setTargetDataSources(targets);
+        this.setDefaultTargetDataSource(primary);
+        this.setLenientFallback(false);
+    }
+
+    /**
+     * Creates a routing data source whose replica pools copy the settings of the primary pool.
+     *
+     * @param primary the primary pool
+     * @param properties the replica settings
+     * @param meterRegistry the registry of the routing and pool metrics
+     * @return the routing data source
+     */
+    public static ReadWriteRoutingDataSource create(HikariDataSource primary,
+                                                    ReplicaProperties properties,
+                                                    MeterRegistry meterRegistry) {
+        if (primary.getMetricRegistry() == null && primary.getMetricsTrackerFactory() == null) {
+            primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        Map<String, DataSource> replicas = new HashMap<>();
+        List<ReplicaProperties.Replica> settings = properties.getReplicas();
+        for (int i = 0; i < settings.size(); i++) {
+            ReplicaProperties.Replica setting = settings.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            String name = "replica-" + i;
+            replica.setPoolName(name);
+            replica.setJdbcUrl(setting.getUrl());
+            if (setting.getUsername() != null) {
+                replica.setUsername(setting.getUsername());
+                replica.setPassword(setting.getPassword());
+            }
+            if (setting.getMaxPoolSize() != null) {
+                replica.setMaximumPoolSize(setting.getMaxPoolSize());
+            }
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(name, replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas,
+                ReplicaLagProbe.query(properties.getLagQuery(), properties.getLagColumn()),
+                properties.getMaxLagMs(), properties.getCheckMs(), meterRegistry);
+    }
+
+    /**
+     * Resolves the targets and starts checking the replicas.
+     * Replicas are not used until their first check.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                replica.connections.increment();
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Measures the lag of every replica and updates which ones are usable.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            long lag;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                lag = lagProbe.lagMillis(connection);
+            } catch (Exception e) {
+                log.warn(WriteLog.logWarning("--> Error checking replica " + replica.name + ": " + e.getMessage()));
+                lag = Long.MAX_VALUE;
+            }
+            boolean usable = lag <= maxLagMillis;
+            if (usable != replica.usable) {
+                if (usable) {
+                    log.info(WriteLog.logInfo("--> Replica " + replica.name + " usable, lag " + lag + " ms"));
+                } else {
+                    log.warn(WriteLog.logWarning("--> Replica " + replica.name + " not usable, lag "
+                            + (lag == Long.MAX_VALUE ? "unknown" : lag + " ms")));
+                }
+            }
+            replica.lagMillis = lag == Long.MAX_VALUE ? -1 : lag;
+            replica.usable = usable;
+        }
+    }
+
+    /**
+     * Stops checking the replicas and closes their pools. The primary is left to its owner.
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.connections")
+                .tag("target", target)
+                .description("Connections handed out per routing target")
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter connections;
+        private volatile long lagMillis = -1;
+        private volatile boolean usable;
+
+        private Replica(String name, DataSource dataSource, Counter connections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.connections = connections;
+        }
+    }
+}
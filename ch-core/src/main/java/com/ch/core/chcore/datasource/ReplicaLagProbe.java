@@ -0,0 +1,44 @@
+package com.ch.core.chcore.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Measures how far a replica lags behind the primary.
+ *
+ * @author caito
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * Measures the replication lag.
+     *
+     * @param connection a connection to the replica
+     * @return the lag in milliseconds, {@link Long#MAX_VALUE} when it is not replicating
+     * @throws SQLException if the lag cannot be read
+     */
+    long lagMillis(Connection connection) throws SQLException;
+
+    /**
+     * Creates a probe reading the lag in seconds from a column of the first row of a query,
+     * such as Seconds_Behind_Source of SHOW REPLICA STATUS. No row or a null value means the
+     * replica is not replicating.
+     *
+     * @param query the query returning the lag
+     * @param column the label of the column holding the lag in seconds
+     * @return the probe
+     */
+    static ReplicaLagProbe query(String query, String column) {
+        return connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(query)) {
+                if (!rs.next()) return Long.MAX_VALUE;
+                long seconds = rs.getLong(column);
+                return rs.wasNull() ? Long.MAX_VALUE : seconds * 1000;
+            }
+        };
+    }
+}
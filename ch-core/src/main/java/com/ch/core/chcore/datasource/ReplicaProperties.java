@@ -0,0 +1,32 @@
+package com.ch.core.chcore.datasource;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the read replicas used by {@link ReadWriteRoutingDataSource}.
+ * Replica pools inherit every setting of the primary pool except the url, the credentials
+ * and, when given, the maximum pool size. A replica is used only while its lag, measured by
+ * the lag query every check interval, stays within the maximum lag.
+ * The defaults read the lag of a MySQL replica.
+ *
+ * @author caito
+ */
+@Data
+public class ReplicaProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private long maxLagMs = 5000;
+    private long checkMs = 2000;
+    private String lagQuery = "SHOW REPLICA STATUS";
+    private String lagColumn = "Seconds_Behind_Source";
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private Integer maxPoolSize;
+    }
+}
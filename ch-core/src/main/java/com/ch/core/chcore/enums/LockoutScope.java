@@ -0,0 +1,6 @@
+package com.ch.core.chcore.enums;
+
+public enum LockoutScope {
+    EMAIL,
+    IP
+}
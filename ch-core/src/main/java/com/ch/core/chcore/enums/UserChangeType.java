@@ -0,0 +1,9 @@
+package com.ch.core.chcore.enums;
+
+public enum UserChangeType {
+    CREATED,
+    ENABLED,
+    ROLES_CHANGED,
+    CREDENTIALS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,17 @@
+package com.ch.core.chcore.events;
+
+/**
+ * Names of the Kafka headers shared by the producers and the consumers of the events.
+ *
+ * @author caito
+ */
+public final class EventHeaders {
+    /**
+     * Id of the event, set by the producers relaying a transactional outbox, so that
+     * consumers can discard the copies of a redelivered event.
+     */
+    public static final String EVENT_ID = "eventId";
+
+    private EventHeaders() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.ch.core.chcore.events;
+
+import com.ch.core.chcore.enums.LockoutScope;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * LoginLockoutMsg class represents a temporary login lockout decided by an auth service instance.
+ * It contains the scope of the lockout, the locked email or client address and the time,
+ * in epoch milliseconds, until which login attempts are rejected.
+ *
+ * @author caito
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class LoginLockoutMsg implements Serializable {
+    private LockoutScope scope;
+    private String key;
+    private long until;
+}
@@ -0,0 +1,24 @@
+package com.ch.core.chcore.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * PasswordRehashMsg class represents a password hash upgraded after a successful login.
+ * It contains the email of the user, the hash that was verified and the new hash
+ * computed with the current cost, so that the change is only applied if the stored
+ * hash did not change in between.
+ *
+ * @author caito
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class PasswordRehashMsg implements Serializable {
+    private String email;
+    private String previousPassword;
+    private String password;
+}
@@ -0,0 +1,21 @@
+package com.ch.core.chcore.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * ReferenceDataChangedEvent class represents a change on a table held by a
+ * {@link com.ch.core.chcore.cache.ReferenceDataCache}.
+ * It contains the name of the cache that has to be refreshed.
+ *
+ * @author caito
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class ReferenceDataChangedEvent implements Serializable {
+    private String cache;
+}
@@ -0,0 +1,22 @@
+package com.ch.core.chcore.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * TokenRevokedMsg class represents a JWT revoked before its expiration.
+ * It contains the id of the token (jti claim) and its expiration time in epoch milliseconds,
+ * after which the revocation no longer needs to be remembered.
+ *
+ * @author caito
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class TokenRevokedMsg implements Serializable {
+    private String jti;
+    private long expiresAt;
+}
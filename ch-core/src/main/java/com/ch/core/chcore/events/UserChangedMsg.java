@@ -0,0 +1,25 @@
+package com.ch.core.chcore.events;
+
+import com.ch.core.chcore.enums.UserChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * UserChangedMsg class represents a change on a user account.
+ * It contains the id, email and name of the user and the kind of change applied.
+ * This class is used to let other services drop any copy they keep of the user.
+ *
+ * @author caito
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class UserChangedMsg implements Serializable {
+    private Long id;
+    private String email;
+    private String name;
+    private UserChangeType type;
+}
@@ -0,0 +1,15 @@
+package com.ch.core.chcore.exceptions;
+
+/**
+ * Custom exception to indicate that a change was based on an outdated version of a resource.
+ * This exception is thrown when an optimistic version check fails,
+ * so that the client can reload the resource and retry.
+ *
+ * @author caito
+ *
+ */
+public class ConflictException extends RuntimeException{
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ch.core.chcore.exceptions;
+
+/**
+ * Custom exception to indicate that a downstream service could not be reached
+ * or did not answer in time.
+ * This exception is thrown when a remote call fails, times out or is rejected
+ * because too many calls are already in flight.
+ *
+ * @author caito
+ *
+ */
+public class ServiceUnavailableException extends RuntimeException{
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ch.core.chcore.exceptions;
+
+/**
+ * Custom exception to indicate that the service is saturated and sheds the request.
+ * This exception is thrown when a bounded resource has no capacity left,
+ * so that the client can back off and retry later.
+ *
+ * @author caito
+ *
+ */
+public class TooManyRequestsException extends RuntimeException{
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ch.core.chcore.helpers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * HashedWheelExpiry tracks keys with an absolute expiration time in a hashed timing wheel.
+ * Scheduling a key is a constant time append to the bucket of its expiration tick,
+ * and advancing the wheel only visits the buckets of the ticks that elapsed,
+ * so expiring entries does not require scanning the whole key space.
+ * Keys whose expiration lies more than one revolution ahead stay in their bucket
+ * until the wheel reaches them again. A key removed early is cancelled through the bucket of
+ * its expiration time, so it does not stay in the wheel until then.
+ *
+ * @param <K> the type of the tracked keys
+ * @author caito
+ */
+public class HashedWheelExpiry<K> {
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<Entry<K>>[] wheel;
+    private long lastTick;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis the duration of a tick in milliseconds
+     * @param ticksPerWheel the number of buckets, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelExpiry(long tickMillis, int ticksPerWheel) {
+        if (tickMillis <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickMillis and ticksPerWheel must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    /**
+     * Schedules a key to expire at the given time.
+     *
+     * @param key the key to expire
+     * @param expiresAtMillis the absolute expiration time in epoch milliseconds
+     */
+    public void schedule(K key, long expiresAtMillis) {
+        wheel[(int) ((expiresAtMillis / tickMillis) & mask)].add(new Entry<>(key, expiresAtMillis));
+    }
+
+    /**
+     * Cancels a scheduled key, so it is never handed to the expiry callback.
+     *
+     * @param key the key to cancel
+     * @param expiresAtMillis the expiration time the key was scheduled with
+     * @return true if the key was scheduled
+     */
+    public boolean cancel(K key, long expiresAtMillis) {
+        return wheel[(int) ((expiresAtMillis / tickMillis) & mask)]
+                .removeIf(entry -> entry.expiresAtMillis() == expiresAtMillis && entry.key().equals(key));
+    }
+
+    /**
+     * Advances the wheel up to the given time and hands every expired key to the callback.
+     * The bucket of the last visited tick is visited again, since keys scheduled later in that tick
+     * are not due yet when it is first reached. Only one thread advances the wheel at a time.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @param onExpire the callback receiving the expired keys
+     * @return the number of expired keys
+     */
+    public synchronized int advance(long nowMillis, Consumer<K> onExpire) {
+        long nowTick = nowMillis / tickMillis;
+        long ticks = Math.min(nowTick - lastTick, wheel.length - 1);
+        int expired = 0;
+        for (long tick = nowTick - ticks; tick <= nowTick; tick++) {
+            Queue<Entry<K>> bucket = wheel[(int) (tick & mask)];
+            for (int i = bucket.size(); i > 0; i--) {
+                Entry<K> entry = bucket.poll();
+                if (entry == null) break;
+                if (entry.expiresAtMillis() <= nowMillis) {
+                    onExpire.accept(entry.key());
+                    expired++;
+                } else {
+                    bucket.add(entry);
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, nowTick);
+        return expired;
+    }
+
+    private record Entry<K>(K key, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.ch.core.chcore.helpers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScalableBloomFilter is a thread-safe Bloom filter of strings that grows with its content.
+ * It chains {@link BloomFilter} stages: when the last stage reaches its capacity a new one is
+ * appended with twice the capacity and half the false positive probability, so the overall
+ * false positive probability stays below the target however many elements are added.
+ * As with any Bloom filter, elements cannot be removed and a negative answer is exact.
+ *
+ * @author caito
+ */
+public class ScalableBloomFilter {
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private volatile Stage[] stages;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Creates a filter.
+     *
+     * @param initialCapacity the number of elements of the first stage
+     * @param fpp the target overall false positive probability, between 0 and 1
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        if (initialCapacity <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive and fpp between 0 and 1");
+        }
+        this.stages = new Stage[]{new Stage(initialCapacity, fpp * (1 - TIGHTENING))};
+    }
+
+    /**
+     * Adds a value to the filter. Values that are probably present already are not added again,
+     * so they do not use up the capacity of the current stage.
+     *
+     * @param value the value to add
+     */
+    public void put(String value) {
+        if (this.mightContain(value)) {
+            return;
+        }
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last.count.incrementAndGet() > last.capacity) {
+            last = this.grow(current);
+            last.count.incrementAndGet();
+        }
+        last.filter.put(value);
+        size.incrementAndGet();
+    }
+
+    /**
+     * Tells whether the value may have been added to the filter.
+     *
+     * @param value the value to look up
+     * @return false if the value was never added, true if it probably was
+     */
+    public boolean mightContain(String value) {
+        Stage[] current = stages;
+        for (int i = current.length - 1; i >= 0; i--) {
+            if (current[i].filter.mightContain(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the approximate number of distinct values added.
+     *
+     * @return the number of values added
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Appends a stage unless another thread already did.
+     *
+     * @param seen the stages the caller found full
+     * @return the last stage
+     */
+    private synchronized Stage grow(Stage[] seen) {
+        Stage[] current = stages;
+        if (current == seen) {
+            Stage last = current[current.length - 1];
+            Stage[] grown = new Stage[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = new Stage(last.capacity * GROWTH, last.fpp * TIGHTENING);
+            stages = grown;
+            current = grown;
+        }
+        return current[current.length - 1];
+    }
+
+    private static final class Stage {
+        private final BloomFilter filter;
+        private final long capacity;
+        private final double fpp;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double fpp) {
+            this.filter = new BloomFilter(capacity, fpp);
+            this.capacity = capacity;
+            this.fpp = fpp;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ch.core.chcore.helpers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SlidingWindowSketch is a lock-free count-min sketch of recent events per key.
+ * Every cell packs the id of its current window together with the counts of the current
+ * and the previous window in a single long updated by compare-and-set, so counting an
+ * event never blocks and old counts decay by themselves as windows roll over.
+ * The estimate weights the previous window by the part of it still inside the sliding window.
+ * Like any count-min sketch it may overestimate under collisions but never underestimates.
+ *
+ * @author caito
+ */
+public class SlidingWindowSketch {
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long WINDOW_MASK = (1L << (64 - 2 * COUNT_BITS)) - 1;
+    private static final int DEPTH = 3;
+
+    private final AtomicLongArray cells;
+    private final int widthMask;
+    private final long windowMillis;
+
+    /**
+     * Creates a sketch.
+     *
+     * @param width the number of cells per row, rounded up to a power of two
+     * @param windowMillis the length of the sliding window in milliseconds
+     */
+    public SlidingWindowSketch(int width, long windowMillis) {
+        if (width <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("width and windowMillis must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.cells = new AtomicLongArray(size * DEPTH);
+        this.widthMask = size - 1;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Counts an event for the key and returns the updated estimate.
+     *
+     * @param key the key of the event
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the estimated number of events of the key in the sliding window
+     */
+    public double increment(String key, long nowMillis) {
+        long window = (nowMillis / windowMillis) & WINDOW_MASK;
+        long hash = hash(key);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = this.index(hash, row);
+            long current;
+            long updated;
+            do {
+                current = cells.get(index);
+                updated = advance(current, window);
+                if ((updated & COUNT_MASK) < COUNT_MASK) {
+                    updated++;
+                }
+            } while (!cells.compareAndSet(index, current, updated));
+            estimate = Math.min(estimate, this.estimate(updated, nowMillis));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated number of events of the key in the sliding window.
+     *
+     * @param key the key of the events
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the estimated number of events
+     */
+    public double estimate(String key, long nowMillis) {
+        long window = (nowMillis / windowMillis) & WINDOW_MASK;
+        long hash = hash(key);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            long cell = advance(cells.get(this.index(hash, row)), window);
+            estimate = Math.min(estimate, this.estimate(cell, nowMillis));
+        }
+        return estimate;
+    }
+
+    private double estimate(long cell, long nowMillis) {
+        double elapsed = (double) (nowMillis % windowMillis) / windowMillis;
+        long previous = (cell >>> COUNT_BITS) & COUNT_MASK;
+        long current = cell & COUNT_MASK;
+        return current + previous * (1 - elapsed);
+    }
+
+    /**
+     * Rolls a cell forward to the given window.
+     */
+    private static long advance(long cell, long window) {
+        long cellWindow = cell >>> (2 * COUNT_BITS);
+        if (cellWindow == window) {
+            return cell;
+        }
+        long previous = cellWindow == ((window - 1) & WINDOW_MASK) ? cell & COUNT_MASK : 0;
+        return (window << (2 * COUNT_BITS)) | (previous << COUNT_BITS);
+    }
+
+    private int index(long hash, int row) {
+        int h = (int) (hash >>> (row * 21)) ^ (int) (hash * (row + 1));
+        return row * (widthMask + 1) + (h & widthMask);
+    }
+
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -8,6 +8,10 @@ import java.util.regex.Pattern;
  * @author caito
  */
 public class ValidationHelper {
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[_A-Za-z0-9-+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
+    private static final Pattern PASS_PATTERN =
+            Pattern.compile("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,}$");
 
     /**
      * Validates if the given email address is in a correct format.
@@ -16,8 +20,7 @@ public class ValidationHelper {
      * @return true if the email is valid, false otherwise
      */
     public static boolean validateEmail(String email){
-        Pattern PATTERN = Pattern.compile("^[_A-Za-z0-9-+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
-        return PATTERN.matcher(email).matches();
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 
     /**
@@ -29,8 +32,6 @@ public class ValidationHelper {
      * @return true if the password is valid, false otherwise
      */
     public static boolean validatePassword(String password){
-        final String PASS_REGEX = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,}$";
-        final Pattern PASS_PATTERN = Pattern.compile(PASS_REGEX);
         return PASS_PATTERN.matcher(password).matches();
     }
 }
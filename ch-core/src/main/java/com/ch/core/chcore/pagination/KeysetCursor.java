@@ -0,0 +1,54 @@
+package com.ch.core.chcore.pagination;
+
+import com.ch.core.chcore.exceptions.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * KeysetCursor is the opaque position of a keyset (seek) paginated listing.
+ * It carries the sort property and direction of the listing together with the values of
+ * the sort key and the id of the last returned row, encoded as URL-safe base64.
+ *
+ * @param property the sort property
+ * @param direction the sort direction
+ * @param id the id of the last returned row
+ * @param value the sort key of the last returned row, or null when sorting by id
+ * @author caito
+ *
+ */
+public record KeysetCursor(String property, Sort.Direction direction, Long id, String value) {
+
+    /**
+     * Encodes the cursor.
+     *
+     * @return the opaque cursor
+     */
+    public String encode() {
+        String raw = property + "," + direction.name() + "," + id + (value == null ? "" : "," + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque cursor.
+     *
+     * @param cursor the opaque cursor
+     * @return the decoded cursor
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",", 4);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Missing cursor fields");
+            }
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]),
+                    parts.length == 4 ? parts[3] : null);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(List.of("Invalid cursor"));
+        }
+    }
+}
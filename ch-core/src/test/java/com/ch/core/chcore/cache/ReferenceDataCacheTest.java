@@ -0,0 +1,85 @@
+package com.ch.core.chcore.cache;
+
+import com.ch.core.chcore.events.ReferenceDataChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceDataCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> table = new ArrayList<>(List.of("alpha", "beta"));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void lookupsHitTheSnapshot() {
+        ReferenceDataCache<Character, String> cache = this.cache(Duration.ofHours(1));
+        cache.warmUp();
+
+        assertThat(cache.get('a')).contains("alpha");
+        assertThat(cache.get('b')).contains("beta");
+        assertThat(cache.all()).containsExactlyInAnyOrder("alpha", "beta");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("reference.data.lookups").tag("result", "hit").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("reference.data.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void missesReloadAtMostOncePerInterval() {
+        ReferenceDataCache<Character, String> cache = this.cache(Duration.ofHours(1));
+        table.add("gamma");
+
+        assertThat(cache.get('g')).contains("gamma");
+        table.add("delta");
+
+        assertThat(cache.get('d')).isEmpty();
+        assertThat(cache.get('d')).isEmpty();
+        assertThat(loads).hasValue(1);
+
+        ReferenceDataCache<Character, String> eager = this.cache(Duration.ZERO);
+        eager.get('d');
+        table.add("epsilon");
+
+        assertThat(eager.get('e')).contains("epsilon");
+    }
+
+    @Test
+    void changeEventsRefreshOnlyTheNamedCache() {
+        ReferenceDataCache<Character, String> cache = this.cache(Duration.ofHours(1));
+        cache.warmUp();
+        table.add("gamma");
+
+        cache.onChanged(ReferenceDataChangedEvent.builder().cache("other").build());
+        assertThat(cache.all()).doesNotContain("gamma");
+
+        cache.onChanged(ReferenceDataChangedEvent.builder().cache("letters").build());
+        assertThat(cache.all()).contains("gamma");
+    }
+
+    @Test
+    void failedLoadsKeepThePreviousSnapshot() {
+        ReferenceDataCache<Character, String> cache = new ReferenceDataCache<>("letters", () -> {
+            if (loads.incrementAndGet() > 1) throw new IllegalStateException("database down");
+            return List.copyOf(table);
+        }, value -> value.charAt(0), Duration.ofHours(1), meterRegistry);
+        cache.warmUp();
+
+        cache.scheduledRefresh();
+
+        assertThat(cache.get('a')).contains("alpha");
+        assertThat(loads).hasValue(2);
+    }
+
+    private ReferenceDataCache<Character, String> cache(Duration minReloadInterval) {
+        return new ReferenceDataCache<>("letters", () -> {
+            loads.incrementAndGet();
+            return List.copyOf(table);
+        }, value -> value.charAt(0), minReloadInterval, meterRegistry);
+    }
+}
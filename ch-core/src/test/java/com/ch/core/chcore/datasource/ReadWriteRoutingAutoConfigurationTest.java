@@ -0,0 +1,127 @@
+package com.ch.core.chcore.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes transactions between two embedded databases standing for the primary and a replica.
+ */
+class ReadWriteRoutingAutoConfigurationTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ReadWriteRoutingAutoConfiguration.class,
+                    DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+                    JdbcTemplateAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=" + PRIMARY_URL,
+                    "application.datasource.replicas[0].url=" + REPLICA_URL,
+                    "application.datasource.max-lag-ms=5000",
+                    "application.datasource.check-ms=60000",
+                    "application.datasource.lag-query=SELECT seconds_behind FROM replica_status",
+                    "application.datasource.lag-column=seconds_behind");
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() throws SQLException {
+        setUp(0);
+        runner.run(context -> {
+            context.getBean(ReadWriteRoutingDataSource.class).checkReplicas();
+
+            assertThat(origin(context, true)).isEqualTo("replica");
+            assertThat(origin(context, false)).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void readOnlyJpaTransactionsGoToTheReplica() throws SQLException {
+        setUp(0);
+        runner.withConfiguration(AutoConfigurations.of(HibernateJpaAutoConfiguration.class))
+                .withPropertyValues("spring.jpa.hibernate.ddl-auto=none")
+                .run(context -> {
+                    assertThat(context.getBean(PlatformTransactionManager.class))
+                            .isInstanceOf(JpaTransactionManager.class);
+                    context.getBean(ReadWriteRoutingDataSource.class).checkReplicas();
+
+                    assertThat(jpaOrigin(context, true)).isEqualTo("replica");
+                    assertThat(jpaOrigin(context, false)).isEqualTo("primary");
+                });
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() throws SQLException {
+        setUp(60);
+        runner.run(context -> {
+            context.getBean(ReadWriteRoutingDataSource.class).checkReplicas();
+
+            assertThat(origin(context, true)).isEqualTo("primary");
+            assertThat(context.getBean(MeterRegistry.class).counter("db.routing.fallbacks").count()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void noReplicasKeepsTheDefaultDataSource() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReadWriteRoutingAutoConfiguration.class,
+                        DataSourceAutoConfiguration.class))
+                .withPropertyValues("spring.datasource.url=" + PRIMARY_URL)
+                .run(context -> assertThat(context).doesNotHaveBean(ReadWriteRoutingDataSource.class));
+    }
+
+    private static String origin(AssertableApplicationContext context, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        return transaction.execute(status -> jdbc.queryForObject("SELECT name FROM origin", String.class));
+    }
+
+    private static String jpaOrigin(AssertableApplicationContext context, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        return transaction.execute(status -> (String) EntityManagerFactoryUtils
+                .getTransactionalEntityManager(entityManagerFactory)
+                .createNativeQuery("SELECT name FROM origin")
+                .getSingleResult());
+    }
+
+    private static void setUp(int replicaLagSeconds) throws SQLException {
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement onPrimary = primary.createStatement();
+             Statement onReplica = replica.createStatement()) {
+            onPrimary.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(20))");
+            onPrimary.execute("DELETE FROM origin");
+            onPrimary.execute("INSERT INTO origin VALUES ('primary')");
+            onReplica.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(20))");
+            onReplica.execute("DELETE FROM origin");
+            onReplica.execute("INSERT INTO origin VALUES ('replica')");
+            onReplica.execute("CREATE TABLE IF NOT EXISTS replica_status (seconds_behind INT)");
+            onReplica.execute("DELETE FROM replica_status");
+            onReplica.execute("INSERT INTO replica_status VALUES (" + replicaLagSeconds + ")");
+        }
+    }
+}
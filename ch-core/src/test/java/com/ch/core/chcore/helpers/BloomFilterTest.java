@@ -0,0 +1,33 @@
+package com.ch.core.chcore.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+    private static final int ELEMENTS = 10_000;
+    private static final double FPP = 0.01;
+
+    @Test
+    void addedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(ELEMENTS, FPP);
+        IntStream.range(0, ELEMENTS).forEach(i -> filter.put("value-" + i));
+
+        assertThat(IntStream.range(0, ELEMENTS)).allMatch(i -> filter.mightContain("value-" + i));
+    }
+
+    @Test
+    void falsePositivesStayNearTheTarget() {
+        BloomFilter filter = new BloomFilter(ELEMENTS, FPP);
+        IntStream.range(0, ELEMENTS).forEach(i -> filter.put("value-" + i));
+
+        assertThat(falsePositiveRate(i -> filter.mightContain("absent-" + i))).isLessThan(FPP * 2);
+    }
+
+    private static double falsePositiveRate(IntPredicate mightContain) {
+        return (double) IntStream.range(0, ELEMENTS).filter(mightContain).count() / ELEMENTS;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ch.core.chcore.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedWheelExpiryTest {
+    private static final long TICK = 100;
+    private static final int TICKS = 8;
+
+    private final HashedWheelExpiry<String> wheel = new HashedWheelExpiry<>(TICK, TICKS);
+    private final long start = System.currentTimeMillis();
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void keysExpireOnceDue() {
+        wheel.schedule("soon", start + 150);
+        wheel.schedule("later", start + 450);
+
+        assertThat(wheel.advance(start + 149, expired::add)).isZero();
+        assertThat(wheel.advance(start + 150, expired::add)).isEqualTo(1);
+        assertThat(wheel.advance(start + 449, expired::add)).isZero();
+        assertThat(wheel.advance(start + 450, expired::add)).isEqualTo(1);
+        assertThat(wheel.advance(start + 1000, expired::add)).isZero();
+
+        assertThat(expired).containsExactly("soon", "later");
+    }
+
+    @Test
+    void keysScheduledInTheCurrentTickExpireOnALaterAdvance() {
+        long tickStart = (start / TICK + 1) * TICK;
+        wheel.advance(tickStart, expired::add);
+        wheel.schedule("same tick", tickStart + TICK / 2);
+
+        wheel.advance(tickStart + TICK / 2, expired::add);
+
+        assertThat(expired).containsExactly("same tick");
+    }
+
+    @Test
+    void keysBeyondOneRevolutionWaitForTheirTurn() {
+        long revolution = TICK * TICKS;
+        wheel.schedule("next revolution", start + revolution + 50);
+
+        assertThat(wheel.advance(start + 50 + TICK, expired::add)).isZero();
+        assertThat(wheel.advance(start + revolution, expired::add)).isZero();
+        assertThat(wheel.advance(start + revolution + 50, expired::add)).isEqualTo(1);
+    }
+
+    @Test
+    void advancingPastSeveralRevolutionsExpiresEveryDueKey() {
+        for (int i = 0; i < 20; i++) {
+            wheel.schedule("key " + i, start + i * TICK);
+        }
+
+        assertThat(wheel.advance(start + 20 * TICK * TICKS, expired::add)).isEqualTo(20);
+    }
+
+    @Test
+    void cancelledKeysNeverExpire() {
+        wheel.schedule("cancelled", start + 150);
+        wheel.schedule("kept", start + 150);
+
+        assertThat(wheel.cancel("cancelled", start + 150)).isTrue();
+        assertThat(wheel.cancel("cancelled", start + 150)).isFalse();
+        assertThat(wheel.cancel("kept", start + 151)).isFalse();
+        wheel.advance(start + 200, expired::add);
+
+        assertThat(expired).containsExactly("kept");
+    }
+}
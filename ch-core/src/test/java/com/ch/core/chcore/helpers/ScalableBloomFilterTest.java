@@ -0,0 +1,33 @@
+package com.ch.core.chcore.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableBloomFilterTest {
+    private static final int ELEMENTS = 10_000;
+    private static final double FPP = 0.01;
+
+    @Test
+    void growsAndKeepsItsTarget() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(ELEMENTS / 20, FPP);
+        IntStream.range(0, ELEMENTS).forEach(i -> filter.put("value-" + i));
+
+        assertThat(IntStream.range(0, ELEMENTS)).allMatch(i -> filter.mightContain("value-" + i));
+        assertThat(filter.size()).isBetween((long) (ELEMENTS * (1 - FPP)), (long) ELEMENTS);
+        long falsePositives = IntStream.range(0, ELEMENTS).filter(i -> filter.mightContain("absent-" + i)).count();
+        assertThat((double) falsePositives / ELEMENTS).isLessThan(FPP);
+    }
+
+    @Test
+    void countsDuplicatesOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, FPP);
+
+        filter.put("value");
+        filter.put("value");
+
+        assertThat(filter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ch.core.chcore.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowSketchTest {
+    private static final long WINDOW = 1000;
+    private static final long START = 1_000_000 * WINDOW;
+
+    private final SlidingWindowSketch sketch = new SlidingWindowSketch(1024, WINDOW);
+
+    @Test
+    void countsEventsOfTheCurrentWindow() {
+        for (int i = 1; i <= 5; i++) {
+            assertThat(sketch.increment("key", START + i)).isEqualTo(i);
+        }
+
+        assertThat(sketch.estimate("key", START + 10)).isEqualTo(5);
+        assertThat(sketch.estimate("other", START + 10)).isZero();
+    }
+
+    @Test
+    void previousWindowDecaysAsTheWindowSlides() {
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("key", START + i);
+        }
+
+        assertThat(sketch.estimate("key", START + WINDOW)).isCloseTo(10, within(1e-9));
+        assertThat(sketch.estimate("key", START + WINDOW + WINDOW / 4)).isCloseTo(7.5, within(1e-9));
+        assertThat(sketch.estimate("key", START + WINDOW + WINDOW / 2)).isCloseTo(5, within(1e-9));
+        assertThat(sketch.increment("key", START + WINDOW + WINDOW / 2)).isCloseTo(6, within(1e-9));
+    }
+
+    @Test
+    void countsOlderThanTwoWindowsAreForgotten() {
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("key", START + i);
+        }
+
+        assertThat(sketch.estimate("key", START + 2 * WINDOW)).isZero();
+        assertThat(sketch.increment("key", START + 5 * WINDOW)).isEqualTo(1);
+    }
+
+    @Test
+    void neverUnderestimatesUnderCollisions() {
+        SlidingWindowSketch narrow = new SlidingWindowSketch(4, WINDOW);
+        for (int key = 0; key < 100; key++) {
+            for (int i = 0; i <= key % 7; i++) {
+                narrow.increment("key-" + key, START);
+            }
+        }
+
+        for (int key = 0; key < 100; key++) {
+            assertThat(narrow.estimate("key-" + key, START)).isGreaterThanOrEqualTo(key % 7 + 1);
+        }
+    }
+}
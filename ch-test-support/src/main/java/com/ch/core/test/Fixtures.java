@@ -0,0 +1,32 @@
+package com.ch.core.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Builders of test fixtures.
+ *
+ * @author caito
+ *
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Builds a list of fixtures, one per index.
+     *
+     * @param count the number of fixtures
+     * @param factory the factory of the fixture of each index, from 0 to count - 1
+     * @return the fixtures, in index order
+     */
+    public static <T> List<T> times(int count, IntFunction<T> factory) {
+        List<T> fixtures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fixtures.add(factory.apply(i));
+        }
+        return fixtures;
+    }
+}
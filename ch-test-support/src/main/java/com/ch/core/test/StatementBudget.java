@@ -0,0 +1,44 @@
+package com.ch.core.test;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test guard that fails when an action prepares more JDBC statements than its budget.
+ * Requires hibernate.generate_statistics to be enabled.
+ *
+ * @author caito
+ *
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    /**
+     * Runs the action and asserts that it prepared at most the given number of statements.
+     *
+     * @param entityManager the entity manager of the test
+     * @param budget the maximum number of statements
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public static <T> T assertAtMost(EntityManager entityManager, long budget, Supplier<T> action) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T result = action.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements prepared, budget %d", budget)
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
+}
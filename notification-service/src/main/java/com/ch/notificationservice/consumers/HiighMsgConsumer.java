@@ -1,9 +1,13 @@
 package com.ch.notificationservice.consumers;
 
+import com.ch.core.chcore.events.EventHeaders;
 import com.ch.core.chcore.events.HighMsg;
+import com.ch.core.chcore.logs.WriteLog;
 import com.ch.notificationservice.services.contracts.MailSender;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
@@ -19,34 +23,59 @@ import java.util.Map;
  */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class HiighMsgConsumer {
     private final MailSender mailSender;
+    private final ProcessedEvents processedEvents;
 
     /**
      * Listens to the "highTopic" Kafka topic and processes HighMsg messages.
      *
+     * Redelivered messages are skipped. If the email cannot be sent the event is released,
+     * so the retry of the message sends it; otherwise it is completed once sent.
+     *
      * @param msg the HighMsg message received from the Kafka topic
+     * @param eventId the id of the event, if the producer set it
      */
     @KafkaListener(topics = "highTopic", groupId = "high-user-group")
-    public void handleUserRegistry(HighMsg msg){
-        System.out.println("Received message: " + msg.getEmail() + " " + msg.getUsername() + " "
-                + msg.getValidationToken());
+    public void handleUserRegistry(HighMsg msg,
+                                   @Header(name = EventHeaders.EVENT_ID, required = false) byte[] eventId){
+        if (!processedEvents.firstDelivery(eventId)) {
+            log.warn(WriteLog.logWarning("--> skipping redelivered message for: " + msg.getEmail()));
+            return;
+        }
+        log.info(WriteLog.logInfo("--> sending activation email to: " + msg.getEmail()));
         Map<String, String> data = new HashMap<>();
         data.put("name", msg.getUsername());
         data.put("token", msg.getValidationToken());
-        mailSender.sendEmailWithTemplate(new String[]{msg.getEmail()},
-                "Account Activation - No Reply",
-                "templates/account-activation.html",
-                data);
+        try {
+            mailSender.sendEmailWithTemplate(new String[]{msg.getEmail()},
+                    "Account Activation - No Reply",
+                    "templates/account-activation.html",
+                    data);
+        } catch (RuntimeException e) {
+            processedEvents.release(eventId);
+            throw e;
+        }
+        processedEvents.complete(eventId);
     }
 
     /**
      * Listens to the "enableUserTopic" Kafka topic and processes incoming messages.
      *
+     * Redelivered messages are skipped.
+     *
      * @param msg the message received from the Kafka topic
+     * @param eventId the id of the event, if the producer set it
      */
     @KafkaListener(topics = "enableUserTopic", groupId = "high-enable-group")
-    public void handleEnableUser(String msg){
-        System.out.println("Received message: " + msg);
+    public void handleEnableUser(String msg,
+                                 @Header(name = EventHeaders.EVENT_ID, required = false) byte[] eventId){
+        if (!processedEvents.firstDelivery(eventId)) {
+            log.warn(WriteLog.logWarning("--> skipping redelivered message: " + msg));
+            return;
+        }
+        log.info(WriteLog.logInfo("--> received enable user message: " + msg));
+        processedEvents.complete(eventId);
     }
 }
@@ -0,0 +1,92 @@
+package com.ch.notificationservice.consumers;
+
+import com.ch.core.chcore.events.EventHeaders;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.notificationservice.persistence.repositories.ProcessedEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Registry of the processed events, persisted in the "processed_events" table.
+ * Producers relaying a transactional outbox deliver at least once and tag every message
+ * with an {@link EventHeaders#EVENT_ID} header; consumers use this registry to skip the redelivered
+ * copies, so a user never receives the same email twice, even when the copy reaches another
+ * instance or arrives after a restart. An event is claimed before it is processed, completed
+ * once processed and released if processing fails, so the retry of a failed event is not skipped.
+ * A claim left uncompleted for longer than the lease, by an instance stopped while processing,
+ * is taken over by the next delivery. Claims are purged after the retention period, which must
+ * exceed the time a redelivery can take.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class ProcessedEvents {
+    private final ProcessedEventRepository processedEventRepository;
+    private final long leaseMs;
+    private final int retentionDays;
+
+    public ProcessedEvents(ProcessedEventRepository processedEventRepository,
+                           @Value("${application.processed-events.lease-ms:300000}") long leaseMs,
+                           @Value("${application.processed-events.retention-days:7}") int retentionDays) {
+        this.processedEventRepository = processedEventRepository;
+        this.leaseMs = leaseMs;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Claims an event and tells whether it must be processed: it was never claimed, or its
+     * claim expired without being completed. Messages without event id are always processed.
+     *
+     * @param eventId the raw value of the event id header, or null
+     * @return true if the event must be processed
+     */
+    public boolean firstDelivery(byte[] eventId) {
+        if (eventId == null) return true;
+        String id = new String(eventId, StandardCharsets.UTF_8);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return processedEventRepository.insertClaim(id, now) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return processedEventRepository.reclaimExpired(id, now, now.minusNanos(leaseMs * 1_000_000)) == 1;
+        }
+    }
+
+    /**
+     * Marks a claimed event as processed, so its claim never expires.
+     *
+     * @param eventId the raw value of the event id header, or null
+     */
+    public void complete(byte[] eventId) {
+        if (eventId == null) return;
+        processedEventRepository.complete(new String(eventId, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Forgets an event whose processing failed, so that its next delivery is processed.
+     *
+     * @param eventId the raw value of the event id header, or null
+     */
+    public void release(byte[] eventId) {
+        if (eventId == null) return;
+        processedEventRepository.deleteById(new String(eventId, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deletes the claims older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${application.processed-events.purge-ms:3600000}")
+    public void purge() {
+        int purged = processedEventRepository.deleteClaimedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info(WriteLog.logInfo("--> Purged " + purged + " processed events"));
+        }
+    }
+}
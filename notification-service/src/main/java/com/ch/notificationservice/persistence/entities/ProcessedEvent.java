@@ -0,0 +1,29 @@
+package com.ch.notificationservice.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ProcessedEvent represents an event claimed by a consumer, keyed by its event id header.
+ * A claim is completed once the event is processed; an uncompleted claim older than the
+ * lease belongs to a consumer that stopped while processing it and may be claimed again.
+ * This entity is mapped to the "processed_events" table in the database.
+ *
+ * @author caito
+ *
+ */
+@Entity
+@Table(name = "processed_events",
+        indexes = @Index(name = "idx_processed_events_claimed_at", columnList = "claimedAt"))
+@NoArgsConstructor@AllArgsConstructor
+@Getter@Setter@Builder
+public class ProcessedEvent {
+    @Id
+    @Column(length = 36)
+    private String eventId;
+    @Column(nullable = false)
+    private LocalDateTime claimedAt;
+    private boolean completed;
+}
@@ -0,0 +1,41 @@
+package com.ch.notificationservice.persistence.repositories;
+
+import com.ch.notificationservice.persistence.entities.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * ProcessedEventRepository is a Spring Data JPA repository interface for managing
+ * ProcessedEvent entities.
+ * Claims are plain inserts, so the primary key decides which consumer claims an event
+ * even when several instances receive it at the same time.
+ *
+ * @author caito
+ *
+ */
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+    @Transactional
+    @Modifying
+    @Query(value = "insert into processed_events (event_id, claimed_at, completed) values (:eventId, :now, false)",
+            nativeQuery = true)
+    int insertClaim(@Param("eventId") String eventId, @Param("now") LocalDateTime now);
+    @Transactional
+    @Modifying
+    @Query("update ProcessedEvent e set e.claimedAt = :now "
+            + "where e.eventId = :eventId and e.completed = false and e.claimedAt < :expired")
+    int reclaimExpired(@Param("eventId") String eventId, @Param("now") LocalDateTime now,
+                       @Param("expired") LocalDateTime expired);
+    @Transactional
+    @Modifying
+    @Query("update ProcessedEvent e set e.completed = true where e.eventId = :eventId")
+    int complete(@Param("eventId") String eventId);
+    @Transactional
+    @Modifying
+    @Query("delete from ProcessedEvent e where e.claimedAt < :before")
+    int deleteClaimedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,100 @@
+package com.ch.notificationservice.consumers;
+
+import com.ch.notificationservice.persistence.entities.ProcessedEvent;
+import com.ch.notificationservice.persistence.repositories.ProcessedEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProcessedEventsTest {
+    private static final long LEASE_MS = 60_000;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        processedEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void redeliveriesAreSkippedByEveryInstance() {
+        ProcessedEvents first = this.instance();
+        ProcessedEvents second = this.instance();
+        byte[] eventId = eventId();
+
+        assertThat(first.firstDelivery(eventId)).isTrue();
+        first.complete(eventId);
+
+        assertThat(first.firstDelivery(eventId)).isFalse();
+        assertThat(second.firstDelivery(eventId)).isFalse();
+        assertThat(this.instance().firstDelivery(eventId)).isFalse();
+    }
+
+    @Test
+    void releasedEventsAreProcessedAgain() {
+        ProcessedEvents processedEvents = this.instance();
+        byte[] eventId = eventId();
+
+        assertThat(processedEvents.firstDelivery(eventId)).isTrue();
+        processedEvents.release(eventId);
+
+        assertThat(processedEvents.firstDelivery(eventId)).isTrue();
+    }
+
+    @Test
+    void expiredClaimsAreTakenOverUnlessCompleted() {
+        String abandoned = UUID.randomUUID().toString();
+        String completed = UUID.randomUUID().toString();
+        LocalDateTime expired = LocalDateTime.now().minusNanos((LEASE_MS + 1000) * 1_000_000);
+        processedEventRepository.save(ProcessedEvent.builder().eventId(abandoned).claimedAt(expired).build());
+        processedEventRepository.save(ProcessedEvent.builder().eventId(completed).claimedAt(expired)
+                .completed(true).build());
+        ProcessedEvents processedEvents = this.instance();
+
+        assertThat(processedEvents.firstDelivery(abandoned.getBytes(StandardCharsets.UTF_8))).isTrue();
+        assertThat(processedEvents.firstDelivery(abandoned.getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(processedEvents.firstDelivery(completed.getBytes(StandardCharsets.UTF_8))).isFalse();
+    }
+
+    @Test
+    void messagesWithoutEventIdAreAlwaysProcessed() {
+        ProcessedEvents processedEvents = this.instance();
+
+        assertThat(processedEvents.firstDelivery(null)).isTrue();
+        assertThat(processedEvents.firstDelivery(null)).isTrue();
+        assertThat(processedEventRepository.count()).isZero();
+    }
+
+    @Test
+    void purgeDeletesClaimsOlderThanTheRetention() {
+        processedEventRepository.save(ProcessedEvent.builder().eventId("old")
+                .claimedAt(LocalDateTime.now().minusDays(8)).completed(true).build());
+        processedEventRepository.save(ProcessedEvent.builder().eventId("recent")
+                .claimedAt(LocalDateTime.now().minusDays(1)).completed(true).build());
+
+        this.instance().purge();
+
+        assertThat(processedEventRepository.findAll()).extracting(ProcessedEvent::getEventId)
+                .containsExactly("recent");
+    }
+
+    private ProcessedEvents instance() {
+        return new ProcessedEvents(processedEventRepository, LEASE_MS, 7);
+    }
+
+    private static byte[] eventId() {
+        return UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,7 +1,10 @@
 package com.ch.productservice.api.controllers.contracts;
 
 import com.ch.productservice.api.models.requests.ProductRequest;
+import com.ch.productservice.api.models.requests.StockChangeRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
 import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.api.models.responses.StockResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
@@ -36,24 +39,57 @@ public interface ProductController {
 
     @GetMapping
     @SecurityRequirement(name = "security token")
-    @Operation(description = "Retrieve all products")
+    @Operation(description = "Retrieve a page of products using keyset pagination")
+    @Parameters({
+            @Parameter(name = "minPrice", description = "minimum price of the products, optional"),
+            @Parameter(name = "maxPrice", description = "maximum price of the products, optional"),
+            @Parameter(name = "inStock", description = "only products with stock"),
+            @Parameter(name = "size", description = "maximum number of products of the page"),
+            @Parameter(name = "sort", description = "sort property: id, price, name or createdAt"),
+            @Parameter(name = "direction", description = "sort direction: asc or desc"),
+            @Parameter(name = "cursor", description = "cursor of the next page returned with the previous page")
+    })
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
-            @ApiResponse(responseCode = "204", description = "No content, no categories found"),
+            @ApiResponse(responseCode = "204", description = "No content, no products found"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid filter, sort or cursor"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<ProductResponse>> getProducts();
+    public ResponseEntity<ProductPageResponse> getProducts(@RequestParam(required = false) Double minPrice,
+                                                           @RequestParam(required = false) Double maxPrice,
+                                                           @RequestParam(defaultValue = "false") boolean inStock,
+                                                           @RequestParam(defaultValue = "50") int size,
+                                                           @RequestParam(defaultValue = "id") String sort,
+                                                           @RequestParam(defaultValue = "asc") String direction,
+                                                           @RequestParam(required = false) String cursor);
 
     @GetMapping("/category/{categoryId}")
     @SecurityRequirement(name = "security token")
-    @Operation(description = "Retrieve all products by category")
-    @Parameter(name = "categoryId", description = "ID of the category to filter products")
+    @Operation(description = "Retrieve a page of products of a category using keyset pagination")
+    @Parameters({
+            @Parameter(name = "categoryId", description = "ID of the category to filter products"),
+            @Parameter(name = "minPrice", description = "minimum price of the products, optional"),
+            @Parameter(name = "maxPrice", description = "maximum price of the products, optional"),
+            @Parameter(name = "inStock", description = "only products with stock"),
+            @Parameter(name = "size", description = "maximum number of products of the page"),
+            @Parameter(name = "sort", description = "sort property: id, price, name or createdAt"),
+            @Parameter(name = "direction", description = "sort direction: asc or desc"),
+            @Parameter(name = "cursor", description = "cursor of the next page returned with the previous page")
+    })
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
-            @ApiResponse(responseCode = "204", description = "No content, no categories found"),
+            @ApiResponse(responseCode = "204", description = "No content, no products found"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid filter, sort or cursor"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable Long categoryId);
+    public ResponseEntity<ProductPageResponse> getProductsByCategory(@PathVariable Long categoryId,
+                                                                     @RequestParam(required = false) Double minPrice,
+                                                                     @RequestParam(required = false) Double maxPrice,
+                                                                     @RequestParam(defaultValue = "false") boolean inStock,
+                                                                     @RequestParam(defaultValue = "50") int size,
+                                                                     @RequestParam(defaultValue = "id") String sort,
+                                                                     @RequestParam(defaultValue = "asc") String direction,
+                                                                     @RequestParam(required = false) String cursor);
 
     @GetMapping("/id/{productId}")
     @SecurityRequirement(name = "security token")
@@ -72,14 +108,47 @@ public interface ProductController {
     @Operation(description = "Change stock of a product")
     @Parameters({
             @Parameter(name = "productId", description = "ID of the product to change stock"),
-            @Parameter(name = "stock", description = "New stock value for the product")
+            @Parameter(name = "stock", description = "New stock value for the product"),
+            @Parameter(name = "version", description = "Version of the product the change is based on, optional")
+    })
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stock changed successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid stock value"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Conflict, the product is at another version"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ProductResponse> changeStock(@RequestParam Long productId, @RequestParam Integer stock,
+                                                       @RequestParam(required = false) Long version);
+
+    @PutMapping("/stock/adjust")
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Add to or remove from the stock of a product")
+    @Parameters({
+            @Parameter(name = "productId", description = "ID of the product to change stock"),
+            @Parameter(name = "delta", description = "Amount to add to the stock, negative to remove"),
+            @Parameter(name = "version", description = "Version of the product the change is based on, optional")
     })
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Stock changed successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request, insufficient stock"),
             @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Conflict, the product is at another version"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ProductResponse> adjustStock(@RequestParam Long productId, @RequestParam Integer delta,
+                                                       @RequestParam(required = false) Long version);
+
+    @PutMapping("/stock/batch")
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Change the stock of many products by SKU, all or nothing")
+    @Parameter(name = "changes", description = "Stock changes, each with a SKU and either a stock or a delta")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stock changed successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid or rejected changes, none applied"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<ProductResponse> changeStock(@RequestParam Long productId, @RequestParam Integer stock);
+    public ResponseEntity<List<StockResponse>> changeStocks(@RequestBody List<StockChangeRequest> changes);
 
     @PutMapping("/price")
     @SecurityRequirement(name = "security token")
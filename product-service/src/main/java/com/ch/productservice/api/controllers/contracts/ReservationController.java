@@ -0,0 +1,55 @@
+package com.ch.productservice.api.controllers.contracts;
+
+import com.ch.productservice.api.models.requests.ReservationRequest;
+import com.ch.productservice.api.models.responses.ReservationResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Interface defining the contract for stock reservation operations.
+ * Stock is reserved for a checkout, then committed when the order is placed or released.
+ *
+ * @author caito
+ *
+ */
+public interface ReservationController {
+
+    @PostMapping
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Reserve stock of one or more products, all or nothing")
+    @Parameter(name = "request", description = "Products and quantities to reserve, and the TTL of the reservation")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Stock reserved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid input data or insufficient stock"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody ReservationRequest request);
+
+    @PostMapping("/{reservationId}/commit")
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Commit a reservation, taking its stock")
+    @Parameter(name = "reservationId", description = "ID of the reservation to commit")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Reservation committed successfully"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found or expired"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Void> commit(@PathVariable String reservationId);
+
+    @DeleteMapping("/{reservationId}")
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Release a reservation, making its stock available again")
+    @Parameter(name = "reservationId", description = "ID of the reservation to release")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Reservation released successfully"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found or expired"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Void> release(@PathVariable String reservationId);
+}
@@ -2,8 +2,12 @@ package com.ch.productservice.api.controllers.impl;
 
 import com.ch.core.chcore.logs.WriteLog;
 import com.ch.productservice.api.controllers.contracts.ProductController;
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
 import com.ch.productservice.api.models.requests.ProductRequest;
+import com.ch.productservice.api.models.requests.StockChangeRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
 import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.api.models.responses.StockResponse;
 import com.ch.productservice.services.contracts.ProductService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -38,24 +42,37 @@ public class ProductControllerImpl implements ProductController {
     }
 
     @Override
-    public ResponseEntity<List<ProductResponse>> getProducts() {
-        var products = productService.getProducts();
-        if (products.isEmpty()) {
+    public ResponseEntity<ProductPageResponse> getProducts(Double minPrice, Double maxPrice, boolean inStock,
+                                                           int size, String sort, String direction, String cursor) {
+        var filter = ProductFilterRequest.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .build();
+        var page = productService.getProducts(filter, size, sort, direction, cursor);
+        if (page.getContent().isEmpty() && cursor == null) {
             log.warn(WriteLog.logWarning("No products found"));
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(page);
     }
 
     @Override
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(Long categoryId) {
-        var products = productService.getProductsByCategoryId(categoryId);
-        if (products.isEmpty()){
+    public ResponseEntity<ProductPageResponse> getProductsByCategory(Long categoryId, Double minPrice, Double maxPrice,
+                                                                     boolean inStock, int size, String sort,
+                                                                     String direction, String cursor) {
+        var filter = ProductFilterRequest.builder()
+                .categoryId(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .build();
+        var page = productService.getProducts(filter, size, sort, direction, cursor);
+        if (page.getContent().isEmpty() && cursor == null){
             log.warn(WriteLog.logWarning("Products not found for category ID: " + categoryId));
             return ResponseEntity.noContent().build();
         }
-
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(page);
     }
 
     @Override
@@ -64,8 +81,18 @@ public class ProductControllerImpl implements ProductController {
     }
 
     @Override
-    public ResponseEntity<ProductResponse> changeStock(Long productId, Integer stock) {
-        return ResponseEntity.ok(productService.changeStock(productId, stock));
+    public ResponseEntity<ProductResponse> changeStock(Long productId, Integer stock, Long version) {
+        return ResponseEntity.ok(productService.changeStock(productId, stock, version));
+    }
+
+    @Override
+    public ResponseEntity<ProductResponse> adjustStock(Long productId, Integer delta, Long version) {
+        return ResponseEntity.ok(productService.adjustStock(productId, delta, version));
+    }
+
+    @Override
+    public ResponseEntity<List<StockResponse>> changeStocks(List<StockChangeRequest> changes) {
+        return ResponseEntity.ok(productService.changeStocks(changes));
     }
 
     @Override
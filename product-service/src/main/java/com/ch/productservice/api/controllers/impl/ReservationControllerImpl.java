@@ -0,0 +1,44 @@
+package com.ch.productservice.api.controllers.impl;
+
+import com.ch.productservice.api.controllers.contracts.ReservationController;
+import com.ch.productservice.api.models.requests.ReservationRequest;
+import com.ch.productservice.api.models.responses.ReservationResponse;
+import com.ch.productservice.services.contracts.ReservationService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Implementation of the ReservationController interface for reserving stock.
+ * It uses the ReservationService to perform business logic operations.
+ *
+ * @author caito
+ *
+ */
+@RestController
+@RequestMapping("/v1/reservations")
+@RequiredArgsConstructor
+@Tag(name = "Reservation API", description = "Stock reservations")
+public class ReservationControllerImpl implements ReservationController {
+    private final ReservationService reservationService;
+
+    @Override
+    public ResponseEntity<ReservationResponse> reserve(ReservationRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.reserve(request));
+    }
+
+    @Override
+    public ResponseEntity<Void> commit(String reservationId) {
+        reservationService.commit(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Override
+    public ResponseEntity<Void> release(String reservationId) {
+        reservationService.release(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ch.productservice.api.exceptions;
+
+import com.ch.core.chcore.exceptions.ConflictException;
+import com.ch.core.chcore.models.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exception handler for ConflictException in the Product Service.
+ * This class handles exceptions thrown when a change was based on an outdated version,
+ * returning a standardized error response.
+ *
+ * @author caito
+ *
+ */
+@RestControllerAdvice
+public class ConflictExceptionHandler {
+
+    @ExceptionHandler(ConflictException.class)
+    protected ResponseEntity<ErrorResponse> handleConflictException(ConflictException ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ErrorResponse.builder()
+                        .code(HttpStatus.CONFLICT.value())
+                        .status(HttpStatus.CONFLICT.getReasonPhrase())
+                        .timestamp(LocalDateTime.now())
+                        .message(ex.getMessage())
+                        .method(request.getMethod())
+                        .path(request.getRequestURL().toString())
+                        .build()
+        );
+    }
+}
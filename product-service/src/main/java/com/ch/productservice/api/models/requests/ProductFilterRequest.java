@@ -0,0 +1,24 @@
+package com.ch.productservice.api.models.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Represents the filters of a product listing.
+ * Every filter is optional; a product is listed only if it matches all the given ones.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class ProductFilterRequest implements Serializable {
+    private Long categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private boolean inStock;
+}
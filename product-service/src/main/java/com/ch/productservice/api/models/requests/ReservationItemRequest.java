@@ -0,0 +1,21 @@
+package com.ch.productservice.api.models.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Represents the quantity of a product to reserve.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class ReservationItemRequest implements Serializable {
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,24 @@
+package com.ch.productservice.api.models.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents a request to reserve stock of one or more products.
+ * The stock is held for the given number of seconds, or the default TTL, until the reservation
+ * is committed or released.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class ReservationRequest implements Serializable {
+    private List<ReservationItemRequest> items;
+    private Integer ttlSeconds;
+}
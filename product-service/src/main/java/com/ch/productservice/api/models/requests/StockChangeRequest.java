@@ -0,0 +1,25 @@
+package com.ch.productservice.api.models.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Represents a stock change of one product, identified by its SKU, in a batch.
+ * Either the new stock or a delta to add to the current stock is given, never both.
+ * When a version is given the change only applies to that version of the product.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class StockChangeRequest implements Serializable {
+    private String sku;
+    private Integer stock;
+    private Integer delta;
+    private Long version;
+}
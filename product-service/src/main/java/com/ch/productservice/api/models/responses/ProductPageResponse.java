@@ -0,0 +1,25 @@
+package com.ch.productservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ProductPageResponse class represents a page of a keyset paginated product listing.
+ * It contains the products of the page and the cursor to request the next page,
+ * which is null on the last page.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class ProductPageResponse implements Serializable {
+    private List<ProductResponse> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
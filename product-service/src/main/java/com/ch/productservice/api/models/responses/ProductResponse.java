@@ -36,4 +36,5 @@ public class ProductResponse implements Serializable {
     private LocalDateTime createdAt;
     @JsonFormat(shape =  JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy HH:mm:ss")
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.ch.productservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Represents the stock of a product after a change, with the version to use for the next one.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class StockResponse implements Serializable {
+    private Long id;
+    private String sku;
+    private Integer stock;
+    private Long version;
+}
@@ -0,0 +1,30 @@
+package com.ch.productservice.cache;
+
+import com.ch.core.chcore.cache.ReferenceDataCache;
+import com.ch.core.chcore.events.ReferenceDataChangedEvent;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reference data cache of the categories, looked up by id.
+ * Categories are loaded when the application is ready, reloaded periodically, on a lookup miss
+ * and whenever a change on them is announced with a {@link ReferenceDataChangedEvent}.
+ *
+ * @author caito
+ *
+ */
+@Component
+public class CategoryCache extends ReferenceDataCache<Long, Category> {
+    public static final String NAME = "categories";
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.reference-data.min-reload-ms:10000}") long minReloadMs) {
+        super(NAME, categoryRepository::findAll, Category::getId, Duration.ofMillis(minReloadMs), meterRegistry);
+    }
+}
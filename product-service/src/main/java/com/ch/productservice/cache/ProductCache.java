@@ -0,0 +1,139 @@
+package com.ch.productservice.cache;
+
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
+import com.ch.productservice.api.models.responses.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read cache of the products: by id, and the first page of every listing.
+ * Entries are bounded in number and expire after a TTL, which also bounds how long another
+ * instance may serve a product changed elsewhere. Changes made by this instance evict the
+ * affected entries as soon as they are committed: the products, the first pages of the listings
+ * of their categories and the first pages of the listings of all products. Loading a product and
+ * evicting it are atomic per key, so a load racing with a change cannot store the old value after
+ * the eviction. First pages are stamped with the generation of their category when their load
+ * starts, and a page loaded across an eviction is dropped instead of served.
+ * Only first pages are cached, since later pages are reached through cursors of a single client.
+ * Hits, misses, evictions and load times are published as cache metrics tagged with the cache name.
+ *
+ * @author caito
+ *
+ */
+@Component
+public class ProductCache {
+    private final Cache<Long, ProductResponse> byId;
+    private final Cache<FirstPageKey, StampedPage> firstPages;
+    private final Map<Long, AtomicLong> categoryGenerations = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${application.product-cache.ttl-ms:60000}") long ttlMs,
+                        @Value("${application.product-cache.max-products:10000}") long maxProducts,
+                        @Value("${application.product-cache.max-pages:1000}") long maxPages) {
+        Duration ttl = Duration.ofMillis(ttlMs);
+        this.byId = build(ttl, maxProducts);
+        this.firstPages = build(ttl, maxPages);
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, firstPages, "products.first-pages");
+    }
+
+    public ProductResponse getById(Long productId, Function<Long, ProductResponse> loader) {
+        return byId.get(productId, loader);
+    }
+
+    /**
+     * Returns the first page of a listing, loading it on a miss.
+     *
+     * @param key the listing
+     * @param loader loads the first page from the database
+     * @return the first page
+     */
+    public ProductPageResponse getFirstPage(FirstPageKey key, Supplier<ProductPageResponse> loader) {
+        long loading = this.generation(key.categoryId());
+        StampedPage stamped = firstPages.get(key, k -> new StampedPage(loading, loader.get()));
+        if (stamped.generation() == this.generation(key.categoryId())) {
+            return stamped.page();
+        }
+        firstPages.asMap().remove(key, stamped);
+        return loader.get();
+    }
+
+    /**
+     * Evicts the products, the first pages of their categories and of all products.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        this.evict(event.productIds(), event.categoryIds());
+    }
+
+    /**
+     * Evicts the products, the first pages of the listings of their categories and of all products.
+     *
+     * @param productIds the ids of the products
+     * @param categoryIds the ids of their categories
+     */
+    public void evict(Collection<Long> productIds, Collection<Long> categoryIds) {
+        byId.invalidateAll(productIds);
+        categoryIds.forEach(id -> categoryGenerations.computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet());
+        generation.incrementAndGet();
+        firstPages.asMap().keySet()
+                .removeIf(key -> key.categoryId() == null || categoryIds.contains(key.categoryId()));
+    }
+
+    private long generation(Long categoryId) {
+        if (categoryId == null) {
+            return generation.get();
+        }
+        AtomicLong categoryGeneration = categoryGenerations.get(categoryId);
+        return categoryGeneration == null ? 0 : categoryGeneration.get();
+    }
+
+    private static <K, V> Cache<K, V> build(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Identifies the first page of a listing.
+     *
+     * @param categoryId the category listed, or null for all products
+     * @param minPrice the minimum price filter, or null
+     * @param maxPrice the maximum price filter, or null
+     * @param inStock whether only products in stock are listed
+     * @param sort the sort property
+     * @param direction the sort direction
+     * @param size the page size
+     */
+    public record FirstPageKey(Long categoryId, Double minPrice, Double maxPrice, boolean inStock,
+                               String sort, Sort.Direction direction, int size) {
+
+        public static FirstPageKey of(ProductFilterRequest filter, String sort, Sort.Direction direction, int size) {
+            return new FirstPageKey(filter.getCategoryId(), filter.getMinPrice(), filter.getMaxPrice(),
+                    filter.isInStock(), sort, direction, size);
+        }
+    }
+
+    private record StampedPage(long generation, ProductPageResponse page) {
+    }
+}
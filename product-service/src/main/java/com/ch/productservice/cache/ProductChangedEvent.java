@@ -0,0 +1,19 @@
+package com.ch.productservice.cache;
+
+import java.util.Set;
+
+/**
+ * Local event announcing that products were created, updated or deleted.
+ * It is handled once the transaction commits, so caches never drop an entry
+ * for a change that is later rolled back.
+ *
+ * @param productIds the ids of the products
+ * @param categoryIds the categories the products belonged to before and after the change
+ * @author caito
+ */
+public record ProductChangedEvent(Set<Long> productIds, Set<Long> categoryIds) {
+
+    public static ProductChangedEvent of(Long productId, Long categoryId) {
+        return new ProductChangedEvent(Set.of(productId), Set.of(categoryId));
+    }
+}
@@ -2,6 +2,8 @@ package com.ch.productservice.persistence.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Represents a category entity in the product service.
@@ -13,6 +15,8 @@ import lombok.*;
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "categories")
 @NoArgsConstructor@AllArgsConstructor
 @Getter@Setter@Builder
@@ -2,7 +2,9 @@ package com.ch.productservice.persistence.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -11,7 +13,12 @@ import java.time.LocalDateTime;
  * Represents a product entity in the product service.
  * This class maps to the "products" table in the database.
  * It contains fields for product details such as SKU, name, description, price, stock, and image URL.
- * It also includes timestamps for creation and last update.
+ * It also includes timestamps for creation and last update, and a version for optimistic locking.
+ * Updates only write the changed columns, so saving a product never writes back a stock read before
+ * a reservation flush; the flush bumps the version as well, so such a save fails its version check.
+ * Listings are sorted by price, name or creation time with the id as tiebreaker, so every sort
+ * has an index, alone and within a category, that serves both the order and the keyset seek.
+ * The sort columns are not nullable, since a null key has no place in the keyset seek.
  * Uses Lombok annotations for boilerplate code reduction.
  * Uses JPA annotations for ORM mapping.
  *
@@ -19,7 +26,17 @@ import java.time.LocalDateTime;
  *
  */
 @Entity
-@Table(name = "products")
+@DynamicUpdate
+@Table(name = "products",
+        indexes = {
+                @Index(name = "uk_products_sku", columnList = "sku", unique = true),
+                @Index(name = "idx_products_price", columnList = "price, id"),
+                @Index(name = "idx_products_name", columnList = "name, id"),
+                @Index(name = "idx_products_created_at", columnList = "created_at, id"),
+                @Index(name = "idx_products_category_price", columnList = "category_id, price, id"),
+                @Index(name = "idx_products_category_name", columnList = "category_id, name, id"),
+                @Index(name = "idx_products_category_created_at", columnList = "category_id, created_at, id")
+        })
 @NoArgsConstructor@AllArgsConstructor
 @Getter@Setter@Builder
 public class Product {
@@ -27,17 +44,24 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String sku;
+    @Column(nullable = false)
     private String name;
     private String description;
     private String content;
+    @Column(nullable = false)
     private Double price;
     private Integer stock;
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
     private String imageUrl;
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
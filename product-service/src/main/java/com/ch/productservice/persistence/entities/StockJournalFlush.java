@@ -0,0 +1,24 @@
+package com.ch.productservice.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a segment of the stock journal whose deltas were written to the products table.
+ * The marker is inserted in the same transaction as the deltas, so a segment found again after
+ * a crash is applied at most once. Markers are deleted once their segment file is gone.
+ *
+ * @author caito
+ *
+ */
+@Entity
+@Table(name = "stock_journal_flushes")
+@NoArgsConstructor@AllArgsConstructor
+@Getter@Setter@Builder
+public class StockJournalFlush {
+    @Id
+    private String segment;
+    private LocalDateTime flushedAt;
+}
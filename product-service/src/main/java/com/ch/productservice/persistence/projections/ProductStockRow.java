@@ -0,0 +1,11 @@
+package com.ch.productservice.persistence.projections;
+
+/**
+ * ProductStockRow is a read-only projection of the stock of a product and its version,
+ * with the id of its category. No entity is loaded or tracked by the persistence context to build it.
+ *
+ * @author caito
+ *
+ */
+public record ProductStockRow(Long id, String sku, Integer stock, Long version, Long categoryId) {
+}
@@ -1,20 +1,70 @@
 package com.ch.productservice.persistence.repositories;
 
 import com.ch.productservice.persistence.entities.Product;
+import com.ch.productservice.persistence.projections.ProductStockRow;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing Product entities.
  * Provides methods to perform CRUD operations and custom queries on Product data.
- * Extends JpaRepository to leverage Spring Data JPA features.
+ * Extends JpaRepository to leverage Spring Data JPA features, and JpaSpecificationExecutor
+ * to list products by the filters given.
  *
  * @author Your Name
  *
  */
-public interface ProductRepository extends JpaRepository<Product,Long> {
+public interface ProductRepository extends JpaRepository<Product,Long>, JpaSpecificationExecutor<Product> {
     Optional<Product> findBySku(String sku);
-    List<Product> findAllByCategory_Id(Long id);
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    /**
+     * Sets the stock of a product in a single update, if it is at the given version.
+     *
+     * @param id the id of the product
+     * @param stock the new stock
+     * @param version the expected version, or null to skip the check
+     * @param now the update time
+     * @return the number of products updated, 0 or 1
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = :stock, p.version = p.version + 1, p.updatedAt = :now " +
+            "where p.id = :id and (:version is null or p.version = :version)")
+    int setStock(Long id, int stock, Long version, LocalDateTime now);
+
+    /**
+     * Adds a delta to the stock of a product in a single update, if the stock does not become
+     * negative and the product is at the given version.
+     *
+     * @param id the id of the product
+     * @param delta the amount to add, negative to remove
+     * @param version the expected version, or null to skip the check
+     * @param now the update time
+     * @return the number of products updated, 0 or 1
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :delta, p.version = p.version + 1, p.updatedAt = :now " +
+            "where p.id = :id and p.stock + :delta >= 0 and (:version is null or p.version = :version)")
+    int addStock(Long id, int delta, Long version, LocalDateTime now);
+
+    @Query("select new com.ch.productservice.persistence.projections.ProductStockRow(" +
+            "p.id, p.sku, p.stock, p.version, p.category.id) from Product p where p.id = :id")
+    Optional<ProductStockRow> findStockById(Long id);
+
+    @Query("select new com.ch.productservice.persistence.projections.ProductStockRow(" +
+            "p.id, p.sku, p.stock, p.version, p.category.id) from Product p where p.id in :ids")
+    List<ProductStockRow> findStockByIdIn(Collection<Long> ids);
+
+    @Query("select new com.ch.productservice.persistence.projections.ProductStockRow(" +
+            "p.id, p.sku, p.stock, p.version, p.category.id) from Product p where p.sku in :skus")
+    List<ProductStockRow> findStockBySkuIn(Collection<String> skus);
 }
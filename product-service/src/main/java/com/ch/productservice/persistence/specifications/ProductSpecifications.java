@@ -0,0 +1,63 @@
+package com.ch.productservice.persistence.specifications;
+
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
+import com.ch.productservice.persistence.entities.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications of the product listings.
+ * Only the given filters become predicates, and the category is compared through the foreign key
+ * without joining the categories, so every listing stays a range scan of one product index.
+ *
+ * @author caito
+ *
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Builds the specification of the products matching all the given filters.
+     *
+     * @param filter the filters of the listing
+     * @return the specification
+     */
+    public static Specification<Product> matching(ProductFilterRequest filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCategoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), filter.getCategoryId()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (filter.isInStock()) {
+                predicates.add(cb.greaterThan(root.get("stock"), 0));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Builds the specification that fetches the category of every listed product in the same statement.
+     * Count queries are left without the fetch, which they do not allow.
+     *
+     * @return the specification
+     */
+    public static Specification<Product> fetchingCategory() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("category");
+            }
+            return null;
+        };
+    }
+}
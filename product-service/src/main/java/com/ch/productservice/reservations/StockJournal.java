@@ -0,0 +1,130 @@
+package com.ch.productservice.reservations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of the committed reservations whose stock was not yet written to the database.
+ * Every commit is one line, "reservationId productId:quantity ...", so a line torn by a crash is
+ * recognised by its missing newline and ignored, as its commit was never acknowledged.
+ * With fsync, the default, a commit is forced to disk before it is acknowledged and survives a crash
+ * of the host; without it, it only survives a crash of the process, as the operating system may lose
+ * the writes still in its page cache.
+ * The journal is split in segments: a flush rotates the current segment and deletes it once its
+ * deltas are in the database. Segments are opened on the first append, so idle periods leave no files.
+ *
+ * @author caito
+ *
+ */
+class StockJournal {
+    private static final String PREFIX = "stock-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private FileChannel channel;
+    private Path current;
+
+    StockJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+    }
+
+    /**
+     * Appends a committed reservation.
+     *
+     * @param reservationId the id of the reservation
+     * @param quantities the quantities committed by product id
+     * @throws IOException if the line cannot be written
+     */
+    synchronized void append(String reservationId, Map<Long, Integer> quantities) throws IOException {
+        StringBuilder line = new StringBuilder(reservationId);
+        quantities.forEach((productId, quantity) -> line.append(' ').append(productId).append(':').append(quantity));
+        ByteBuffer buffer = ByteBuffer.wrap(line.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        if (channel == null) {
+            current = directory.resolve(PREFIX + System.currentTimeMillis() + "-" + UUID.randomUUID() + SUFFIX);
+            channel = FileChannel.open(current, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Closes the current segment; the next append starts a new one.
+     *
+     * @return the closed segment, or null if nothing was appended since the last rotation
+     * @throws IOException if the segment cannot be closed
+     */
+    synchronized Path rotate() throws IOException {
+        if (channel == null) {
+            return null;
+        }
+        channel.force(false);
+        channel.close();
+        Path closed = current;
+        channel = null;
+        current = null;
+        return closed;
+    }
+
+    /**
+     * Lists the closed and abandoned segments, oldest first.
+     *
+     * @return the segments
+     * @throws IOException if the directory cannot be read
+     */
+    synchronized List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX) && !file.equals(current);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Reads the stock deltas of a segment, ignoring a torn last line.
+     *
+     * @param segment the segment
+     * @return the stock deltas by product id, negative for committed reservations
+     * @throws IOException if the segment cannot be read
+     */
+    static Map<Long, Long> read(Path segment) throws IOException {
+        Map<Long, Long> deltas = new HashMap<>();
+        String content = Files.readString(segment, StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return deltas;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] fields = line.split(" ");
+            for (int i = 1; i < fields.length; i++) {
+                int separator = fields[i].indexOf(':');
+                deltas.merge(Long.parseLong(fields[i].substring(0, separator)),
+                        -Long.parseLong(fields[i].substring(separator + 1)), Long::sum);
+            }
+        }
+        return deltas;
+    }
+
+    static String name(Path segment) {
+        return segment.getFileName().toString();
+    }
+}
@@ -0,0 +1,495 @@
+package com.ch.productservice.reservations;
+
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.helpers.HashedWheelExpiry;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.productservice.cache.ProductCache;
+import com.ch.productservice.cache.ProductChangedEvent;
+import com.ch.productservice.persistence.projections.ProductStockRow;
+import com.ch.productservice.persistence.repositories.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory stock reservation engine.
+ * Every product gets a slot in primitive arrays holding its stock, the quantity held by open
+ * reservations and the committed quantity not yet written to the database. A slot is guarded by
+ * one of a fixed set of stripe locks, so reservations of different products rarely contend and
+ * never wait on a database row lock. A product is loaded from the database on its first reservation.
+ * <p>
+ * A reservation holds stock until it is committed, released or its TTL expires on a hashed timing
+ * wheel. Committing appends the reservation to the {@link StockJournal} before acknowledging it.
+ * Committed quantities are coalesced per product and written to the products table in periodic
+ * batches as relative updates, so they compose with relative changes made through the product API.
+ * Every flush bumps the version of the products it writes, so an absolute stock set at a version read
+ * before the flush is rejected instead of overwriting the sales. The batch marks the journal segments
+ * it covers in the same transaction; on startup, segments left by a crash and not marked are applied
+ * before any reservation is served.
+ * When the stock of a product is changed elsewhere in this instance, its slot is reloaded. The engine
+ * assumes it is the only one reserving stock: instances do not share holds.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class StockReservationEngine {
+    private static final int STRIPES = 64;
+    private static final String FLUSH_SQL =
+            "UPDATE products SET stock = stock + ?, version = version + 1, updated_at = ? WHERE id = ?";
+    private static final String MARK_SQL = "INSERT INTO stock_journal_flushes (segment, flushed_at) VALUES (?, ?)";
+    private static final String UNMARK_SQL = "DELETE FROM stock_journal_flushes WHERE segment = ?";
+    private static final String MARKED_SQL = "SELECT segment FROM stock_journal_flushes";
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockJournal journal;
+    private final HashedWheelExpiry<String> expiry;
+
+    private final Map<Long, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final long[] productIds;
+    private final long[] categoryIds;
+    private final long[] stock;
+    private final long[] held;
+    private final long[] unflushed;
+    private final Object[] stripes = new Object[STRIPES];
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<Path> unflushedSegments = new ArrayList<>();
+
+    private final Counter reserved;
+    private final Counter rejected;
+    private final Counter committed;
+    private final Counter released;
+    private final Counter expired;
+    private final Timer flushes;
+
+    public StockReservationEngine(ProductRepository productRepository,
+                                  ProductCache productCache,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${application.reservations.max-products:100000}") int maxProducts,
+                                  @Value("${application.reservations.tick-ms:1000}") long tickMs,
+                                  @Value("${application.reservations.journal-dir:data/stock-journal}") String journalDir,
+                                  @Value("${application.reservations.journal-fsync:true}") boolean fsync)
+            throws IOException {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new StockJournal(Path.of(journalDir), fsync);
+        this.expiry = new HashedWheelExpiry<>(tickMs, 4096);
+        this.productIds = new long[maxProducts];
+        this.categoryIds = new long[maxProducts];
+        this.stock = new long[maxProducts];
+        this.held = new long[maxProducts];
+        this.unflushed = new long[maxProducts];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.reserved = outcome(meterRegistry, "reserved");
+        this.rejected = outcome(meterRegistry, "rejected");
+        this.committed = outcome(meterRegistry, "committed");
+        this.released = outcome(meterRegistry, "released");
+        this.expired = outcome(meterRegistry, "expired");
+        this.flushes = Timer.builder("reservations.flush")
+                .description("Writes of the committed stock to the database")
+                .register(meterRegistry);
+        Gauge.builder("reservations.active", reservations, Map::size)
+                .description("Reservations holding stock")
+                .register(meterRegistry);
+        Gauge.builder("reservations.products", slots, Map::size)
+                .description("Products loaded in the reservation engine")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Holds stock of one or more products, all or nothing.
+     *
+     * @param quantities the quantities to hold by product id, all positive
+     * @param ttl how long the stock is held unless committed or released
+     * @return the reservation
+     */
+    public Reservation reserve(Map<Long, Integer> quantities, Duration ttl) {
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        Map<Integer, Integer> holding = new HashMap<>();
+        for (Map.Entry<Long, Integer> line : ordered.entrySet()) {
+            int slot = this.slot(line.getKey());
+            int quantity = line.getValue();
+            boolean available;
+            synchronized (this.stripe(slot)) {
+                available = stock[slot] - held[slot] >= quantity;
+                if (available) {
+                    held[slot] += quantity;
+                }
+            }
+            if (!available) {
+                holding.forEach(this::unhold);
+                rejected.increment();
+                log.warn(WriteLog.logWarning("--> insufficient stock to reserve product with id: " + line.getKey()));
+                throw new BadRequestException(List.of("Insufficient stock for product with id " + line.getKey()));
+            }
+            holding.put(slot, quantity);
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(),
+                Collections.unmodifiableMap(ordered), System.currentTimeMillis() + ttl.toMillis());
+        reservations.put(reservation.id(), reservation);
+        expiry.schedule(reservation.id(), reservation.expiresAt());
+        reserved.increment();
+        return reservation;
+    }
+
+    /**
+     * Commits a reservation: its stock is taken for good and will be written to the database.
+     * The commit is journaled before the reservation is removed, so a commit that cannot be journaled
+     * leaves the reservation open and still scheduled to expire.
+     *
+     * @param reservationId the id of the reservation
+     */
+    public void commit(String reservationId) {
+        journalLock.readLock().lock();
+        try {
+            Reservation reservation = this.take(reservationId, this::journal);
+            reservation.quantities().forEach((productId, quantity) -> {
+                int slot = slots.get(productId);
+                synchronized (this.stripe(slot)) {
+                    held[slot] -= quantity;
+                    stock[slot] -= quantity;
+                    unflushed[slot] -= quantity;
+                }
+                dirty.add(slot);
+            });
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        committed.increment();
+    }
+
+    /**
+     * Releases a reservation, making its stock available again.
+     *
+     * @param reservationId the id of the reservation
+     */
+    public void release(String reservationId) {
+        this.unhold(this.take(reservationId, reservation -> { }));
+        released.increment();
+    }
+
+    /**
+     * Releases the reservations whose TTL elapsed.
+     */
+    @Scheduled(fixedDelayString = "${application.reservations.tick-ms:1000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        expiry.advance(now, reservationId -> {
+            Reservation reservation = reservations.get(reservationId);
+            if (reservation == null || reservation.expiresAt() > now) {
+                return;
+            }
+            synchronized (reservation) {
+                if (reservations.remove(reservationId, reservation)) {
+                    this.unhold(reservation);
+                    expired.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the committed stock to the database as one batch of relative updates, one per product,
+     * and deletes the journal segments it covers. On failure the stock is kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${application.reservations.flush-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Integer, Long> drained = new HashMap<>();
+            journalLock.writeLock().lock();
+            try {
+                Path segment = journal.rotate();
+                if (segment != null) {
+                    unflushedSegments.add(segment);
+                }
+                for (Integer slot : dirty) {
+                    dirty.remove(slot);
+                    synchronized (this.stripe(slot)) {
+                        if (unflushed[slot] != 0) {
+                            drained.put(slot, unflushed[slot]);
+                            unflushed[slot] = 0;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.error(WriteLog.logError("--> Error rotating stock journal: " + e.getMessage()));
+                return;
+            } finally {
+                journalLock.writeLock().unlock();
+            }
+            if (unflushedSegments.isEmpty()) {
+                return;
+            }
+            Map<Long, Long> deltas = new HashMap<>();
+            Set<Long> categories = new HashSet<>();
+            drained.forEach((slot, delta) -> {
+                deltas.put(productIds[slot], delta);
+                categories.add(categoryIds[slot]);
+            });
+            try {
+                flushes.record(() -> this.apply(deltas, unflushedSegments));
+            } catch (RuntimeException e) {
+                log.error(WriteLog.logError("--> Error flushing stock of " + deltas.size() + " products: "
+                        + e.getMessage()));
+                drained.forEach((slot, delta) -> {
+                    synchronized (this.stripe(slot)) {
+                        unflushed[slot] += delta;
+                    }
+                    dirty.add(slot);
+                });
+                return;
+            }
+            this.discard(unflushedSegments);
+            unflushedSegments.clear();
+            productCache.evict(deltas.keySet(), categories);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the stock of the loaded products changed in this instance,
+     * keeping the committed stock not yet written.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        List<Long> loaded = event.productIds().stream().filter(slots::containsKey).toList();
+        if (loaded.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, ProductStockRow> rows = productRepository.findStockByIdIn(loaded).stream()
+                    .collect(Collectors.toMap(ProductStockRow::id, Function.identity()));
+            for (Long productId : loaded) {
+                int slot = slots.get(productId);
+                ProductStockRow row = rows.get(productId);
+                long current = row == null || row.stock() == null ? 0 : row.stock();
+                synchronized (this.stripe(slot)) {
+                    stock[slot] = current + unflushed[slot];
+                    if (row != null) {
+                        categoryIds[slot] = row.categoryId();
+                    }
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Applies the journal segments left by a previous run that were not written to the database.
+     *
+     * @throws IOException if the journal cannot be read
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        List<Path> segments = journal.segments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        Set<String> applied = new HashSet<>(jdbcTemplate.queryForList(MARKED_SQL, String.class));
+        Map<Long, Long> deltas = new HashMap<>();
+        List<Path> pending = new ArrayList<>();
+        for (Path segment : segments) {
+            if (!applied.contains(StockJournal.name(segment))) {
+                StockJournal.read(segment).forEach((productId, delta) -> deltas.merge(productId, delta, Long::sum));
+                pending.add(segment);
+            }
+        }
+        if (!pending.isEmpty()) {
+            this.apply(deltas, pending);
+        }
+        this.discard(segments);
+        log.info(WriteLog.logInfo("--> Recovered " + pending.size() + " stock journal segments, "
+                + deltas.size() + " products"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.flush();
+    }
+
+    private void apply(Map<Long, Long> deltas, List<Path> segments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, deltas.entrySet().stream()
+                    .map(delta -> new Object[]{delta.getValue(), now, delta.getKey()})
+                    .toList());
+            jdbcTemplate.batchUpdate(MARK_SQL, segments.stream()
+                    .map(segment -> new Object[]{StockJournal.name(segment), now})
+                    .toList());
+        });
+    }
+
+    /**
+     * Deletes applied segments, then their markers. A marker whose file could not be deleted is kept,
+     * so the file is recognised as applied on the next start.
+     */
+    private void discard(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                jdbcTemplate.update(UNMARK_SQL, StockJournal.name(segment));
+            } catch (IOException | RuntimeException e) {
+                log.warn(WriteLog.logWarning("--> Error discarding stock journal segment " + segment + ": "
+                        + e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Removes an open reservation once the given action succeeds. The reservation is locked meanwhile,
+     * so it cannot expire nor be committed or released by another thread; if the action fails,
+     * the reservation stays open and scheduled to expire.
+     */
+    private Reservation take(String reservationId, Consumer<Reservation> beforeRemove) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null) {
+            synchronized (reservation) {
+                if (reservations.get(reservationId) == reservation) {
+                    if (reservation.expiresAt() <= System.currentTimeMillis()) {
+                        reservations.remove(reservationId);
+                        this.unhold(reservation);
+                        expired.increment();
+                        log.error(WriteLog.logError("--> reservation expired with id: " + reservationId));
+                        throw new NotFoundException("Reservation not found or expired with id: " + reservationId);
+                    }
+                    beforeRemove.accept(reservation);
+                    reservations.remove(reservationId);
+                    return reservation;
+                }
+            }
+        }
+        log.error(WriteLog.logError("--> reservation not found with id: " + reservationId));
+        throw new NotFoundException("Reservation not found or expired with id: " + reservationId);
+    }
+
+    /**
+     * Appends a committed reservation to the journal.
+     */
+    private void journal(Reservation reservation) {
+        try {
+            journal.append(reservation.id(), reservation.quantities());
+        } catch (IOException e) {
+            log.error(WriteLog.logError("--> Error journaling reservation " + reservation.id() + ": "
+                    + e.getMessage()));
+            throw new IllegalStateException("Could not journal reservation " + reservation.id(), e);
+        }
+    }
+
+    private void unhold(Reservation reservation) {
+        reservation.quantities().forEach((productId, quantity) -> this.unhold(slots.get(productId), quantity));
+    }
+
+    private void unhold(int slot, int quantity) {
+        synchronized (this.stripe(slot)) {
+            held[slot] -= quantity;
+        }
+    }
+
+    private int slot(Long productId) {
+        Integer slot = slots.get(productId);
+        return slot != null ? slot : this.load(productId);
+    }
+
+    /**
+     * Loads the stock of a product into a new slot. Serialized with flushes and reloads,
+     * so no change of the product can be missed, and with other loads, so a product racing
+     * on its first reservation is read once. The row is read outside the slot map, so the
+     * database is never queried while holding a lock of the map.
+     */
+    private int load(Long productId) {
+        flushLock.lock();
+        try {
+            Integer loaded = slots.get(productId);
+            if (loaded != null) {
+                return loaded;
+            }
+            ProductStockRow row = productRepository.findStockById(productId)
+                    .orElseThrow(() -> {
+                        log.error(WriteLog.logError("--> product not found with id: " + productId));
+                        return new NotFoundException("Product not found with id: " + productId);
+                    });
+            int slot = nextSlot.getAndIncrement();
+            if (slot >= stock.length) {
+                log.error(WriteLog.logError("--> reservation engine full, cannot load product " + productId));
+                throw new IllegalStateException("Reservation engine full, cannot load product " + productId);
+            }
+            synchronized (this.stripe(slot)) {
+                productIds[slot] = productId;
+                categoryIds[slot] = row.categoryId();
+                stock[slot] = row.stock() == null ? 0 : row.stock();
+            }
+            slots.putIfAbsent(productId, slot);
+            return slot;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Object stripe(int slot) {
+        return stripes[slot & (STRIPES - 1)];
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("reservations")
+                .tag("outcome", outcome)
+                .description("Reservations by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A reservation of stock.
+     *
+     * @param id the id of the reservation
+     * @param quantities the quantities held by product id
+     * @param expiresAt when the reservation expires, in epoch milliseconds
+     */
+    public record Reservation(String id, Map<Long, Integer> quantities, long expiresAt) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.ch.productservice.services.contracts;
 
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
 import com.ch.productservice.api.models.requests.ProductRequest;
+import com.ch.productservice.api.models.requests.StockChangeRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
 import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.api.models.responses.StockResponse;
 
 import java.util.List;
 
@@ -16,9 +20,11 @@ import java.util.List;
 public interface ProductService {
 
     void addProduct(ProductRequest request);
-    List<ProductResponse> getProducts();
-    List<ProductResponse> getProductsByCategoryId(Long categoryId);
-    ProductResponse changeStock(Long productId, Integer stock);
+    ProductPageResponse getProducts(ProductFilterRequest filter, int size, String sort, String direction,
+                                    String cursor);
+    ProductResponse changeStock(Long productId, Integer stock, Long version);
+    ProductResponse adjustStock(Long productId, Integer delta, Long version);
+    List<StockResponse> changeStocks(List<StockChangeRequest> changes);
     ProductResponse changePrice(Long productId, Double price);
     ProductResponse getProductById(Long productId);
     void deleteProduct(Long productId);
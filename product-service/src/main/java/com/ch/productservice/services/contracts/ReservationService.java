@@ -0,0 +1,18 @@
+package com.ch.productservice.services.contracts;
+
+import com.ch.productservice.api.models.requests.ReservationRequest;
+import com.ch.productservice.api.models.responses.ReservationResponse;
+
+/**
+ * ReservationService interface defines the contract for stock reservations.
+ * Stock is held by a reservation until it is committed, released or expires.
+ *
+ * @author caito
+ *
+ */
+public interface ReservationService {
+
+    ReservationResponse reserve(ReservationRequest request);
+    void commit(String reservationId);
+    void release(String reservationId);
+}
@@ -1,15 +1,18 @@
 package com.ch.productservice.services.impl;
 
+import com.ch.core.chcore.events.ReferenceDataChangedEvent;
 import com.ch.core.chcore.exceptions.BadRequestException;
 import com.ch.core.chcore.exceptions.NotFoundException;
 import com.ch.core.chcore.logs.WriteLog;
 import com.ch.productservice.api.models.requests.CategoryRequest;
 import com.ch.productservice.api.models.responses.CategoryResponse;
+import com.ch.productservice.cache.CategoryCache;
 import com.ch.productservice.persistence.repositories.CategoryRepository;
 import com.ch.productservice.services.contracts.CategoryService;
 import com.ch.productservice.utils.mappers.CategoryMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +33,7 @@ import java.util.List;
 @Slf4j
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Adds a new category to the system.
@@ -45,6 +49,7 @@ public class CategoryServiceImpl implements CategoryService {
         this.validateCategory(request);
         log.info(WriteLog.logInfo("--> Category request validated successfully keeping.."));
         categoryRepository.save(CategoryMapper.mapToEntity(request));
+        this.publishCategoriesChanged();
     }
 
 
@@ -122,6 +127,7 @@ public class CategoryServiceImpl implements CategoryService {
         this.validateCategory(request);
         category.setName(request.getName());
         categoryRepository.save(category);
+        this.publishCategoriesChanged();
     }
 
     /**
@@ -136,6 +142,7 @@ public class CategoryServiceImpl implements CategoryService {
         log.info(WriteLog.logInfo("--> Deleting category with id: " + id));
         var category = this.findById(id);
         categoryRepository.deleteById(category.getId());
+        this.publishCategoriesChanged();
     }
 
     /**
@@ -162,4 +169,14 @@ public class CategoryServiceImpl implements CategoryService {
             throw new BadRequestException(errors);
         }
     }
+
+    /**
+     * Announces a change on the categories so that the category cache is refreshed
+     * once the current transaction commits.
+     */
+    private void publishCategoriesChanged() {
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.builder()
+                .cache(CategoryCache.NAME)
+                .build());
+    }
 }
@@ -1,23 +1,53 @@
 package com.ch.productservice.services.impl;
 
 import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.core.chcore.exceptions.ConflictException;
 import com.ch.core.chcore.exceptions.NotFoundException;
 import com.ch.core.chcore.logs.WriteLog;
+import com.ch.core.chcore.pagination.KeysetCursor;
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
 import com.ch.productservice.api.models.requests.ProductRequest;
+import com.ch.productservice.api.models.requests.StockChangeRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
 import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.api.models.responses.StockResponse;
+import com.ch.productservice.cache.CategoryCache;
+import com.ch.productservice.cache.ProductCache;
+import com.ch.productservice.cache.ProductChangedEvent;
 import com.ch.productservice.persistence.entities.Category;
 import com.ch.productservice.persistence.entities.Product;
-import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.persistence.projections.ProductStockRow;
 import com.ch.productservice.persistence.repositories.ProductRepository;
+import com.ch.productservice.persistence.specifications.ProductSpecifications;
 import com.ch.productservice.services.contracts.ProductService;
 import com.ch.productservice.utils.mappers.ProductMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * ProductServiceImpl is the implementation of the ProductService interface.
@@ -25,16 +55,60 @@ import java.util.List;
  * This service interacts with the product repository and category repository
  * to perform CRUD operations on product entities.
  * It also includes validation logic for product requests.
+ * Products are read by id from the {@link ProductCache}, loading misses on the primary so that
+ * an evicted product is never reloaded from a lagging replica, and listed a page at a time with
+ * keyset pagination, filters and sort pushed into the query.
+ * The first page of every listing is cached as well and loaded on the primary; later pages are read
+ * in a read-only transaction.
+ * Every read fetches the category of its products in the same statement, so mapping them
+ * issues no further query.
+ * Every change announces a {@link ProductChangedEvent} that evicts the affected entries
+ * once committed. Changes always start from the database, never from the cache.
+ * Stock changes are single conditional updates that never let the stock go negative and,
+ * when the client gives the version it read, only apply to that version.
  *
  * @author Your Name
  *
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements ProductService {
+    private static final String STOCK_CHANGE_SQL = "UPDATE products " +
+            "SET stock = COALESCE(?, stock + ?), version = version + 1, updated_at = ? " +
+            "WHERE sku = ? AND COALESCE(?, stock + ?) >= 0 AND (? IS NULL OR version = ?)";
+    private static final int[] STOCK_CHANGE_TYPES = {Types.INTEGER, Types.INTEGER, Types.TIMESTAMP,
+            Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.BIGINT, Types.BIGINT};
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "price", "name", "createdAt");
+
     private final ProductRepository productRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxStockBatch;
+    private final int maxPageSize;
+
+    public ProductServiceImpl(ProductRepository productRepository,
+                              CategoryCache categoryCache,
+                              ProductCache productCache,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${application.products.max-stock-batch:1000}") int maxStockBatch,
+                              @Value("${application.products.max-page-size:100}") int maxPageSize) {
+        this.productRepository = productRepository;
+        this.categoryCache = categoryCache;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxStockBatch = maxStockBatch;
+        this.maxPageSize = maxPageSize;
+    }
 
     /**
      * Adds a new product to the system.
@@ -49,7 +123,7 @@ public class ProductServiceImpl implements ProductService {
         log.info(WriteLog.logInfo("--> adding new product service"));
         this.validateProduct(request);
         log.info(WriteLog.logInfo("--> product request validated successfully keeping.."));
-        var category = categoryRepository.findById(request.getCategoryId())
+        var category = categoryCache.get(request.getCategoryId())
                 .orElseThrow(() -> {
                     log.error(WriteLog.logError("--> category not found with id: " + request.getCategoryId()));
                     return new NotFoundException("Category not found with id: " + request.getCategoryId());
@@ -57,64 +131,185 @@ public class ProductServiceImpl implements ProductService {
         var product = ProductMapper.mapToEntity(request);
         product.setCategory(category);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(product.getId(), category.getId()));
     }
 
     /**
-     * Retrieves a list of all products in the system.
-     * Maps the product entities to product response DTOs.
+     * Retrieves a page of products matching the filters, using keyset pagination.
+     * The first page is requested without cursor; every following page is requested with the
+     * cursor of the previous one, which also fixes the sort of the listing. Ties on the sort
+     * property are broken by id, so pages never overlap nor skip products.
+     * The filters and the keyset are part of the query, which reads at most one row past the page
+     * and fetches the category of every product in the same statement. First pages are served
+     * from the {@link ProductCache}.
      *
-     * @return A list of ProductResponse objects representing all products.
+     * @param filter The filters of the listing.
+     * @param size The maximum number of products of the page.
+     * @param sort The sort property: id, price, name or createdAt.
+     * @param direction The sort direction: asc or desc.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @return The page of products and the cursor of the next page.
      */
     @Override
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getProducts() {
-        log.info(WriteLog.logInfo("--> retrieving all products"));
-        return productRepository.findAll()
-                .stream()
-                .map(ProductMapper::mapToDto)
-                .toList();
+    public ProductPageResponse getProducts(ProductFilterRequest filter, int size, String sort, String direction,
+                                           String cursor) {
+        log.info(WriteLog.logInfo("--> retrieving products page"));
+        this.validateFilter(filter);
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        KeysetCursor position = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        String property = position != null ? position.property() : sort;
+        Sort.Direction sortDirection = position != null ? position.direction() : this.sortDirection(direction);
+        if (!SORT_PROPERTIES.contains(property)) {
+            log.error(WriteLog.logError("--> invalid sort property " + property));
+            throw new BadRequestException(List.of("Invalid sort property: " + property));
+        }
+
+        Sort order = "id".equals(property)
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, property, "id");
+        if (position == null) {
+            return productCache.getFirstPage(ProductCache.FirstPageKey.of(filter, property, sortDirection, limit),
+                    () -> primaryTransaction.execute(status ->
+                            this.readPage(filter, order, limit, ScrollPosition.keyset(), property, sortDirection)));
+        }
+        ScrollPosition scrollPosition = this.scrollPosition(position);
+        return readOnlyTransaction.execute(status ->
+                this.readPage(filter, order, limit, scrollPosition, property, sortDirection));
     }
 
     /**
-     * Retrieves a list of products by category ID.
-     * Maps the product entities to product response DTOs.
-     * If no products are found for the given category ID, it returns an empty list.
+     * Reads a page of products and builds the cursor of the next one.
      *
-     * @param categoryId The ID of the category to filter products.
-     * @return A list of ProductResponse objects representing products in the specified category.
+     * @param filter The filters of the listing.
+     * @param order The sort of the listing, ending with the id.
+     * @param limit The maximum number of products of the page.
+     * @param scrollPosition The position after which the page starts.
+     * @param property The sort property.
+     * @param sortDirection The sort direction.
+     * @return The page of products and the cursor of the next page.
      */
-    @Override
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByCategoryId(Long categoryId) {
-        log.info(WriteLog.logInfo("--> retrieving products by category id: " + categoryId));
-        return productRepository.findAllByCategory_Id(categoryId)
-                .stream()
+    private ProductPageResponse readPage(ProductFilterRequest filter, Sort order, int limit,
+                                         ScrollPosition scrollPosition, String property, Sort.Direction sortDirection) {
+        Window<Product> window = productRepository.findBy(
+                ProductSpecifications.matching(filter).and(ProductSpecifications.fetchingCategory()),
+                query -> query.sortBy(order).limit(limit).scroll(scrollPosition));
+        List<ProductResponse> content = window.getContent().stream()
                 .map(ProductMapper::mapToDto)
                 .toList();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Product last = window.getContent().get(window.size() - 1);
+            nextCursor = new KeysetCursor(property, sortDirection, last.getId(),
+                    this.sortValue(last, property)).encode();
+        }
+        return ProductPageResponse.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
     }
 
     /**
      * Changes the stock of a product by its ID.
-     * Validates the stock value and updates the product entity in the database.
+     * Validates the stock value and sets it with a single update of the product row.
      * If the stock value is invalid, it throws a BadRequestException.
+     * If a version is given and the product is at another one, it throws a ConflictException.
+     * Flushes of committed reservations bump the version, so a stock set at a version read before a
+     * flush is rejected; products sold through reservations are best changed with a relative adjustment.
      *
      * @param productId The ID of the product to update.
      * @param stock The new stock value for the product.
+     * @param version The version of the product the change is based on, or null.
      * @return A ProductResponse object representing the updated product.
      */
     @Override
     @Transactional
-    public ProductResponse changeStock(Long productId, Integer stock) {
+    public ProductResponse changeStock(Long productId, Integer stock, Long version) {
         log.info(WriteLog.logInfo("--> updating product stock with id: " + productId));
-        var oldProduct = this.getProductById(productId);
-        if (stock != null && stock >= 0) {
-            var product = ProductMapper.mapToEntity(oldProduct);
-            product.setStock(stock);
-            return ProductMapper.mapToDto(productRepository.save(product));
-        }else {
+        if (stock == null || stock < 0) {
             log.error(WriteLog.logError("--> invalid stock value: " + stock));
             throw new BadRequestException(List.of("Invalid stock value: " + stock));
         }
+        if (productRepository.setStock(productId, stock, version, LocalDateTime.now()) == 0) {
+            throw this.stockChangeRejected(productId, version);
+        }
+        return this.stockChanged(productId);
+    }
+
+    /**
+     * Adds a delta to the stock of a product by its ID.
+     * The stock is updated with a single conditional update of the product row, which is
+     * rejected with a BadRequestException if the stock would become negative.
+     * If a version is given and the product is at another one, it throws a ConflictException.
+     *
+     * @param productId The ID of the product to update.
+     * @param delta The amount to add to the stock, negative to remove.
+     * @param version The version of the product the change is based on, or null.
+     * @return A ProductResponse object representing the updated product.
+     */
+    @Override
+    @Transactional
+    public ProductResponse adjustStock(Long productId, Integer delta, Long version) {
+        log.info(WriteLog.logInfo("--> adjusting product stock with id: " + productId + " by " + delta));
+        if (delta == null) {
+            log.error(WriteLog.logError("--> stock delta is required"));
+            throw new BadRequestException(List.of("Stock delta is required."));
+        }
+        if (productRepository.addStock(productId, delta, version, LocalDateTime.now()) == 0) {
+            throw this.stockChangeRejected(productId, version);
+        }
+        return this.stockChanged(productId);
+    }
+
+    /**
+     * Changes the stock of many products, identified by SKU, in one batch of conditional updates.
+     * Every change either sets the stock or adds a delta to it, optionally at a given version.
+     * The batch is all or nothing: if any change is rejected, because the SKU is unknown, the stock
+     * would become negative or the version does not match, none is applied and a BadRequestException
+     * lists the rejected changes.
+     *
+     * @param changes The stock changes.
+     * @return The stock and version of every changed product.
+     */
+    @Override
+    @Transactional
+    public List<StockResponse> changeStocks(List<StockChangeRequest> changes) {
+        log.info(WriteLog.logInfo("--> changing stock of " + (changes == null ? 0 : changes.size()) + " products"));
+        this.validateStockChanges(changes);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = changes.stream()
+                .map(c -> new Object[]{c.getStock(), c.getDelta(), now, c.getSku(),
+                        c.getStock(), c.getDelta(), c.getVersion(), c.getVersion()})
+                .toList();
+        int[] counts = this.updateStocks(args);
+
+        Set<String> skus = changes.stream().map(StockChangeRequest::getSku)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, ProductStockRow> rows = productRepository.findStockBySkuIn(skus).stream()
+                .collect(Collectors.toMap(ProductStockRow::sku, Function.identity()));
+        var errors = new ArrayList<String>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                errors.add(this.describeRejected(changes.get(i), rows.get(changes.get(i).getSku())));
+            }
+        }
+        if (!errors.isEmpty()) {
+            log.error(WriteLog.logError("--> stock changes rejected: " + errors));
+            throw new BadRequestException(errors);
+        }
+
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                rows.values().stream().map(ProductStockRow::id).collect(Collectors.toSet()),
+                rows.values().stream().map(ProductStockRow::categoryId).collect(Collectors.toSet())));
+        return skus.stream()
+                .map(rows::get)
+                .map(row -> StockResponse.builder()
+                        .id(row.id())
+                        .sku(row.sku())
+                        .stock(row.stock())
+                        .version(row.version())
+                        .build())
+                .toList();
     }
 
     /**
@@ -130,11 +325,10 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     public ProductResponse changePrice(Long productId, Double price) {
         log.info(WriteLog.logInfo("--> updating product price with id: " + productId));
-        var oldProduct = this.getProductById(productId);
+        var product = this.findProduct(productId);
         if (price != null && price > 0) {
-            var product = ProductMapper.mapToEntity(oldProduct);
             product.setPrice(price);
-            return ProductMapper.mapToDto(productRepository.save(product));
+            return this.saveChanged(product);
         } else {
             log.error(WriteLog.logError("--> invalid price value: " + price));
             throw new BadRequestException(List.of("Invalid price value: " + price));
@@ -142,15 +336,18 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long productId) {
         log.info(WriteLog.logInfo("--> retrieving product by id: " + productId));
-        return productRepository.findById(productId)
-                .map(ProductMapper::mapToDto)
-                .orElseThrow(() -> {
-                    log.error(WriteLog.logError("--> product not found with id: " + productId));
-                    return new NotFoundException("Product not found with id: " + productId);
-                });
+        // a miss is loaded from the primary, a lagging replica would cache a stale product until it is evicted
+        var product = productCache.getById(productId, id -> primaryTransaction.execute(status ->
+                productRepository.findWithCategoryById(id)
+                        .map(ProductMapper::mapToDto)
+                        .orElse(null)));
+        if (product == null) {
+            log.error(WriteLog.logError("--> product not found with id: " + productId));
+            throw new NotFoundException("Product not found with id: " + productId);
+        }
+        return product;
     }
 
     /**
@@ -164,8 +361,209 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     public void deleteProduct(Long productId) {
         log.info(WriteLog.logInfo("--> deleting product with id: " + productId));
-        var product = this.getProductById(productId);
-        productRepository.deleteById(productId);
+        var product = this.findProduct(productId);
+        productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, product.getCategory().getId()));
+    }
+
+    /**
+     * Loads a product whose stock was just updated and announces the change.
+     *
+     * @param productId The ID of the product.
+     * @return A ProductResponse object representing the updated product.
+     */
+    private ProductResponse stockChanged(Long productId) {
+        var product = this.findProduct(productId);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, product.getCategory().getId()));
+        return ProductMapper.mapToDto(product);
+    }
+
+    /**
+     * Finds out why a conditional stock update of a product changed no row.
+     *
+     * @param productId The ID of the product.
+     * @param version The expected version, or null.
+     * @return The exception to throw.
+     */
+    private RuntimeException stockChangeRejected(Long productId, Long version) {
+        var row = productRepository.findStockById(productId).orElse(null);
+        if (row == null) {
+            log.error(WriteLog.logError("--> product not found with id: " + productId));
+            return new NotFoundException("Product not found with id: " + productId);
+        }
+        if (version != null && !version.equals(row.version())) {
+            log.error(WriteLog.logError("--> product " + productId + " is at version " + row.version()
+                    + ", not " + version));
+            return new ConflictException("Product with id " + productId + " was changed, it is at version "
+                    + row.version() + ", not " + version);
+        }
+        log.error(WriteLog.logError("--> insufficient stock for product with id: " + productId));
+        return new BadRequestException(List.of("Insufficient stock for product with id " + productId
+                + ", available: " + row.stock()));
+    }
+
+    /**
+     * Runs the conditional stock updates as one batch and returns the rows changed by each one.
+     * A driver rewriting the batch may report SUCCESS_NO_INFO instead of the counts, which does not tell
+     * the rejected changes apart; the batch is then rolled back to a savepoint and run change by change.
+     *
+     * @param args The parameters of every update.
+     * @return The number of rows changed by every update.
+     */
+    private int[] updateStocks(List<Object[]> args) {
+        int[] counts = jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            int[] batch = jdbcTemplate.batchUpdate(STOCK_CHANGE_SQL, args, STOCK_CHANGE_TYPES);
+            if (Arrays.stream(batch).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+                connection.rollback(savepoint);
+                return null;
+            }
+            connection.releaseSavepoint(savepoint);
+            return batch;
+        });
+        if (counts != null) {
+            return counts;
+        }
+        log.warn(WriteLog.logWarning("--> stock batch returned no update counts, applying it change by change"));
+        return args.stream()
+                .mapToInt(arg -> jdbcTemplate.update(STOCK_CHANGE_SQL, arg, STOCK_CHANGE_TYPES))
+                .toArray();
+    }
+
+    private String describeRejected(StockChangeRequest change, ProductStockRow row) {
+        if (row == null) {
+            return "Product not found with SKU: " + change.getSku();
+        }
+        if (change.getVersion() != null && !change.getVersion().equals(row.version())) {
+            return "Product with SKU " + change.getSku() + " is not at version " + change.getVersion();
+        }
+        return "Insufficient stock for product with SKU " + change.getSku();
+    }
+
+    /**
+     * Validates the filters of a product listing.
+     *
+     * @param filter The filters to validate.
+     */
+    private void validateFilter(ProductFilterRequest filter) {
+        var errors = new ArrayList<String>();
+        if (filter.getMinPrice() != null && filter.getMinPrice() < 0) {
+            errors.add("Invalid minimum price: " + filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null && filter.getMaxPrice() < 0) {
+            errors.add("Invalid maximum price: " + filter.getMaxPrice());
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice() > filter.getMaxPrice()) {
+            errors.add("Minimum price cannot be greater than maximum price.");
+        }
+        if (!errors.isEmpty()) {
+            log.error(WriteLog.logError("--> product filter validation failed: " + errors));
+            throw new BadRequestException(errors);
+        }
+    }
+
+    private Sort.Direction sortDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction).orElseThrow(() -> {
+            log.error(WriteLog.logError("--> invalid sort direction " + direction));
+            return new BadRequestException(List.of("Invalid sort direction: " + direction));
+        });
+    }
+
+    /**
+     * Builds the keyset position following the row of the cursor.
+     *
+     * @param cursor The decoded cursor, or null for the first page.
+     * @return The scroll position.
+     */
+    private ScrollPosition scrollPosition(KeysetCursor cursor) {
+        if (cursor == null) return ScrollPosition.keyset();
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            switch (cursor.property()) {
+                case "price" -> keys.put(cursor.property(), Double.valueOf(cursor.value()));
+                case "name" -> keys.put(cursor.property(), cursor.value());
+                case "createdAt" -> keys.put(cursor.property(), LocalDateTime.parse(cursor.value()));
+                default -> { }
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException(List.of("Invalid cursor"));
+        }
+        keys.put("id", cursor.id());
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Returns the value of the sort property of a product, as stored in the cursor.
+     *
+     * @param product The product.
+     * @param property The sort property.
+     * @return The value of the property, or null when sorting by id.
+     */
+    private String sortValue(Product product, String property) {
+        return switch (property) {
+            case "price" -> String.valueOf(product.getPrice());
+            case "name" -> product.getName();
+            case "createdAt" -> String.valueOf(product.getCreatedAt());
+            default -> null;
+        };
+    }
+
+    /**
+     * Validates a batch of stock changes.
+     * Every change needs a SKU and either a non-negative stock or a delta.
+     *
+     * @param changes The stock changes to validate.
+     */
+    private void validateStockChanges(List<StockChangeRequest> changes) {
+        var errors = new ArrayList<String>();
+        if (changes == null || changes.isEmpty()) {
+            errors.add("At least one stock change is required.");
+        } else if (changes.size() > maxStockBatch) {
+            errors.add("At most " + maxStockBatch + " stock changes are allowed per batch.");
+        } else {
+            for (int i = 0; i < changes.size(); i++) {
+                var change = changes.get(i);
+                if (change.getSku() == null || change.getSku().isBlank()) {
+                    errors.add("Change " + i + ": SKU is required.");
+                }
+                if ((change.getStock() == null) == (change.getDelta() == null)) {
+                    errors.add("Change " + i + ": either stock or delta is required.");
+                } else if (change.getStock() != null && change.getStock() < 0) {
+                    errors.add("Change " + i + ": invalid stock value: " + change.getStock());
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            log.error(WriteLog.logError("--> stock changes validation failed: " + errors));
+            throw new BadRequestException(errors);
+        }
+    }
+
+    /**
+     * Loads a product to be changed from the database, joining its category.
+     *
+     * @param productId The ID of the product.
+     * @return The product entity.
+     */
+    private Product findProduct(Long productId) {
+        return productRepository.findWithCategoryById(productId)
+                .orElseThrow(() -> {
+                    log.error(WriteLog.logError("--> product not found with id: " + productId));
+                    return new NotFoundException("Product not found with id: " + productId);
+                });
+    }
+
+    /**
+     * Saves a changed product and announces the change.
+     *
+     * @param product The changed product entity.
+     * @return A ProductResponse object representing the saved product.
+     */
+    private ProductResponse saveChanged(Product product) {
+        var saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(saved.getId(), saved.getCategory().getId()));
+        return ProductMapper.mapToDto(saved);
     }
 
     /**
@@ -0,0 +1,116 @@
+package com.ch.productservice.services.impl;
+
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.productservice.api.models.requests.ReservationItemRequest;
+import com.ch.productservice.api.models.requests.ReservationRequest;
+import com.ch.productservice.api.models.responses.ReservationItemResponse;
+import com.ch.productservice.api.models.responses.ReservationResponse;
+import com.ch.productservice.reservations.StockReservationEngine;
+import com.ch.productservice.services.contracts.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ReservationServiceImpl is the implementation of the ReservationService interface.
+ * It validates the reservation requests and delegates to the {@link StockReservationEngine},
+ * which holds the stock in memory and writes the committed stock to the database in batches.
+ *
+ * @author caito
+ *
+ */
+@Service
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+    private final StockReservationEngine engine;
+    private final int defaultTtlSeconds;
+    private final int maxTtlSeconds;
+
+    public ReservationServiceImpl(StockReservationEngine engine,
+                                  @Value("${application.reservations.default-ttl-seconds:600}") int defaultTtlSeconds,
+                                  @Value("${application.reservations.max-ttl-seconds:3600}") int maxTtlSeconds) {
+        this.engine = engine;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+    }
+
+    /**
+     * Reserves stock of one or more products, all or nothing.
+     * Quantities of the same product are added up.
+     *
+     * @param request The products and quantities to reserve, and the TTL of the reservation.
+     * @return The reservation.
+     */
+    @Override
+    public ReservationResponse reserve(ReservationRequest request) {
+        log.info(WriteLog.logInfo("--> reserving stock"));
+        int ttlSeconds = this.validateReservation(request);
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        request.getItems().forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+        var reservation = engine.reserve(quantities, Duration.ofSeconds(ttlSeconds));
+        return ReservationResponse.builder()
+                .id(reservation.id())
+                .items(reservation.quantities().entrySet().stream()
+                        .map(line -> ReservationItemResponse.builder()
+                                .productId(line.getKey())
+                                .quantity(line.getValue())
+                                .build())
+                        .toList())
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(reservation.expiresAt()), ZoneId.systemDefault()))
+                .build();
+    }
+
+    @Override
+    public void commit(String reservationId) {
+        log.info(WriteLog.logInfo("--> committing reservation with id: " + reservationId));
+        engine.commit(reservationId);
+    }
+
+    @Override
+    public void release(String reservationId) {
+        log.info(WriteLog.logInfo("--> releasing reservation with id: " + reservationId));
+        engine.release(reservationId);
+    }
+
+    /**
+     * Validates the reservation request.
+     * Every item needs a product and a positive quantity, and the TTL must be within bounds.
+     *
+     * @param request The reservation request to validate.
+     * @return The TTL of the reservation in seconds.
+     */
+    private int validateReservation(ReservationRequest request) {
+        var errors = new ArrayList<String>();
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            errors.add("At least one item is required.");
+        } else {
+            for (ReservationItemRequest item : request.getItems()) {
+                if (item.getProductId() == null) {
+                    errors.add("Product id is required.");
+                }
+                if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                    errors.add("Quantity must be greater than zero.");
+                }
+            }
+        }
+        Integer ttlSeconds = request == null ? null : request.getTtlSeconds();
+        if (ttlSeconds != null && (ttlSeconds <= 0 || ttlSeconds > maxTtlSeconds)) {
+            errors.add("TTL must be between 1 and " + maxTtlSeconds + " seconds.");
+        }
+        if (!errors.isEmpty()) {
+            log.error(WriteLog.logError("--> reservation request validation failed: " + errors));
+            throw new BadRequestException(errors);
+        }
+        return ttlSeconds == null ? defaultTtlSeconds : ttlSeconds;
+    }
+}
@@ -53,6 +53,7 @@ public class ProductMapper {
                 .category(CategoryMapper.mapToDto(product.getCategory()))
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
 
@@ -69,6 +70,7 @@ public class ProductMapper {
                 .category(CategoryMapper.mapToEntity(response.getCategory()))
                 .createdAt(response.getCreatedAt())
                 .updatedAt(response.getUpdatedAt())
+                .version(response.getVersion())
                .build();
     }
 }
@@ -0,0 +1,52 @@
+package com.ch.productservice.cache;
+
+import com.ch.productservice.api.models.requests.CategoryRequest;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.services.contracts.CategoryService;
+import com.ch.productservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategoryCacheTest {
+
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAllInBatch();
+        categoryCache.refresh();
+    }
+
+    @Test
+    void committedChangesRefreshTheCache() {
+        categoryService.addCategory(request("solvents"));
+        Category added = categoryRepository.findAll().get(0);
+
+        assertThat(categoryCache.all()).extracting(Category::getName).containsExactly("solvents");
+
+        categoryService.updateCategory(added.getId(), request("acids"));
+
+        assertThat(categoryCache.get(added.getId())).get().extracting(Category::getName).isEqualTo("acids");
+
+        categoryService.deleteCategory(added.getId());
+
+        assertThat(categoryCache.all()).isEmpty();
+    }
+
+    private static CategoryRequest request(String name) {
+        return CategoryRequest.builder().name(name).build();
+    }
+}
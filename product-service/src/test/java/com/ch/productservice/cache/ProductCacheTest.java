@@ -0,0 +1,68 @@
+package com.ch.productservice.cache;
+
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+    private static final ProductCache.FirstPageKey ALL = ProductCache.FirstPageKey.of(
+            new ProductFilterRequest(), "price", Sort.Direction.ASC, 20);
+    private static final ProductCache.FirstPageKey CATEGORY_1 = ProductCache.FirstPageKey.of(
+            ProductFilterRequest.builder().categoryId(1L).build(), "price", Sort.Direction.ASC, 20);
+    private static final ProductCache.FirstPageKey CATEGORY_2 = ProductCache.FirstPageKey.of(
+            ProductFilterRequest.builder().categoryId(2L).build(), "price", Sort.Direction.ASC, 20);
+
+    private final ProductCache cache = new ProductCache(new SimpleMeterRegistry(), 60000, 100, 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void firstPagesAreLoadedOncePerListing() {
+        cache.getFirstPage(ALL, this::load);
+        cache.getFirstPage(ALL, this::load);
+        cache.getFirstPage(CATEGORY_1, this::load);
+        cache.getFirstPage(CATEGORY_1, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void changeEvictsTheListingsOfItsCategoryAndOfAllProducts() {
+        cache.getFirstPage(ALL, this::load);
+        cache.getFirstPage(CATEGORY_1, this::load);
+        cache.getFirstPage(CATEGORY_2, this::load);
+
+        cache.onProductChanged(ProductChangedEvent.of(10L, 1L));
+        cache.getFirstPage(ALL, this::load);
+        cache.getFirstPage(CATEGORY_1, this::load);
+        cache.getFirstPage(CATEGORY_2, this::load);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void pageLoadedAcrossAnEvictionIsNotKept() {
+        ProductPageResponse page = cache.getFirstPage(CATEGORY_1, () -> {
+            cache.evict(Set.of(10L), Set.of(1L));
+            return this.load();
+        });
+        assertThat(page).isNotNull();
+        assertThat(loads).hasValue(2);
+
+        cache.getFirstPage(CATEGORY_1, this::load);
+        cache.getFirstPage(CATEGORY_1, this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    private ProductPageResponse load() {
+        loads.incrementAndGet();
+        return ProductPageResponse.builder().content(List.of()).build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.ch.productservice.reservations;
+
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.core.chcore.exceptions.ConflictException;
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.productservice.cache.ProductCache;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.entities.Product;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.persistence.repositories.ProductRepository;
+import com.ch.productservice.services.contracts.ProductService;
+import com.ch.productservice.support.ServiceSliceTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+
+@ServiceSliceTest
+@TestPropertySource(properties = "application.reservations.tick-ms=10")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationEngineTest {
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Autowired
+    private StockReservationEngine engine;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductCache productCache;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+    @Value("${application.reservations.journal-dir}")
+    private Path journalDir;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(Category.builder().name("reagents").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        Mockito.reset(jdbcTemplate);
+        engine.flush();
+        jdbcTemplate.update("DELETE FROM stock_journal_flushes");
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void reserveCommitAndRelease() {
+        Long productId = this.product(10);
+        var first = engine.reserve(Map.of(productId, 4), TTL);
+        var second = engine.reserve(Map.of(productId, 6), TTL);
+        assertThatThrownBy(() -> engine.reserve(Map.of(productId, 1), TTL))
+                .isInstanceOf(BadRequestException.class);
+
+        engine.release(second.id());
+        var third = engine.reserve(Map.of(productId, 6), TTL);
+        engine.commit(first.id());
+        engine.release(third.id());
+        engine.flush();
+
+        assertThat(this.stock(productId)).isEqualTo(6);
+        assertThat(engine.reserve(Map.of(productId, 6), TTL)).isNotNull();
+        assertThatThrownBy(() -> engine.commit(first.id())).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> engine.release(second.id())).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void reservationOfSeveralProductsIsAllOrNothing() {
+        Long available = this.product(5);
+        Long scarce = this.product(1);
+
+        assertThatThrownBy(() -> engine.reserve(Map.of(available, 5, scarce, 2), TTL))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(engine.reserve(Map.of(available, 5, scarce, 1), TTL)).isNotNull();
+    }
+
+    @Test
+    void expiredHoldIsReturnedToStock() throws InterruptedException {
+        Long productId = this.product(5);
+        var reservation = engine.reserve(Map.of(productId, 5), Duration.ofMillis(50));
+        assertThatThrownBy(() -> engine.reserve(Map.of(productId, 1), TTL))
+                .isInstanceOf(BadRequestException.class);
+
+        Thread.sleep(100);
+        engine.expireReservations();
+
+        assertThat(engine.reserve(Map.of(productId, 5), TTL)).isNotNull();
+        assertThatThrownBy(() -> engine.commit(reservation.id())).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void concurrentReservesNeverOversell() throws Exception {
+        int stock = 100;
+        int threads = 16;
+        int attempts = 20;
+        Long productId = this.product(stock);
+        engine.release(engine.reserve(Map.of(productId, 1), TTL).id());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int reserved = 0;
+                for (int i = 0; i < attempts; i++) {
+                    try {
+                        engine.reserve(Map.of(productId, 1), TTL);
+                        reserved++;
+                    } catch (BadRequestException e) {
+                        // out of stock
+                    }
+                }
+                return reserved;
+            }));
+        }
+        start.countDown();
+        int reserved = 0;
+        for (Future<Integer> result : results) {
+            reserved += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(reserved).isEqualTo(stock);
+        assertThatThrownBy(() -> engine.reserve(Map.of(productId, 1), TTL))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void failedFlushKeepsItsDeltas() throws IOException {
+        Long productId = this.product(10);
+        engine.commit(engine.reserve(Map.of(productId, 3), TTL).id());
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(jdbcTemplate).batchUpdate(startsWith("UPDATE products"), anyList());
+
+        engine.flush();
+
+        assertThat(this.stock(productId)).isEqualTo(10);
+        assertThat(this.segments(journalDir)).isNotEmpty();
+
+        Mockito.reset(jdbcTemplate);
+        engine.commit(engine.reserve(Map.of(productId, 2), TTL).id());
+        engine.flush();
+
+        assertThat(this.stock(productId)).isEqualTo(5);
+        assertThat(this.segments(journalDir)).isEmpty();
+    }
+
+    @Test
+    void flushRejectsAbsoluteStockSetAtAVersionReadBeforeIt() {
+        Long productId = this.product(10);
+        Long version = productService.getProductById(productId).getVersion();
+        engine.commit(engine.reserve(Map.of(productId, 4), TTL).id());
+        engine.flush();
+
+        assertThatThrownBy(() -> productService.changeStock(productId, 20, version))
+                .isInstanceOf(ConflictException.class);
+        assertThat(this.stock(productId)).isEqualTo(6);
+        assertThat(productService.adjustStock(productId, 10, null).getStock()).isEqualTo(16);
+    }
+
+    @Test
+    void recoverReplaysOnlySegmentsWithoutFlushMarker(@TempDir Path directory) throws IOException {
+        Long productId = this.product(10);
+        StockJournal journal = new StockJournal(directory, false);
+        journal.append("flushed", Map.of(productId, 2));
+        Path flushed = journal.rotate();
+        journal.append("pending", Map.of(productId, 3));
+        Path pending = journal.rotate();
+        jdbcTemplate.update("INSERT INTO stock_journal_flushes (segment, flushed_at) VALUES (?, ?)",
+                StockJournal.name(flushed), Timestamp.valueOf(LocalDateTime.now()));
+
+        StockReservationEngine recovering = new StockReservationEngine(productRepository, productCache, jdbcTemplate,
+                transactionManager, new SimpleMeterRegistry(), 10, 1000, directory.toString(), false);
+        recovering.recover();
+
+        assertThat(this.stock(productId)).isEqualTo(7);
+        assertThat(flushed).doesNotExist();
+        assertThat(pending).doesNotExist();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_journal_flushes", Integer.class))
+                .isZero();
+    }
+
+    private Long product(int stock) {
+        return productRepository.save(Product.builder()
+                .sku("sku-" + System.nanoTime())
+                .name("product")
+                .description("description")
+                .content("content")
+                .price(1.0)
+                .stock(stock)
+                .category(category)
+                .build()).getId();
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).toList();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ch.productservice.services;
+
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
+import com.ch.productservice.api.models.requests.ProductRequest;
+import com.ch.productservice.api.models.requests.StockChangeRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
+import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.cache.CategoryCache;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.entities.Product;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.persistence.repositories.ProductRepository;
+import com.ch.productservice.services.contracts.ProductService;
+import com.ch.productservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CategoryCache categoryCache;
+
+    private Category category;
+    private Product cheap;
+    private Product dear;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(Category.builder().name("reagents " + System.nanoTime()).build());
+        cheap = productRepository.save(this.product("cheap", 1.0, 5));
+        dear = productRepository.save(this.product("dear", 9.0, 5));
+        categoryCache.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void firstPageIsServedFromTheCache() {
+        ProductPageResponse first = this.firstPage();
+
+        assertThat(this.firstPage()).isSameAs(first);
+        assertThat(this.names(first)).containsExactly("cheap", "dear");
+    }
+
+    @Test
+    void addingAProductEvictsTheFirstPage() {
+        this.firstPage();
+
+        productService.addProduct(ProductRequest.builder()
+                .name("middle")
+                .description("description")
+                .content("content")
+                .price(5.0)
+                .stock(1)
+                .categoryId(category.getId())
+                .build());
+
+        assertThat(this.names(this.firstPage())).containsExactly("cheap", "middle", "dear");
+    }
+
+    @Test
+    void changingAPriceEvictsTheFirstPage() {
+        this.firstPage();
+
+        productService.changePrice(cheap.getId(), 20.0);
+
+        assertThat(this.names(this.firstPage())).containsExactly("dear", "cheap");
+    }
+
+    @Test
+    void deletingAProductEvictsTheFirstPage() {
+        this.firstPage();
+
+        productService.deleteProduct(dear.getId());
+
+        assertThat(this.names(this.firstPage())).containsExactly("cheap");
+    }
+
+    @Test
+    void stockChangesEvictTheFirstPageInStock() {
+        ProductFilterRequest inStock = ProductFilterRequest.builder()
+                .categoryId(category.getId())
+                .inStock(true)
+                .build();
+        productService.getProducts(inStock, 20, "price", "asc", null);
+
+        productService.changeStock(cheap.getId(), 0, null);
+        assertThat(this.names(productService.getProducts(inStock, 20, "price", "asc", null)))
+                .containsExactly("dear");
+
+        productService.changeStocks(List.of(StockChangeRequest.builder().sku(cheap.getSku()).delta(3).build()));
+        assertThat(this.names(productService.getProducts(inStock, 20, "price", "asc", null)))
+                .containsExactly("cheap", "dear");
+    }
+
+    @Test
+    void productsAreServedFromTheCache() {
+        ProductResponse loaded = productService.getProductById(cheap.getId());
+
+        assertThat(productService.getProductById(cheap.getId())).isSameAs(loaded);
+    }
+
+    @Test
+    void changingTheStockEvictsTheProduct() {
+        ProductResponse loaded = productService.getProductById(cheap.getId());
+
+        productService.changeStock(cheap.getId(), 42, null);
+
+        assertThat(productService.getProductById(cheap.getId())).isNotSameAs(loaded)
+                .extracting(ProductResponse::getStock).isEqualTo(42);
+    }
+
+    @Test
+    void changingThePriceEvictsTheProduct() {
+        productService.getProductById(cheap.getId());
+
+        productService.changePrice(cheap.getId(), 3.5);
+
+        assertThat(productService.getProductById(cheap.getId()).getPrice()).isEqualTo(3.5);
+    }
+
+    @Test
+    void deletingAProductEvictsIt() {
+        productService.getProductById(dear.getId());
+
+        productService.deleteProduct(dear.getId());
+
+        assertThatThrownBy(() -> productService.getProductById(dear.getId()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private ProductPageResponse firstPage() {
+        return productService.getProducts(ProductFilterRequest.builder().categoryId(category.getId()).build(),
+                20, "price", "asc", null);
+    }
+
+    private List<String> names(ProductPageResponse page) {
+        return page.getContent().stream().map(ProductResponse::getName).toList();
+    }
+
+    private Product product(String name, double price, int stock) {
+        return Product.builder()
+                .sku("sku-" + name + "-" + System.nanoTime())
+                .name(name)
+                .description("description")
+                .content("content")
+                .price(price)
+                .stock(stock)
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ch.productservice.services;
+
+import com.ch.core.test.Fixtures;
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
+import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.entities.Product;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.persistence.repositories.ProductRepository;
+import com.ch.productservice.services.contracts.ProductService;
+import com.ch.productservice.support.ServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+class ProductServicePaginationTest {
+    private static final int PRODUCTS = 23;
+    private static final int PAGE_SIZE = 4;
+    private static final Map<String, Comparator<Product>> ORDERS = Map.of(
+            "id", Comparator.comparing(Product::getId),
+            "price", Comparator.comparing(Product::getPrice).thenComparing(Product::getId),
+            "name", Comparator.comparing(Product::getName).thenComparing(Product::getId),
+            "createdAt", Comparator.comparing(Product::getCreatedAt).thenComparing(Product::getId));
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("reagents").build());
+        // five names and four prices over the products, so pages end in the middle of ties
+        productRepository.saveAll(Fixtures.times(PRODUCTS, i -> Product.builder()
+                .sku("sku-" + i)
+                .name("product, " + (i * 7 % 5))
+                .description("description")
+                .content("content")
+                .price(1.0 + (i * 3 % 4) * 0.5)
+                .stock(i)
+                .category(category)
+                .build()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"id,asc", "id,desc", "price,asc", "price,desc", "name,asc", "name,desc",
+            "createdAt,asc", "createdAt,desc"})
+    void pagesWalkTheWholeSortedListingOnce(String sort, String direction) {
+        Comparator<Product> order = ORDERS.get(sort);
+        List<Long> expected = productRepository.findAll().stream()
+                .sorted("asc".equals(direction) ? order : order.reversed())
+                .map(Product::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageResponse page = productService.getProducts(new ProductFilterRequest(), PAGE_SIZE, sort,
+                    direction, cursor);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            walked.addAll(page.getContent().stream().map(ProductResponse::getId).toList());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ch.productservice.services;
+
+import com.ch.core.test.Fixtures;
+import com.ch.core.test.StatementBudget;
+import com.ch.productservice.api.models.requests.ProductFilterRequest;
+import com.ch.productservice.api.models.responses.ProductPageResponse;
+import com.ch.productservice.api.models.responses.ProductResponse;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.entities.Product;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.persistence.repositories.ProductRepository;
+import com.ch.productservice.services.contracts.ProductService;
+import com.ch.productservice.support.ServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+class ProductServiceQueryCountTest {
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS = 200;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long firstId;
+    private Long firstCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        List<Category> categories = categoryRepository.saveAll(
+                Fixtures.times(CATEGORIES, i -> Category.builder().name("category " + i).build()));
+        List<Product> products = Fixtures.times(PRODUCTS, i -> Product.builder()
+                .sku("sku-" + i)
+                .name("product " + i)
+                .description("description")
+                .content("content")
+                .price(1.0 + i)
+                .stock(i % 3)
+                .category(categories.get(i % CATEGORIES))
+                .build());
+        firstId = productRepository.saveAll(products).get(0).getId();
+        firstCategoryId = categories.get(0).getId();
+    }
+
+    @Test
+    void pageOfProductsJoinsCategories() {
+        ProductPageResponse page = StatementBudget.assertAtMost(entityManager, 1,
+                () -> productService.getProducts(new ProductFilterRequest(), 50, "price", "asc", null));
+
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(page.getContent()).allSatisfy(p -> assertThat(p.getCategory().getName()).isNotNull());
+        assertThat(page.isHasNext()).isTrue();
+    }
+
+    @Test
+    void filteredPagesOfProductsJoinCategories() {
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .categoryId(firstCategoryId)
+                .minPrice(1.0)
+                .inStock(true)
+                .build();
+        List<ProductResponse> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String next = cursor;
+            ProductPageResponse page = StatementBudget.assertAtMost(entityManager, 1,
+                    () -> productService.getProducts(filter, 3, "name", "desc", next));
+            listed.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isGreaterThan(1);
+        assertThat(listed).isNotEmpty();
+        assertThat(listed).allSatisfy(p -> {
+            assertThat(p.getCategory().getId()).isEqualTo(firstCategoryId);
+            assertThat(p.getStock()).isPositive();
+        });
+    }
+
+    @Test
+    void lookupJoinsCategory() {
+        ProductResponse product = StatementBudget.assertAtMost(entityManager, 1,
+                () -> productService.getProductById(firstId));
+
+        assertThat(product.getCategory().getName()).isEqualTo("category 0");
+    }
+}
@@ -0,0 +1,124 @@
+package com.ch.productservice.services;
+
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.productservice.api.models.requests.StockChangeRequest;
+import com.ch.productservice.api.models.responses.StockResponse;
+import com.ch.productservice.persistence.entities.Category;
+import com.ch.productservice.persistence.entities.Product;
+import com.ch.productservice.persistence.repositories.CategoryRepository;
+import com.ch.productservice.persistence.repositories.ProductRepository;
+import com.ch.productservice.services.contracts.ProductService;
+import com.ch.productservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceStockChangeTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("reagents").build());
+        productRepository.saveAll(List.of(this.product("sku-a", category), this.product("sku-b", category),
+                this.product("sku-c", category)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void rejectsInsufficientStockAndStaleVersion() {
+        this.assertRejected();
+    }
+
+    @Test
+    void rejectsInsufficientStockAndStaleVersionWithoutUpdateCounts() {
+        this.withoutUpdateCounts();
+
+        this.assertRejected();
+    }
+
+    @Test
+    void appliesEveryChangeOnceWithoutUpdateCounts() {
+        this.withoutUpdateCounts();
+
+        List<StockResponse> changed = productService.changeStocks(List.of(
+                StockChangeRequest.builder().sku("sku-a").delta(-2).build(),
+                StockChangeRequest.builder().sku("sku-b").stock(9).version(0L).build()));
+
+        assertThat(changed).extracting(StockResponse::getSku, StockResponse::getStock, StockResponse::getVersion)
+                .containsExactly(tuple("sku-a", 3, 1L),
+                        tuple("sku-b", 9, 1L));
+        assertThat(this.stock("sku-c")).isEqualTo(5);
+    }
+
+    private void assertRejected() {
+        List<StockChangeRequest> changes = List.of(
+                StockChangeRequest.builder().sku("sku-a").delta(-2).build(),
+                StockChangeRequest.builder().sku("sku-b").delta(-6).build(),
+                StockChangeRequest.builder().sku("sku-c").delta(1).version(7L).build());
+
+        assertThatThrownBy(() -> productService.changeStocks(changes))
+                .isInstanceOfSatisfying(BadRequestException.class, e -> assertThat(e.getMessages()).containsExactly(
+                        "Insufficient stock for product with SKU sku-b",
+                        "Product with SKU sku-c is not at version 7"));
+
+        assertThat(this.stock("sku-a")).isEqualTo(5);
+        assertThat(this.stock("sku-b")).isEqualTo(5);
+        assertThat(this.stock("sku-c")).isEqualTo(5);
+    }
+
+    private void withoutUpdateCounts() {
+        doAnswer(invocation -> {
+            int[] counts = (int[]) invocation.callRealMethod();
+            Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+
+    private int stock(String sku) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE sku = ?", Integer.class, sku);
+    }
+
+    private Product product(String sku, Category category) {
+        return Product.builder()
+                .sku(sku)
+                .name("product " + sku)
+                .description("description")
+                .content("content")
+                .price(1.0)
+                .stock(5)
+                .category(category)
+                .build();
+    }
+}
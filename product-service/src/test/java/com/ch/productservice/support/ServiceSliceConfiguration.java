@@ -0,0 +1,26 @@
+package com.ch.productservice.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * Components of the {@link ServiceSliceTest} slice.
+ * The services, caches and reservations packages are scanned, so new components there are picked up
+ * without touching the tests.
+ *
+ * @author caito
+ *
+ */
+@TestConfiguration
+@ComponentScan(basePackages = {"com.ch.productservice.services", "com.ch.productservice.cache",
+        "com.ch.productservice.reservations"})
+public class ServiceSliceConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
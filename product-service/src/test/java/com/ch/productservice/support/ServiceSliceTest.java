@@ -0,0 +1,33 @@
+package com.ch.productservice.support;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test slice of the service layer on an embedded database.
+ * It loads the JPA repositories together with every component of the services, caches and
+ * reservations packages, as wired by {@link ServiceSliceConfiguration}, and enables the Hibernate
+ * statistics used by {@link com.ch.core.test.StatementBudget}. The second level cache is disabled,
+ * so statement counts do not depend on the order of the tests, and the reservation engine journals
+ * under target and is only flushed by the tests.
+ *
+ * @author caito
+ *
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "application.reservations.journal-dir=target/test-stock-journal",
+        "application.reservations.flush-ms=3600000"})
+@Import(ServiceSliceConfiguration.class)
+public @interface ServiceSliceTest {
+}
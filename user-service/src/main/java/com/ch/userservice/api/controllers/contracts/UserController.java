@@ -3,15 +3,22 @@ package com.ch.userservice.api.controllers.contracts;
 import com.ch.core.chcore.models.UserAuthResponse;
 import com.ch.userservice.api.models.requests.EnableUser;
 import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserImportResponse;
+import com.ch.userservice.api.models.responses.UserPageResponse;
 import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.userservice.api.models.responses.UserSearchResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -35,15 +42,59 @@ public interface UserController {
     })
     public ResponseEntity<?> createUser(@RequestBody UserRequest request);
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Import users in bulk from a CSV file with header (name,email,phone) "
+            + "or from newline delimited JSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "import processed, rejected rows are reported"),
+            @ApiResponse(responseCode = "400", description = "Bad request, unsupported format"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException;
+
     @GetMapping
     @SecurityRequirement(name = "security token")
-    @Operation(description = "Retrieve all users")
+    @Operation(description = "Retrieve a page of users using keyset pagination")
+    @Parameter(name = "size", description = "maximum number of users of the page")
+    @Parameter(name = "sort", description = "sort property: id, name, email or createdAt")
+    @Parameter(name = "direction", description = "sort direction: asc or desc")
+    @Parameter(name = "cursor", description = "cursor of the next page returned with the previous page")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "users retrieved successfully"),
-            @ApiResponse(responseCode = "204", description = "No content, no categories found"),
+            @ApiResponse(responseCode = "204", description = "No content, no users found"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid sort or cursor"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<UserPageResponse> getUsers(@RequestParam(defaultValue = "50") int size,
+                                                     @RequestParam(defaultValue = "id") String sort,
+                                                     @RequestParam(defaultValue = "asc") String direction,
+                                                     @RequestParam(required = false) String cursor);
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Stream all users as newline delimited JSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "users streamed successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StreamingResponseBody> streamUsers();
+
+    @GetMapping("/search")
+    @SecurityRequirement(name = "security token")
+    @Operation(description = "Search users by name; matches anywhere in the name from three characters, "
+            + "at the start of a word with two")
+    @Parameter(name = "q", description = "text to look for, at least two characters")
+    @Parameter(name = "page", description = "zero-based page number")
+    @Parameter(name = "size", description = "maximum number of users of the page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "users found, best matches first"),
+            @ApiResponse(responseCode = "400", description = "Bad request, query too short"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<UserResponse>> getUsers();
+    public ResponseEntity<UserSearchResponse> searchUsers(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size);
 
     @GetMapping("/{id}")
     @SecurityRequirement(name = "security token")
@@ -79,8 +130,10 @@ public interface UserController {
     })
     public ResponseEntity<UserResponse> setAdmin(@PathVariable String email);
 
-    @GetMapping("/full-data/{email}")
-    @Operation(hidden = true)
+    @GetMapping(value = "/full-data/{email}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(hidden = true, description = "Service to service lookup of the credentials of a user; "
+            + "answers CBOR when requested with Accept: application/cbor")
     @Parameter(name = "email", description = "user email to be retrieved")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "users retrieved successfully"),
@@ -5,15 +5,29 @@ import com.ch.core.chcore.models.UserAuthResponse;
 import com.ch.userservice.api.controllers.contracts.UserController;
 import com.ch.userservice.api.models.requests.EnableUser;
 import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserImportResponse;
+import com.ch.userservice.api.models.responses.UserPageResponse;
 import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.userservice.api.models.responses.UserSearchResponse;
+import com.ch.userservice.services.contracts.UserImportService;
 import com.ch.userservice.services.contracts.UserService;
+import com.ch.userservice.utils.imports.UserImportReader;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.util.List;
 
@@ -32,6 +46,8 @@ import java.util.List;
 @Slf4j
 public class UserControllerImpl implements UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
 
     @Override
     public ResponseEntity<?> createUser(UserRequest request) {
@@ -40,13 +56,47 @@ public class UserControllerImpl implements UserController {
     }
 
     @Override
-    public ResponseEntity<List<UserResponse>> getUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        if (users.isEmpty()) {
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        try (MappingIterator<UserRequest> rows = UserImportReader.open(request.getInputStream(),
+                MediaType.parseMediaType(request.getContentType()))) {
+            return ResponseEntity.ok(userImportService.importUsers(rows));
+        }
+    }
+
+    @Override
+    public ResponseEntity<UserPageResponse> getUsers(int size, String sort, String direction, String cursor) {
+        UserPageResponse page = userService.getUsers(size, sort, direction, cursor);
+        if (page.getContent().isEmpty() && cursor == null) {
             log.warn(WriteLog.logWarning("--> No users found"));
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok(page);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writerFor(UserResponse.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                userService.streamUsers(user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Override
+    public ResponseEntity<UserSearchResponse> searchUsers(String q, int page, int size) {
+        return ResponseEntity.ok(userService.searchUsers(q, page, size));
     }
 
     @Override
@@ -0,0 +1,24 @@
+package com.ch.userservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * UserImportError class represents a row rejected by a bulk user import.
+ * It contains the 1-based number of the row, its email, if any, and the validation errors.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class UserImportError implements Serializable {
+    private int row;
+    private String email;
+    private List<String> errors;
+}
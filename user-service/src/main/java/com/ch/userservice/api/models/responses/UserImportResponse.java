@@ -0,0 +1,26 @@
+package com.ch.userservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * UserImportResponse class represents the outcome of a bulk user import.
+ * It contains the number of rows received, imported and rejected, and the
+ * errors of every rejected row.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class UserImportResponse implements Serializable {
+    private int received;
+    private int imported;
+    private int failed;
+    private List<UserImportError> errors;
+}
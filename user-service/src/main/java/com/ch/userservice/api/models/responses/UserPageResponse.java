@@ -0,0 +1,25 @@
+package com.ch.userservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * UserPageResponse class represents a page of a keyset paginated user listing.
+ * It contains the users of the page and the cursor to request the next page,
+ * which is null on the last page.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class UserPageResponse implements Serializable {
+    private List<UserResponse> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
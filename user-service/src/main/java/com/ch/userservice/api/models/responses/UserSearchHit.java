@@ -0,0 +1,23 @@
+package com.ch.userservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * UserSearchHit class represents a user matching a name search.
+ * It contains the id, name and email of the user.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class UserSearchHit implements Serializable {
+    private Long id;
+    private String name;
+    private String email;
+}
@@ -0,0 +1,27 @@
+package com.ch.userservice.api.models.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * UserSearchResponse class represents a page of the ranked results of a user name search.
+ * It contains the users of the page, the page number and size, the number of matches, counted
+ * up to the configured maximum, and whether there are more matches after this page.
+ *
+ * @author caito
+ *
+ */
+@NoArgsConstructor@AllArgsConstructor
+@Data@Builder
+public class UserSearchResponse implements Serializable {
+    private List<UserSearchHit> content;
+    private int page;
+    private int size;
+    private int total;
+    private boolean hasNext;
+}
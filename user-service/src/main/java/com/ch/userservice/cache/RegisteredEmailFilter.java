@@ -0,0 +1,153 @@
+package com.ch.userservice.cache;
+
+import com.ch.core.chcore.helpers.ScalableBloomFilter;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Prefilter of the registered emails.
+ * A scalable Bloom filter built when the application is ready by streaming the emails of the
+ * user table, and updated as users are created, tells whether an email is certainly free,
+ * so that registrations of new emails skip the existence query and only probable hits reach
+ * the database. Until the filter is built every email is reported as probably registered.
+ * Bloom filters cannot forget, so deletions are only counted and the filter is rebuilt once
+ * they exceed a fraction of its content; meanwhile deleted emails are mere false positives.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class RegisteredEmailFilter {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long initialCapacity;
+    private final double fpp;
+    private final double rebuildRatio;
+    private final AtomicLong removed = new AtomicLong();
+    private final Counter negatives;
+    private final Counter positives;
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter building;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${application.email-filter.initial-capacity:100000}") long initialCapacity,
+                                 @Value("${application.email-filter.fpp:0.01}") double fpp,
+                                 @Value("${application.email-filter.rebuild-ratio:0.1}") double rebuildRatio) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.initialCapacity = initialCapacity;
+        this.fpp = fpp;
+        this.rebuildRatio = rebuildRatio;
+        this.negatives = Counter.builder("user.email.filter.lookups")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.positives = Counter.builder("user.email.filter.lookups")
+                .tag("result", "positive")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.size", this, f -> f.filter == null ? 0 : f.filter.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether the email may belong to a registered user.
+     *
+     * @param email the email to look up
+     * @return false if the email is certainly not registered, true if it may be
+     */
+    public boolean mightExist(String email) {
+        ScalableBloomFilter current = filter;
+        if (current == null || current.mightContain(normalize(email))) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Records a registered email. Must be called before the registration commits,
+     * so that the filter never denies a committed email.
+     *
+     * @param email the registered email
+     */
+    public void add(String email) {
+        String normalized = normalize(email);
+        ScalableBloomFilter next = building;
+        ScalableBloomFilter current = filter;
+        if (current != null) current.put(normalized);
+        if (next != null) next.put(normalized);
+    }
+
+    /**
+     * Records the removal of a registered email.
+     *
+     * @param email the removed email
+     */
+    public void remove(String email) {
+        removed.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        this.rebuild();
+    }
+
+    /**
+     * Rebuilds the filter once the removed emails exceed the rebuild ratio.
+     */
+    @Scheduled(fixedDelayString = "${application.email-filter.rebuild-check-ms:600000}",
+            initialDelayString = "${application.email-filter.rebuild-check-ms:600000}")
+    public void rebuildIfNeeded() {
+        ScalableBloomFilter current = filter;
+        if (current != null && removed.get() > current.size() * rebuildRatio) {
+            this.rebuild();
+        }
+    }
+
+    /**
+     * Builds a new filter from the user table and swaps it in.
+     * Emails added while the table is streamed go to both filters.
+     */
+    private synchronized void rebuild() {
+        long removedBefore = removed.get();
+        ScalableBloomFilter next = new ScalableBloomFilter(initialCapacity, fpp);
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> next.put(normalize(email)));
+                }
+            });
+            filter = next;
+            removed.addAndGet(-removedBefore);
+            log.info(WriteLog.logInfo("--> Registered email filter built with " + next.size() + " emails"));
+        } catch (RuntimeException e) {
+            log.error(WriteLog.logError("--> Error building registered email filter: " + e.getMessage()));
+        } finally {
+            building = null;
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ch.userservice.cache;
+
+import com.ch.core.chcore.cache.ReferenceDataCache;
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.events.ReferenceDataChangedEvent;
+import com.ch.userservice.persistence.entities.Role;
+import com.ch.userservice.persistence.repositories.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reference data cache of the roles, looked up by name.
+ * Roles are loaded when the application is ready, reloaded periodically, on a lookup miss
+ * and whenever a change on them is announced with a {@link ReferenceDataChangedEvent}.
+ *
+ * @author caito
+ *
+ */
+@Component
+public class RoleCache extends ReferenceDataCache<RoleName, Role> {
+    public static final String NAME = "roles";
+
+    public RoleCache(RoleRepository roleRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${application.reference-data.min-reload-ms:10000}") long minReloadMs) {
+        super(NAME, roleRepository::findAll, Role::getRole, Duration.ofMillis(minReloadMs), meterRegistry);
+    }
+}
@@ -48,6 +48,7 @@ public class SecurityConfig {
                                 .requestMatchers("/v1/users/full-data/**").permitAll()
                                 .requestMatchers("/v1/users/enable-admin/**").hasRole("ADMIN")
                                 .requestMatchers("/v1/users/remove/**").hasRole("ADMIN")
+                                .requestMatchers("/v1/users/import").hasRole("ADMIN")
                               .anyRequest().authenticated())
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session ->
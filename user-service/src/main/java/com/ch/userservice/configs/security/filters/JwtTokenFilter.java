@@ -2,29 +2,72 @@ package com.ch.userservice.configs.security.filters;
 
 import com.ch.core.chcore.exceptions.TokenException;
 import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.configs.security.revocation.TokenRevocationList;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.security.Key;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Filter that authenticates requests carrying a JWT bearer token.
+ * The signing key and the parser are built once. Verified tokens are cached by their
+ * SHA-256 digest together with the resulting Authentication until the token expires,
+ * so a token seen before is neither parsed nor verified again.
+ * Every request is still checked against the {@link TokenRevocationList}.
+ * Hits, misses and evictions are published under the "user.jwt.authentications" cache metrics.
+ *
+ * @author caito
+ *
+ */
 @Component
 @Slf4j
 public class JwtTokenFilter extends OncePerRequestFilter {
     private static final String SECRET ="Hw9z1Yk8Nmq1IzlwcCg8j6yHzw6RKjzZUi9r7Ww555o0PP";
 
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build();
+    private final ThreadLocal<MessageDigest> digest = ThreadLocal.withInitial(JwtTokenFilter::sha256);
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+    private final TokenRevocationList tokenRevocationList;
+
+    public JwtTokenFilter(MeterRegistry meterRegistry,
+                          TokenRevocationList tokenRevocationList,
+                          @Value("${application.jwt-cache.max-size:10000}") long maxSize) {
+        this.tokenRevocationList = tokenRevocationList;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "user.jwt.authentications");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
                                                                     throws ServletException, IOException {
@@ -33,28 +76,77 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             token = header.substring(7);
         }
-        Claims claims = null;
         if (token != null){
-            try {
-                claims = Jwts.parser()
-                        .setSigningKey(getKey())
-                        .parseClaimsJws(token)
-                        .getBody();
-            }catch (Exception e){
-                log.error(WriteLog.logError("Error parsing JWT token: "));
-                throw new TokenException("Invalid JWT token: " + e.getMessage());
+            ByteBuffer key = ByteBuffer.wrap(digest.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            VerifiedToken verified = verifiedTokens.getIfPresent(key);
+            if (verified == null || verified.expiresAt() <= System.currentTimeMillis()) {
+                verified = this.verify(token);
+                verifiedTokens.put(key, verified);
             }
-            String username = claims.getSubject();
-            List<String> roles = claims.get("roles", List.class);
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    username, null,
-                    roles.stream().map(SimpleGrantedAuthority::new).toList());
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            if (tokenRevocationList.isRevoked(verified.jti(), verified.expiresAt())) {
+                log.error(WriteLog.logError("JWT token revoked"));
+                throw new TokenException("Invalid JWT token: token revoked");
+            }
+            SecurityContextHolder.getContext().setAuthentication(verified.authentication());
         }
         filterChain.doFilter(request, response);
     }
 
-    private Key getKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    /**
+     * Verifies the signature and the expiration of a token and builds its Authentication.
+     *
+     * @param token the JWT token
+     * @return the verified token
+     */
+    private VerifiedToken verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        }catch (Exception e){
+            log.error(WriteLog.logError("Error parsing JWT token: "));
+            throw new TokenException("Invalid JWT token: " + e.getMessage());
+        }
+        String username = claims.getSubject();
+        List<?> roles = claims.get("roles", List.class);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                username, null,
+                roles == null ? List.of()
+                        : roles.stream().map(role -> new SimpleGrantedAuthority(role.toString())).toList());
+        long expiresAt = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+        return new VerifiedToken(auth, claims.getId(), expiresAt);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Authentication authentication, String jti, long expiresAt) {
+    }
+
+    /**
+     * Expires every cached token at the expiration time of the token itself.
+     */
+    private static class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,103 @@
+package com.ch.userservice.configs.security.revocation;
+
+import com.ch.core.chcore.helpers.BloomFilter;
+import com.ch.core.chcore.logs.WriteLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set of JWT ids revoked before their expiration.
+ * Revocations are partitioned by the expiration window of the token. Each partition holds
+ * a Bloom filter and the exact set of ids, so the common "not revoked" answer costs a few
+ * hash probes in the partition of the token and a positive is confirmed against the exact set.
+ * A partition is dropped as a whole once every token it may contain has expired.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final long expectedPerWindow;
+    private final double fpp;
+    private final Counter bloomHits;
+    private final Counter falsePositives;
+
+    public TokenRevocationList(MeterRegistry meterRegistry,
+                               @Value("${application.token-revocation.window-minutes:15}") long windowMinutes,
+                               @Value("${application.token-revocation.expected-per-window:10000}") long expectedPerWindow,
+                               @Value("${application.token-revocation.fpp:0.01}") double fpp) {
+        this.windowMillis = windowMinutes * 60_000;
+        this.expectedPerWindow = expectedPerWindow;
+        this.fpp = fpp;
+        this.bloomHits = Counter.builder("user.jwt.revocation.bloom.hits")
+                .description("Revocation lookups that passed the Bloom filter")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("user.jwt.revocation.bloom.false.positives")
+                .description("Revocation lookups that passed the Bloom filter but were not revoked")
+                .register(meterRegistry);
+        Gauge.builder("user.jwt.revocation.partitions", partitions, Map::size)
+                .description("Revocation partitions held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a revoked token. Tokens already expired are ignored.
+     *
+     * @param jti the id of the token
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     */
+    public void revoke(String jti, long expiresAt) {
+        if (jti == null || expiresAt <= System.currentTimeMillis()) return;
+        Partition partition = partitions.computeIfAbsent(expiresAt / windowMillis,
+                window -> new Partition(new BloomFilter(expectedPerWindow, fpp), ConcurrentHashMap.newKeySet()));
+        partition.ids().add(jti);
+        partition.filter().put(jti);
+    }
+
+    /**
+     * Tells whether a token was revoked.
+     *
+     * @param jti the id of the token
+     * @param expiresAt the expiration time of the token in epoch milliseconds
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(String jti, long expiresAt) {
+        if (jti == null) return false;
+        Partition partition = partitions.get(expiresAt / windowMillis);
+        if (partition == null || !partition.filter().mightContain(jti)) {
+            return false;
+        }
+        bloomHits.increment();
+        if (partition.ids().contains(jti)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Drops the partitions whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${application.token-revocation.purge-ms:60000}")
+    public void purge() {
+        long currentWindow = System.currentTimeMillis() / windowMillis;
+        if (partitions.keySet().removeIf(window -> window < currentWindow)) {
+            log.info(WriteLog.logInfo("--> token revocation list - expired partitions dropped"));
+        }
+    }
+
+    private record Partition(BloomFilter filter, Set<String> ids) {
+    }
+}
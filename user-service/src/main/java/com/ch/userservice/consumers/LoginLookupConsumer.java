@@ -0,0 +1,79 @@
+package com.ch.userservice.consumers;
+
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.ch.userservice.services.contracts.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consumer for login lookup requests sent by the auth service.
+ * This class listens to the "loginLookupTopic" Kafka topic in batches, resolves every email
+ * of the batch with a single query and answers each request on the reply topic it names,
+ * echoing its correlation id. Unknown emails are answered with an empty value.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginLookupConsumer {
+    private final UserService userService;
+    private final KafkaTemplate<String, UserAuthResponse> kafkaUserTemplate;
+
+    /**
+     * Listens to the "loginLookupTopic" Kafka topic and replies with the user data.
+     *
+     * @param records the batch of lookup requests, each carrying an email as value
+     */
+    @KafkaListener(topics = "loginLookupTopic", groupId = "auth-login-group", batch = "true")
+    public void handleLoginLookups(List<ConsumerRecord<String, String>> records){
+        Set<String> emails = new HashSet<>();
+        for (ConsumerRecord<String, String> r : records) {
+            if (r.value() != null) emails.add(r.value());
+        }
+        Map<String, UserAuthResponse> users = userService.getAllDataUsers(emails)
+                .stream()
+                .collect(Collectors.toMap(u -> key(u.getEmail()), Function.identity(), (a, b) -> a));
+        for (ConsumerRecord<String, String> r : records) {
+            Header replyTopic = r.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+            Header correlation = r.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+            if (replyTopic == null || correlation == null) {
+                log.warn(WriteLog.logWarning("--> login lookup without reply headers, skipping"));
+                continue;
+            }
+            Header replyPartition = r.headers().lastHeader(KafkaHeaders.REPLY_PARTITION);
+            ProducerRecord<String, UserAuthResponse> reply = new ProducerRecord<>(
+                    new String(replyTopic.value(), StandardCharsets.UTF_8),
+                    replyPartition == null ? null : ByteBuffer.wrap(replyPartition.value()).getInt(),
+                    r.key(),
+                    r.value() == null ? null : users.get(key(r.value())));
+            reply.headers().add(new RecordHeader(KafkaHeaders.CORRELATION_ID, correlation.value()));
+            kafkaUserTemplate.send(reply);
+        }
+        log.info(WriteLog.logInfo("--> answered " + records.size() + " login lookups with one query"));
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
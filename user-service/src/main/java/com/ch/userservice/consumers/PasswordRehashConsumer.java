@@ -0,0 +1,31 @@
+package com.ch.userservice.consumers;
+
+import com.ch.core.chcore.events.PasswordRehashMsg;
+import com.ch.userservice.services.contracts.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for password rehash messages.
+ * This class listens to the "passwordRehashTopic" Kafka topic, where the auth service
+ * publishes password hashes upgraded to the current BCrypt cost after a successful login.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class PasswordRehashConsumer {
+    private final UserService userService;
+
+    /**
+     * Listens to the "passwordRehashTopic" Kafka topic and stores the new hash.
+     *
+     * @param msg the PasswordRehashMsg received from the Kafka topic
+     */
+    @KafkaListener(topics = "passwordRehashTopic", groupId = "user-rehash-group")
+    public void handlePasswordRehash(PasswordRehashMsg msg){
+        userService.rehashPassword(msg);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ch.userservice.consumers;
+
+import com.ch.core.chcore.events.TokenRevokedMsg;
+import com.ch.userservice.configs.security.revocation.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for token revocation messages.
+ * This class listens to the "tokenRevokedTopic" Kafka topic, where the auth service publishes
+ * the ids of revoked JWT tokens. Every instance uses its own consumer group and reads the topic
+ * from the beginning, so a new instance learns the revocations of tokens still alive.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevokedConsumer {
+    private final TokenRevocationList tokenRevocationList;
+
+    /**
+     * Listens to the "tokenRevokedTopic" Kafka topic and records the revoked token.
+     *
+     * @param msg the TokenRevokedMsg received from the Kafka topic
+     */
+    @KafkaListener(topics = "tokenRevokedTopic", groupId = "user-token-revoked-${random.uuid}",
+            properties = "auto.offset.reset=earliest")
+    public void handleTokenRevoked(TokenRevokedMsg msg){
+        tokenRevocationList.revoke(msg.getJti(), msg.getExpiresAt());
+    }
+}
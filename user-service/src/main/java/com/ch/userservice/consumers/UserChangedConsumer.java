@@ -0,0 +1,42 @@
+package com.ch.userservice.consumers;
+
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.userservice.cache.RegisteredEmailFilter;
+import com.ch.userservice.search.UserNameIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for user change messages.
+ * This class listens to the "userChangedTopic" Kafka topic and keeps the
+ * {@link RegisteredEmailFilter} and the {@link UserNameIndex} of this instance up to date with
+ * the users created and deleted through any instance. Every instance uses its own consumer
+ * group; users registered before it started are loaded by the filter and the index themselves.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangedConsumer {
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final UserNameIndex userNameIndex;
+
+    /**
+     * Listens to the "userChangedTopic" Kafka topic and records created and deleted users.
+     *
+     * @param msg the UserChangedMsg received from the Kafka topic
+     */
+    @KafkaListener(topics = "userChangedTopic", groupId = "user-email-filter-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void handleUserChanged(UserChangedMsg msg){
+        if (msg.getEmail() == null || msg.getType() == null) return;
+        userNameIndex.apply(msg);
+        switch (msg.getType()) {
+            case CREATED -> registeredEmailFilter.add(msg.getEmail());
+            case DELETED -> registeredEmailFilter.remove(msg.getEmail());
+            default -> { }
+        }
+    }
+}
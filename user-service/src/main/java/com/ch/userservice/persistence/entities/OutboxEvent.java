@@ -0,0 +1,41 @@
+package com.ch.userservice.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxEvent represents a message waiting to be published to the broker.
+ * It is written in the same transaction as the business change that produced it,
+ * so the message exists if and only if the change was committed.
+ * The payload is stored already serialized as JSON together with its type, and the
+ * event id travels with the message so that consumers can discard redeliveries.
+ * This entity is mapped to the "outbox_events" table in the database.
+ *
+ * @author caito
+ *
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "uk_outbox_events_event_id", columnList = "eventId", unique = true))
+@NoArgsConstructor@AllArgsConstructor
+@Getter@Setter@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, length = 36)
+    private String eventId;
+    @Column(nullable = false)
+    private String topic;
+    private String messageKey;
+    @Column(nullable = false)
+    private String payloadType;
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
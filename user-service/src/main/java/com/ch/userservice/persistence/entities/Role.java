@@ -3,6 +3,8 @@ package com.ch.userservice.persistence.entities;
 import com.ch.core.chcore.enums.RoleName;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 /**
@@ -13,6 +15,8 @@ import org.springframework.security.core.GrantedAuthority;
  *
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "roles")
 @NoArgsConstructor@AllArgsConstructor
 @Getter@Setter@Builder
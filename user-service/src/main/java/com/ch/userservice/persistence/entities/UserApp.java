@@ -2,6 +2,7 @@ package com.ch.userservice.persistence.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -17,19 +18,27 @@ import java.util.Set;
  * Implements UserDetails for Spring Security integration.
  * Includes fields for user information and account status.
  * Uses Lombok annotations for boilerplate code reduction.
+ * Roles are loaded lazily, in batches of up to ROLES_BATCH_SIZE users, or joined
+ * through an entity graph by the repository methods that need them.
+ * The sort properties of the keyset listing, name, email and createdAt, are not null,
+ * so seeking past the last row of a page never skips a user.
  *
  * @author caito
  *
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        indexes = @Index(name = "uk_users_email", columnList = "email", unique = true))
 @NoArgsConstructor@AllArgsConstructor
 @Getter@Setter@Builder
 public class UserApp implements UserDetails {
+    public static final int ROLES_BATCH_SIZE = 100;
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(nullable = false)
     private String name;
+    @Column(nullable = false)
     private String email;
     private String password;
     private String phone;
@@ -37,12 +46,14 @@ public class UserApp implements UserDetails {
     private boolean accountNonLocked;
     private boolean credentialsNonExpired;
     private boolean enabled;
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = ROLES_BATCH_SIZE)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles;
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     @UpdateTimestamp
     private LocalDateTime updatedAt;
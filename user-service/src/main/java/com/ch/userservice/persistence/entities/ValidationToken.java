@@ -15,13 +15,17 @@ import java.time.LocalDateTime;
  *
  */
 @Entity
-@Table(name = "vakidation_tokens")
+@Table(name = "vakidation_tokens", indexes = {
+        @Index(name = "uk_vakidation_tokens_token", columnList = "token", unique = true),
+        @Index(name = "idx_vakidation_tokens_expiry_date", columnList = "expiryDate")
+})
 @NoArgsConstructor@AllArgsConstructor
 @Getter@Setter@Builder
 public class ValidationToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(nullable = false, length = 36)
     private String token;
     private LocalDateTime expiryDate;
     private String email;
@@ -0,0 +1,16 @@
+package com.ch.userservice.persistence.projections;
+
+import com.ch.core.chcore.enums.RoleName;
+
+/**
+ * UserAuthRow is a read-only projection of the credentials of a user joined with one of its roles.
+ * A user with several roles yields one row per role, and a user without roles a single row with a
+ * null role. No entity is loaded or tracked by the persistence context to build it.
+ *
+ * @author caito
+ *
+ */
+public record UserAuthRow(Long id, String name, String email, String password, String phone,
+                          boolean accountNonExpired, boolean accountNonLocked,
+                          boolean credentialsNonExpired, boolean enabled, RoleName role) {
+}
@@ -0,0 +1,29 @@
+package com.ch.userservice.persistence.repositories;
+
+import com.ch.userservice.persistence.entities.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+/**
+ * OutboxEventRepository is a Spring Data JPA repository interface for managing
+ * OutboxEvent entities.
+ * Pending events are read oldest first and locked with SKIP LOCKED, so several
+ * instances can relay the outbox concurrently without sending the same event twice.
+ *
+ * @author caito
+ *
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> lockPending(Limit limit);
+}
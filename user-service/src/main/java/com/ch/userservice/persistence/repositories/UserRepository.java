@@ -1,10 +1,24 @@
 package com.ch.userservice.persistence.repositories;
 
 import com.ch.userservice.persistence.entities.UserApp;
+import com.ch.userservice.persistence.projections.UserAuthRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /*
  * Repository interface for UserApp entity.
@@ -14,7 +28,38 @@ import java.util.Optional;
  *
  */
 public interface UserRepository extends JpaRepository<UserApp, Long> {
+    String AUTH_ROWS = "select new com.ch.userservice.persistence.projections.UserAuthRow(u.id, u.name, u.email, "
+            + "u.password, u.phone, u.accountNonExpired, u.accountNonLocked, u.credentialsNonExpired, u.enabled, "
+            + "r.role) from UserApp u left join u.roles r";
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<UserApp> findById(Long id);
+    @EntityGraph(attributePaths = "roles")
     Optional<UserApp> findByEmail(String email);
     boolean existsByEmail(String email);
-    List<UserApp> findAllByNameContainingIgnoreCase(String name);
+    Window<UserApp> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from UserApp u order by u.id")
+    Stream<UserApp> streamAll();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from UserApp u")
+    Stream<String> streamAllEmails();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id, u.name, u.email from UserApp u")
+    Stream<Object[]> streamSearchDocuments();
+    @Query(AUTH_ROWS + " where u.email = :email")
+    List<UserAuthRow> findAuthRowsByEmail(@Param("email") String email);
+    @Query(AUTH_ROWS + " where u.email in :emails")
+    List<UserAuthRow> findAuthRowsByEmailIn(@Param("emails") Collection<String> emails);
+    @Query("select u.email from UserApp u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    @Query("select u.id, u.email from UserApp u where u.email in :emails")
+    List<Object[]> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+    @Modifying
+    @Query("update UserApp u set u.password = :password where u.email = :email and u.password = :previous")
+    int updatePasswordIfUnchanged(@Param("email") String email, @Param("previous") String previous,
+                                  @Param("password") String password);
 }
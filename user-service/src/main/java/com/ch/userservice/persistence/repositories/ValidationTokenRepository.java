@@ -1,18 +1,26 @@
 package com.ch.userservice.persistence.repositories;
 
 import com.ch.userservice.persistence.entities.ValidationToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * ValidationTokenRepository is a Spring Data JPA repository interface for managing
  * VakidationToken entities. It provides methods to perform CRUD operations and
  * custom queries related to validation tokens.
+ * Expired tokens are found through the index on the expiry date.
  *
  * @author caito
  *
  */
-public interface ValidationTokenRepository extends JpaRepository<ValidationToken, Integer> {
+public interface ValidationTokenRepository extends JpaRepository<ValidationToken, Long> {
     Optional<ValidationToken> findByToken(String token);
+    @Query("select t.id from ValidationToken t where t.expiryDate < :now order by t.expiryDate")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
 }
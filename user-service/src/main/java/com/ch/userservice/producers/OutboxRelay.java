@@ -0,0 +1,119 @@
+package com.ch.userservice.producers;
+
+import com.ch.core.chcore.events.EventHeaders;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.persistence.entities.OutboxEvent;
+import com.ch.userservice.persistence.repositories.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relay of the transactional outbox.
+ * Periodically locks a batch of pending OutboxEvent rows, sends them with an idempotent
+ * producer (acks=all), waits for the whole batch to be acknowledged and deletes the rows in
+ * the same transaction. If sending fails the transaction rolls back and the batch is retried
+ * on the next run, so delivery is at least once; the "eventId" header lets consumers
+ * discard the copies of a batch that was only partially acknowledged.
+ * The payload and the "__TypeId__" header are the same the JsonSerializer would produce,
+ * so consumers are unaffected.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long sendTimeoutMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ProducerFactory<String, String> producerFactory,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${application.outbox.batch-size:200}") int batchSize,
+                       @Value("${application.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                       @Value("${application.outbox.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory, Map.of(
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+                ProducerConfig.LINGER_MS_CONFIG, 5));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Relays pending events until the outbox is drained or the batch limit of the run is reached.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.poll-ms:500}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer sent = transactionTemplate.execute(status -> this.relayBatch());
+                if (sent == null || sent < batchSize) break;
+            }
+        } catch (RuntimeException e) {
+            log.error(WriteLog.logError("--> Error relaying outbox, retrying on next run: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Sends one batch of pending events and deletes them once acknowledged.
+     *
+     * @return the number of events sent
+     */
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockPending(Limit.of(batchSize));
+        if (batch.isEmpty()) return 0;
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            acks[i] = kafkaTemplate.send(this.toRecord(batch.get(i)));
+        }
+        try {
+            CompletableFuture.allOf(acks).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Broker did not acknowledge outbox batch", e);
+        }
+        outboxEventRepository.deleteAllInBatch(batch);
+        log.info(WriteLog.logInfo("--> Relayed " + batch.size() + " outbox events"));
+        return batch.size();
+    }
+
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(),
+                event.getPayload());
+        record.headers()
+                .add(EventHeaders.EVENT_ID, event.getEventId().getBytes(StandardCharsets.UTF_8))
+                .add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                        event.getPayloadType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
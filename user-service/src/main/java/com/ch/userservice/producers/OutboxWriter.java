@@ -0,0 +1,92 @@
+package com.ch.userservice.producers;
+
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.persistence.entities.OutboxEvent;
+import com.ch.userservice.persistence.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Writer of the transactional outbox.
+ * Messages are serialized the same way the Kafka JsonSerializer does and stored as
+ * OutboxEvent rows in the caller's transaction; the {@link OutboxRelay} publishes them
+ * after the commit. A message is therefore never sent for a rolled back change nor lost
+ * for a committed one, and the request does not wait for the broker.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+    private static final ObjectMapper MAPPER = JacksonUtils.enhancedObjectMapper();
+    private static final String INSERT_SQL = "insert into outbox_events "
+            + "(event_id, topic, message_key, payload_type, payload, created_at) values (?, ?, ?, ?, ?, ?)";
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores a message to be published to the given topic.
+     * Must be called inside the transaction of the change the message describes.
+     *
+     * @param topic the destination topic
+     * @param key the message key, or null
+     * @param payload the message payload
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .topic(topic)
+                .messageKey(key)
+                .payloadType(payload.getClass().getName())
+                .payload(this.serialize(topic, payload))
+                .build());
+    }
+
+    /**
+     * Stores several messages to be published to the given topic with a single JDBC batch.
+     * Must be called inside the transaction of the change the messages describe.
+     *
+     * @param topic the destination topic
+     * @param payloads the message payloads
+     * @param keyExtractor the function returning the key of every message
+     * @param <T> the type of the payloads
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void enqueueAll(String topic, List<T> payloads, Function<T, String> keyExtractor) {
+        if (payloads.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, payloads, payloads.size(), (ps, payload) -> {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setString(2, topic);
+            ps.setString(3, keyExtractor.apply(payload));
+            ps.setString(4, payload.getClass().getName());
+            ps.setString(5, this.serialize(topic, payload));
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    private String serialize(String topic, Object payload) {
+        try {
+            return MAPPER.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.error(WriteLog.logError("--> Error serializing outbox message for " + topic + ": " + e.getMessage()));
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
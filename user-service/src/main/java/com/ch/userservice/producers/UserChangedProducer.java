@@ -0,0 +1,42 @@
+package com.ch.userservice.producers;
+
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.core.chcore.logs.WriteLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Producer for user change messages.
+ * This class publishes UserChangedMsg events to the "userChangedTopic" Kafka topic
+ * once the transaction that changed the user has been committed, so that consumers
+ * never reload a user before the change is visible.
+ *
+ * @author caito
+ *
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangedProducer {
+    public static final String TOPIC = "userChangedTopic";
+    private final KafkaTemplate<String, UserChangedMsg> kafkaTemplate;
+
+    /**
+     * Sends the UserChangedMsg to the broker after commit, or immediately
+     * when it was published outside a transaction.
+     *
+     * @param msg the change to publish
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(UserChangedMsg msg) {
+        kafkaTemplate.send(TOPIC, msg.getEmail(), msg)
+                .whenComplete((r, t) -> {
+                    if (t != null) {
+                        log.error(WriteLog.logError("--> Error sending user change to broker: " + t.getMessage()));
+                    }
+                });
+    }
+}
@@ -0,0 +1,383 @@
+package com.ch.userservice.search;
+
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.api.models.responses.UserSearchHit;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process index of the user names.
+ * Names are normalized (accents removed, lower-cased, blanks collapsed) and indexed three ways:
+ * sorted by name, sorted by every suffix starting at a word, and by trigram postings. A search
+ * walks them in rank order, so results come out already ranked without scoring every candidate:
+ * names starting with the query (the exact name first), then names with a later word starting
+ * with it, then, for queries of three or more characters, names containing it anywhere.
+ * Within each rank users are sorted by name. Matches are counted up to a configurable maximum,
+ * which bounds the work of broad queries; results beyond it are not returned.
+ * The index is built when the application is ready by streaming the user table and then kept up
+ * to date from the user changes, both the local ones after commit and the ones of every instance
+ * received from the broker. Reads never lock; writes are serialized.
+ *
+ * @author caito
+ *
+ */
+@Component
+@Slf4j
+public class UserNameIndex {
+    public static final int MIN_QUERY_LENGTH = 2;
+    private static final int GRAM = 3;
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern BLANKS = Pattern.compile("\\s+");
+    private static final Comparator<Document> BY_NAME =
+            Comparator.comparing(Document::normalized).thenComparing(Document::id);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxMatches;
+    private volatile Index index = new Index();
+    private Index building;
+    private Set<Long> removedWhileBuilding;
+
+    public UserNameIndex(UserRepository userRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.users.search-max-matches:1000}") int maxMatches) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxMatches = maxMatches;
+        Gauge.builder("user.search.index.size", this, i -> i.index.documents.size())
+                .description("Users held in the name search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Searches the users whose name matches the query.
+     *
+     * @param query the text to look for, at least {@link #MIN_QUERY_LENGTH} characters
+     * @param offset the number of ranked results to skip
+     * @param limit the maximum number of results to return
+     * @return the requested slice of the ranked results and the number of matches, up to the maximum
+     */
+    public Result search(String query, int offset, int limit) {
+        String q = normalize(query);
+        Collector collector = new Collector(offset, limit, maxMatches);
+        if (q.length() < MIN_QUERY_LENGTH) {
+            return collector.result();
+        }
+        Index current = index;
+        String to = q + Character.MAX_VALUE;
+
+        for (Document document : current.names.subMap(q, to).values()) {
+            if (!collector.accept(document)) return collector.result();
+        }
+        Set<Long> seen = new HashSet<>();
+        for (Document document : current.words.subMap(q, to).values()) {
+            if (document.normalized().startsWith(q) || !seen.add(document.id())) continue;
+            if (!collector.accept(document)) return collector.result();
+        }
+        if (q.length() > MIN_QUERY_LENGTH) {
+            List<Document> infix = current.infixMatches(q, collector.remaining());
+            List<Document> first = first(infix, collector.wanted());
+            first.forEach(collector::accept);
+            collector.skip(infix.size() - first.size());
+        }
+        return collector.result();
+    }
+
+    /**
+     * Adds a user or replaces its indexed name and email.
+     *
+     * @param id the id of the user
+     * @param name the name of the user
+     * @param email the email of the user
+     */
+    public synchronized void upsert(Long id, String name, String email) {
+        if (id == null || name == null) return;
+        Document document = new Document(id, name, email, normalize(name));
+        index.put(document);
+        if (building != null) {
+            building.put(document);
+            removedWhileBuilding.remove(id);
+        }
+    }
+
+    /**
+     * Removes a user from the index.
+     *
+     * @param id the id of the user
+     */
+    public synchronized void remove(Long id) {
+        if (id == null) return;
+        index.remove(id);
+        if (building != null) {
+            building.remove(id);
+            removedWhileBuilding.add(id);
+        }
+    }
+
+    /**
+     * Applies a user change committed by this instance.
+     *
+     * @param msg the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedMsg msg) {
+        this.apply(msg);
+    }
+
+    /**
+     * Applies a user change: created users are indexed and deleted ones removed.
+     *
+     * @param msg the change
+     */
+    public void apply(UserChangedMsg msg) {
+        if (msg.getType() == null) return;
+        switch (msg.getType()) {
+            case CREATED -> this.upsert(msg.getId(), msg.getName(), msg.getEmail());
+            case DELETED -> this.remove(msg.getId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Builds the index from the user table and swaps it in.
+     * Changes applied while the table is streamed are applied to the new index as well.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        Index next = new Index();
+        synchronized (this) {
+            building = next;
+            removedWhileBuilding = new HashSet<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> users = userRepository.streamSearchDocuments()) {
+                    users.forEach(row -> {
+                        Document document = new Document((Long) row[0], (String) row[1], (String) row[2],
+                                normalize((String) row[1]));
+                        synchronized (this) {
+                            if (!removedWhileBuilding.contains(document.id())
+                                    && !next.documents.containsKey(document.id())) {
+                                next.put(document);
+                            }
+                        }
+                    });
+                }
+            });
+            synchronized (this) {
+                index = next;
+            }
+            log.info(WriteLog.logInfo("--> User name index built with " + next.documents.size() + " users"));
+        } catch (RuntimeException e) {
+            log.error(WriteLog.logError("--> Error building user name index: " + e.getMessage()));
+        } finally {
+            synchronized (this) {
+                building = null;
+                removedWhileBuilding = null;
+            }
+        }
+    }
+
+    /**
+     * Selects the first documents by name without sorting all of them.
+     *
+     * @param documents the documents
+     * @param count the number of documents to select
+     * @return the selected documents, sorted by name
+     */
+    private static List<Document> first(List<Document> documents, int count) {
+        if (count <= 0) return new ArrayList<>();
+        if (count >= documents.size()) {
+            List<Document> all = new ArrayList<>(documents);
+            all.sort(BY_NAME);
+            return all;
+        }
+        PriorityQueue<Document> heap = new PriorityQueue<>(count + 1, BY_NAME.reversed());
+        for (Document document : documents) {
+            heap.add(document);
+            if (heap.size() > count) heap.poll();
+        }
+        List<Document> selected = new ArrayList<>(heap);
+        selected.sort(BY_NAME);
+        return selected;
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return BLANKS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String key(String text, Long id) {
+        return text + KEY_SEPARATOR + id;
+    }
+
+    public record Result(int total, boolean hasNext, List<UserSearchHit> hits) {
+    }
+
+    private record Document(Long id, String name, String email, String normalized) {
+    }
+
+    /**
+     * Collects the slice of the ranked matches requested and counts them up to the maximum.
+     */
+    private static final class Collector {
+        private final int offset;
+        private final int end;
+        private final int max;
+        private final List<UserSearchHit> hits = new ArrayList<>();
+        private int matched;
+
+        private Collector(int offset, int limit, int max) {
+            this.offset = offset;
+            this.end = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            this.max = max;
+        }
+
+        /**
+         * @return false once the maximum number of matches is reached
+         */
+        private boolean accept(Document document) {
+            if (matched >= offset && matched < end) {
+                hits.add(UserSearchHit.builder()
+                        .id(document.id())
+                        .name(document.name())
+                        .email(document.email())
+                        .build());
+            }
+            return ++matched < max;
+        }
+
+        private void skip(int count) {
+            matched += count;
+        }
+
+        private int remaining() {
+            return max - matched;
+        }
+
+        private int wanted() {
+            return end - matched;
+        }
+
+        private Result result() {
+            return new Result(matched, matched > end, hits);
+        }
+    }
+
+    /**
+     * The documents, sorted by name and by word suffix, and the trigram postings.
+     * Every structure is concurrent, so searches can run while a write is in progress.
+     */
+    private static final class Index {
+        private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Document> names = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Document> words = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        private void put(Document document) {
+            Document previous = documents.put(document.id(), document);
+            if (previous != null) {
+                this.unlink(previous);
+            }
+            names.put(key(document.normalized(), document.id()), document);
+            for (String suffix : wordSuffixes(document.normalized())) {
+                words.put(key(suffix, document.id()), document);
+            }
+            for (String gram : trigrams(document.normalized())) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(document.id());
+            }
+        }
+
+        private void remove(Long id) {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                this.unlink(previous);
+            }
+        }
+
+        private void unlink(Document document) {
+            names.remove(key(document.normalized(), document.id()));
+            for (String suffix : wordSuffixes(document.normalized())) {
+                words.remove(key(suffix, document.id()));
+            }
+            for (String gram : trigrams(document.normalized())) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(document.id());
+                    if (ids.isEmpty()) postings.remove(gram, ids);
+                }
+            }
+        }
+
+        /**
+         * Finds names containing the query neither at their start nor at the start of a word,
+         * intersecting the postings of its trigrams, smallest first.
+         *
+         * @param q the normalized query, at least three characters
+         * @param max the maximum number of matches to return
+         * @return the matches, unsorted
+         */
+        private List<Document> infixMatches(String q, int max) {
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : trigrams(q)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) return new ArrayList<>();
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            List<Document> matches = new ArrayList<>();
+            String wordStart = " " + q;
+            candidates:
+            for (Long id : lists.get(0)) {
+                for (int i = 1; i < lists.size(); i++) {
+                    if (!lists.get(i).contains(id)) continue candidates;
+                }
+                Document document = documents.get(id);
+                if (document == null) continue;
+                String name = document.normalized();
+                if (name.contains(q) && !name.startsWith(q) && !name.contains(wordStart)) {
+                    matches.add(document);
+                    if (matches.size() >= max) break;
+                }
+            }
+            return matches;
+        }
+
+        private static List<String> wordSuffixes(String normalized) {
+            List<String> suffixes = new ArrayList<>();
+            for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                suffixes.add(normalized.substring(i + 1));
+            }
+            return suffixes;
+        }
+    }
+}
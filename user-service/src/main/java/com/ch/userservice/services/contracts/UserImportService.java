@@ -0,0 +1,17 @@
+package com.ch.userservice.services.contracts;
+
+import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserImportResponse;
+
+import java.util.Iterator;
+
+/**
+ * UserImportService interface defines the contract for importing users in bulk.
+ *
+ * @author caito
+ *
+ */
+public interface UserImportService {
+
+    UserImportResponse importUsers(Iterator<UserRequest> rows);
+}
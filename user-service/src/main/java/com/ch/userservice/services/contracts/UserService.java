@@ -1,12 +1,17 @@
 package com.ch.userservice.services.contracts;
 
+import com.ch.core.chcore.events.PasswordRehashMsg;
 import com.ch.core.chcore.models.LoginRequest;
 import com.ch.core.chcore.models.UserAuthResponse;
 import com.ch.userservice.api.models.requests.EnableUser;
 import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserPageResponse;
 import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.userservice.api.models.responses.UserSearchResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * UserService interface defines the contract for user-related operations.
@@ -19,10 +24,14 @@ import java.util.List;
 public interface UserService {
 
     void createUser(UserRequest request);
-    List<UserResponse> getAllUsers();
+    UserPageResponse getUsers(int size, String sort, String direction, String cursor);
+    void streamUsers(Consumer<UserResponse> consumer);
+    UserSearchResponse searchUsers(String query, int page, int size);
     UserResponse getUserById(Long id);
     void enableUser(EnableUser request);
     UserResponse setAdmin(String email);
     UserAuthResponse getAllDataUser(String email);
+    List<UserAuthResponse> getAllDataUsers(Collection<String> emails);
     void deleteUser(Long id);
+    void rehashPassword(PasswordRehashMsg msg);
 }
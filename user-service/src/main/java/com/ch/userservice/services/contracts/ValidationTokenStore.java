@@ -0,0 +1,24 @@
+package com.ch.userservice.services.contracts;
+
+import com.ch.userservice.persistence.entities.ValidationToken;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ValidationTokenStore interface defining the persistence of the email validation tokens.
+ * The default implementation stores the tokens in the database; an in-memory one can be
+ * selected by setting "application.validation-token.store" to "memory".
+ * In every implementation, changes made inside a transaction take effect when it commits
+ * and are discarded when it rolls back. Expired tokens are purged in the background.
+ *
+ * @author caito
+ *
+ */
+public interface ValidationTokenStore {
+
+    void save(ValidationToken token);
+    void saveAll(List<ValidationToken> tokens);
+    Optional<ValidationToken> find(String token);
+    void delete(ValidationToken token);
+}
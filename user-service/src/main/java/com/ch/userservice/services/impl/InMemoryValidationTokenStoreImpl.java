@@ -0,0 +1,114 @@
+package com.ch.userservice.services.impl;
+
+import com.ch.core.chcore.helpers.HashedWheelExpiry;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.persistence.entities.ValidationToken;
+import com.ch.userservice.services.contracts.ValidationTokenStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory ValidationTokenStore.
+ * Tokens live in a concurrent map and are scheduled on a hashed timing wheel that
+ * drops them once expired, so purging only visits the tokens that actually expired.
+ * Saves and deletes made inside a transaction are applied once it commits, so they are
+ * dropped with a rolled back registration or validation like the rows of the database store;
+ * until then the transaction itself does not see them either.
+ * Tokens are lost on restart and are not shared between instances, so this store
+ * only fits single-instance deployments; the database store stays the default.
+ *
+ * @author caito
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "application.validation-token.store", havingValue = "memory")
+@Slf4j
+public class InMemoryValidationTokenStoreImpl implements ValidationTokenStore {
+    private final Map<String, ValidationToken> tokens = new ConcurrentHashMap<>();
+    private final HashedWheelExpiry<String> expiry;
+
+    public InMemoryValidationTokenStoreImpl(MeterRegistry meterRegistry,
+                                            @Value("${application.validation-token.tick-ms:60000}") long tickMs,
+                                            @Value("${application.validation-token.wheel-size:2048}") int wheelSize) {
+        this.expiry = new HashedWheelExpiry<>(tickMs, wheelSize);
+        Gauge.builder("user.validation.tokens", tokens, Map::size)
+                .description("Validation tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(ValidationToken token) {
+        this.afterCommit(() -> this.put(token));
+    }
+
+    @Override
+    public void saveAll(List<ValidationToken> tokens) {
+        this.afterCommit(() -> tokens.forEach(this::put));
+    }
+
+    @Override
+    public Optional<ValidationToken> find(String token) {
+        return Optional.ofNullable(tokens.get(token));
+    }
+
+    @Override
+    public void delete(ValidationToken token) {
+        this.afterCommit(() -> {
+            ValidationToken removed = tokens.remove(token.getToken());
+            if (removed != null) {
+                expiry.cancel(removed.getToken(), this.expiresAt(removed));
+            }
+        });
+    }
+
+    /**
+     * Advances the expiry wheel and drops the expired tokens.
+     */
+    @Scheduled(fixedDelayString = "${application.validation-token.tick-ms:60000}")
+    public void purge() {
+        int expired = expiry.advance(System.currentTimeMillis(), tokens::remove);
+        if (expired > 0) {
+            log.info(WriteLog.logInfo("--> validation token store - expired " + expired + " tokens"));
+        }
+    }
+
+    private void put(ValidationToken token) {
+        tokens.put(token.getToken(), token);
+        expiry.schedule(token.getToken(), this.expiresAt(token));
+    }
+
+    /**
+     * Runs a change once the current transaction commits, or right away outside a transaction.
+     *
+     * @param change the change to the store
+     */
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private long expiresAt(ValidationToken token) {
+        return token.getExpiryDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ch.userservice.services.impl;
+
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.persistence.entities.ValidationToken;
+import com.ch.userservice.persistence.repositories.ValidationTokenRepository;
+import com.ch.userservice.services.contracts.ValidationTokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Database ValidationTokenStore.
+ * Tokens are looked up through the unique index on the token column, inserted in bulk
+ * with a single JDBC batch, and purged once expired in bounded batches, each one in its
+ * own short transaction, so the purge never holds locks on the whole table.
+ *
+ * @author caito
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "application.validation-token.store", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class JpaValidationTokenStoreImpl implements ValidationTokenStore {
+    private static final String INSERT_SQL = "insert into vakidation_tokens (token, expiry_date, email) "
+            + "values (?, ?, ?)";
+    private final ValidationTokenRepository validationTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int purgeBatchSize;
+    private final int maxPurgeBatches;
+
+    public JpaValidationTokenStoreImpl(ValidationTokenRepository validationTokenRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${application.validation-token.purge-batch-size:1000}") int purgeBatchSize,
+                                       @Value("${application.validation-token.max-purge-batches:100}") int maxPurgeBatches) {
+        this.validationTokenRepository = validationTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgeBatchSize = purgeBatchSize;
+        this.maxPurgeBatches = maxPurgeBatches;
+    }
+
+    @Override
+    public void save(ValidationToken token) {
+        validationTokenRepository.save(token);
+    }
+
+    @Override
+    public void saveAll(List<ValidationToken> tokens) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, tokens, tokens.size(), (ps, token) -> {
+            ps.setString(1, token.getToken());
+            ps.setTimestamp(2, Timestamp.valueOf(token.getExpiryDate()));
+            ps.setString(3, token.getEmail());
+        });
+    }
+
+    @Override
+    public Optional<ValidationToken> find(String token) {
+        return validationTokenRepository.findByToken(token);
+    }
+
+    @Override
+    public void delete(ValidationToken token) {
+        validationTokenRepository.delete(token);
+    }
+
+    /**
+     * Deletes the expired tokens, a bounded batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${application.validation-token.purge-ms:60000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        for (int i = 0; i < maxPurgeBatches; i++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = validationTokenRepository.findExpiredIds(now, Limit.of(purgeBatchSize));
+                if (!ids.isEmpty()) {
+                    validationTokenRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            purged += deleted == null ? 0 : deleted;
+            if (deleted == null || deleted < purgeBatchSize) break;
+        }
+        if (purged > 0) {
+            log.info(WriteLog.logInfo("--> validation token store - purged " + purged + " expired tokens"));
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.ch.userservice.services.impl;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.enums.UserChangeType;
+import com.ch.core.chcore.events.HighMsg;
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.core.chcore.exceptions.NotFoundException;
+import com.ch.core.chcore.logs.WriteLog;
+import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserImportError;
+import com.ch.userservice.api.models.responses.UserImportResponse;
+import com.ch.userservice.cache.RegisteredEmailFilter;
+import com.ch.userservice.cache.RoleCache;
+import com.ch.userservice.persistence.entities.ValidationToken;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import com.ch.userservice.producers.OutboxWriter;
+import com.ch.userservice.producers.UserChangedProducer;
+import com.ch.userservice.services.contracts.UserImportService;
+import com.ch.userservice.services.contracts.ValidationTokenStore;
+import com.ch.userservice.utils.validators.UserRequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * UserImportServiceImpl class implements the UserImportService interface.
+ * Rows are read lazily and processed in chunks: the rows of a chunk are validated in
+ * parallel, the uniqueness of their emails is checked with a single query, and the valid
+ * ones are inserted together with their role, their validation token and their HighMsg
+ * outbox event in batches, in one transaction per chunk. A chunk rejected by an email
+ * registered concurrently is retried row by row, so only the rows taking such an email fail.
+ * The outbox relay then publishes the events in producer batches.
+ * Rejected rows never stop the import; they are reported with their errors.
+ *
+ * @author caito
+ *
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+    private static final String INSERT_USER_SQL = "insert into users (name, email, phone, account_non_expired, "
+            + "account_non_locked, credentials_non_expired, enabled, created_at, updated_at) "
+            + "values (?, ?, ?, false, false, false, false, ?, ?)";
+    private static final String INSERT_ROLE_SQL = "insert into users_roles (user_id, role_id) values (?, ?)";
+    private final UserRepository userRepository;
+    private final RoleCache roleCache;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final OutboxWriter outboxWriter;
+    private final ValidationTokenStore validationTokenStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 RoleCache roleCache,
+                                 RegisteredEmailFilter registeredEmailFilter,
+                                 OutboxWriter outboxWriter,
+                                 ValidationTokenStore validationTokenStore,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${application.users.import-chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.roleCache = roleCache;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.outboxWriter = outboxWriter;
+        this.validationTokenStore = validationTokenStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports every row of the iterator.
+     * Rows that cannot be parsed, fail validation or use an email that already exists,
+     * in the database or earlier in the import, are rejected.
+     *
+     * @param rows the rows to import
+     * @return the number of imported and rejected rows and the errors of the rejected ones
+     */
+    @Override
+    public UserImportResponse importUsers(Iterator<UserRequest> rows) {
+        log.info(WriteLog.logInfo("--> Importing users"));
+        Long roleId = roleCache.get(RoleName.ROLE_USER)
+                .orElseThrow(() -> new NotFoundException("User role not found"))
+                .getId();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportError> errors = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int received = 0;
+        int imported = 0;
+        while (true) {
+            UserRequest request;
+            try {
+                if (!rows.hasNext()) break;
+            } catch (RuntimeException e) {
+                errors.add(this.error(++received, null, List.of("Malformed content, import stopped")));
+                break;
+            }
+            try {
+                request = rows.next();
+            } catch (RuntimeException e) {
+                errors.add(this.error(++received, null, List.of("Malformed row")));
+                continue;
+            }
+            chunk.add(new Row(++received, request));
+            if (chunk.size() == chunkSize) {
+                imported += this.importChunk(chunk, roleId, seenEmails, errors);
+                chunk.clear();
+            }
+        }
+        imported += this.importChunk(chunk, roleId, seenEmails, errors);
+        log.info(WriteLog.logInfo("--> Imported " + imported + " of " + received + " users"));
+        return UserImportResponse.builder()
+                .received(received)
+                .imported(imported)
+                .failed(received - imported)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * Validates and inserts a chunk of rows.
+     *
+     * @param chunk the rows of the chunk
+     * @param roleId the id of the role given to the imported users
+     * @param seenEmails the lower-cased emails already imported, updated with the ones of the chunk
+     * @param errors the errors of the rejected rows, updated with the ones of the chunk
+     * @return the number of imported rows
+     */
+    private int importChunk(List<Row> chunk, Long roleId, Set<String> seenEmails, List<UserImportError> errors) {
+        if (chunk.isEmpty()) return 0;
+        List<List<String>> validation = chunk.parallelStream()
+                .map(row -> UserRequestValidator.validate(row.request()))
+                .toList();
+
+        List<UserRequest> candidates = new ArrayList<>(chunk.size());
+        List<Row> candidateRows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            List<String> rowErrors = validation.get(i);
+            if (rowErrors.isEmpty() && !seenEmails.add(row.request().getEmail().toLowerCase(Locale.ROOT))) {
+                rowErrors = List.of("Email duplicated in import");
+            }
+            if (rowErrors.isEmpty()) {
+                candidates.add(row.request());
+                candidateRows.add(row);
+            } else {
+                errors.add(this.error(row.number(),
+                        row.request() == null ? null : row.request().getEmail(), rowErrors));
+            }
+        }
+        if (candidates.isEmpty()) return 0;
+
+        Set<String> existing = new HashSet<>();
+        userRepository.findExistingEmails(candidates.stream().map(UserRequest::getEmail).toList())
+                .forEach(email -> existing.add(email.toLowerCase(Locale.ROOT)));
+        List<UserRequest> users = new ArrayList<>(candidates.size());
+        List<Row> userRows = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            UserRequest request = candidates.get(i);
+            if (existing.contains(request.getEmail().toLowerCase(Locale.ROOT))) {
+                errors.add(this.error(candidateRows.get(i).number(), request.getEmail(),
+                        List.of("Email already exists")));
+            } else {
+                users.add(request);
+                userRows.add(candidateRows.get(i));
+            }
+        }
+        if (users.isEmpty()) return 0;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> this.insert(users, roleId));
+        } catch (DataIntegrityViolationException e) {
+            log.warn(WriteLog.logWarning("--> Import chunk rejected by a concurrent registration, "
+                    + "importing its rows one by one: " + e.getMessage()));
+            return this.importOneByOne(userRows, roleId, errors);
+        }
+        return users.size();
+    }
+
+    /**
+     * Inserts the rows of a chunk one by one, each in its own transaction, after the chunk was
+     * rejected by an email registered since its uniqueness check. Only the rows whose email was
+     * taken meanwhile are rejected.
+     *
+     * @param rows the rows to insert
+     * @param roleId the id of the role given to the imported users
+     * @param errors the errors of the rejected rows, updated with the ones of the rows
+     * @return the number of imported rows
+     */
+    private int importOneByOne(List<Row> rows, Long roleId, List<UserImportError> errors) {
+        int imported = 0;
+        for (Row row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> this.insert(List.of(row.request()), roleId));
+                imported++;
+            } catch (DataIntegrityViolationException e) {
+                errors.add(this.error(row.number(), row.request().getEmail(), List.of("Email already exists")));
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Inserts the users, their role, their validation token and their outbox event by JDBC batches.
+     *
+     * @param users the users to insert
+     * @param roleId the id of the role given to the users
+     */
+    private void insert(List<UserRequest> users, Long roleId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPhone());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+        Map<String, Long> ids = new HashMap<>();
+        userRepository.findIdsByEmailIn(users.stream().map(UserRequest::getEmail).toList())
+                .forEach(row -> ids.put(((String) row[1]).toLowerCase(Locale.ROOT), (Long) row[0]));
+        jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, ids.values(), ids.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setLong(2, roleId);
+        });
+
+        LocalDateTime expiry = LocalDateTime.now().plusDays(1);
+        List<HighMsg> messages = users.stream()
+                .map(user -> HighMsg.builder()
+                        .email(user.getEmail())
+                        .username(user.getName())
+                        .validationToken(UUID.randomUUID().toString())
+                        .build())
+                .toList();
+        validationTokenStore.saveAll(messages.stream()
+                .map(msg -> ValidationToken.builder()
+                        .token(msg.getValidationToken())
+                        .expiryDate(expiry)
+                        .email(msg.getEmail())
+                        .build())
+                .toList());
+        outboxWriter.enqueueAll(UserServiceImpl.HIGH_TOPIC, messages, HighMsg::getEmail);
+        outboxWriter.enqueueAll(UserChangedProducer.TOPIC, users.stream()
+                .map(user -> UserChangedMsg.builder()
+                        .id(ids.get(user.getEmail().toLowerCase(Locale.ROOT)))
+                        .email(user.getEmail())
+                        .name(user.getName())
+                        .type(UserChangeType.CREATED)
+                        .build())
+                .toList(), UserChangedMsg::getEmail);
+        users.forEach(user -> registeredEmailFilter.add(user.getEmail()));
+    }
+
+    private UserImportError error(int row, String email, List<String> errors) {
+        return UserImportError.builder()
+                .row(row)
+                .email(email)
+                .errors(errors)
+                .build();
+    }
+
+    private record Row(int number, UserRequest request) {
+    }
+}
@@ -1,41 +1,59 @@
 package com.ch.userservice.services.impl;
 
 import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.enums.UserChangeType;
 import com.ch.core.chcore.events.HighMsg;
+import com.ch.core.chcore.events.PasswordRehashMsg;
+import com.ch.core.chcore.events.UserChangedMsg;
 import com.ch.core.chcore.exceptions.BadRequestException;
 import com.ch.core.chcore.exceptions.NotFoundException;
 import com.ch.core.chcore.helpers.ValidationHelper;
 import com.ch.core.chcore.logs.WriteLog;
 import com.ch.core.chcore.models.LoginRequest;
 import com.ch.core.chcore.models.UserAuthResponse;
+import com.ch.core.chcore.pagination.KeysetCursor;
 import com.ch.userservice.api.models.requests.EnableUser;
 import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserPageResponse;
 import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.userservice.api.models.responses.UserSearchResponse;
+import com.ch.userservice.cache.RegisteredEmailFilter;
+import com.ch.userservice.cache.RoleCache;
 import com.ch.userservice.persistence.entities.Role;
+import com.ch.userservice.persistence.entities.UserApp;
 import com.ch.userservice.persistence.entities.ValidationToken;
-import com.ch.userservice.persistence.repositories.RoleRepository;
 import com.ch.userservice.persistence.repositories.UserRepository;
-import com.ch.userservice.persistence.repositories.ValidationTokenRepository;
+import com.ch.userservice.producers.OutboxWriter;
+import com.ch.userservice.search.UserNameIndex;
 import com.ch.userservice.services.contracts.UserService;
-import com.ch.userservice.utils.mappers.RoleMapper;
+import com.ch.userservice.services.contracts.ValidationTokenStore;
 import com.ch.userservice.utils.mappers.UserMapper;
+import com.ch.userservice.utils.validators.UserRequestValidator;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * UserServiceImpl class implements the UserService interface.
  * It provides methods for creating users and retrieving all users.
  * It includes user validation and password encoding.
+ * Messages for the notification service are written to the transactional outbox,
+ * so they are published only if, and as soon as, the change is committed.
  *
  * @author caito
  *
@@ -44,13 +62,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
+    static final String HIGH_TOPIC = "highTopic";
+    private static final String ENABLE_USER_TOPIC = "enableUserTopic";
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "name", "email", "createdAt");
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleCache roleCache;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final UserNameIndex userNameIndex;
     private  final PasswordEncoder passwordEncoder;
-    private final KafkaTemplate<String, HighMsg> kafkaTemplate;
-    private final KafkaTemplate<String, String> kafkaStringTemplate;
-    private final KafkaTemplate<String, UserAuthResponse> kafkaUserTemplate;
-    private final ValidationTokenRepository validationTokenRepository;
+    private final OutboxWriter outboxWriter;
+    private final ValidationTokenStore validationTokenStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    @Value("${application.users.max-page-size:500}")
+    private int maxPageSize;
 
     /**
      * Creates a new user based on the provided UserRequest.
@@ -68,48 +93,132 @@ public class UserServiceImpl implements UserService {
         Set<Role> roles = new HashSet<>();
 
         log.info(WriteLog.logInfo("--> User role is USER, assigning user role"));
-        Role userRole = roleRepository.findByRole(RoleName.ROLE_USER)
+        Role userRole = roleCache.get(RoleName.ROLE_USER)
                     .orElseThrow(() -> new NotFoundException("User role not found"));
             roles.add(userRole);
 
         user.setRoles(roles);
-        userRepository.save(user);
-        log.info(WriteLog.logInfo("--> send message to broker"));
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            log.error(WriteLog.logError("--> Email already exists: " + request.getEmail()));
+            throw new BadRequestException(List.of("Email already exists"));
+        }
+        registeredEmailFilter.add(user.getEmail());
+        this.publishUserChange(user, UserChangeType.CREATED);
         ValidationToken token = generateValidationToken(user.getEmail());
-        CompletableFuture<SendResult<String, HighMsg>> future = kafkaTemplate.send(
-                "highTopic",
+        validationTokenStore.save(token);
+        log.info(WriteLog.logInfo("--> enqueue message to broker"));
+        outboxWriter.enqueue(HIGH_TOPIC, user.getEmail(),
                 HighMsg.builder()
                         .email(user.getEmail())
                         .username(user.getName())
                         .validationToken(token.getToken())
-                        .build()
-        );
-        future.whenCompleteAsync((r,t) ->{
-            if (t != null) {
-                log.error(WriteLog.logError("--> Error sending message to broker: " + t.getMessage()));
-                throw new RuntimeException("Error sending message to broker", t);
-            } else {
-                validationTokenRepository.save(token);
-                log.info(WriteLog.logInfo("--> Message sent to broker successfully"));
-            }
-        });
-
+                        .build());
     }
 
     /**
-     * Retrieves all users from the repository.
-     * Maps each UserApp entity to a UserResponse DTO.
+     * Retrieves a page of users using keyset pagination.
+     * The first page is requested without cursor; every following page is requested with the
+     * cursor of the previous one, which also fixes the sort of the listing. Ties on the sort
+     * property are broken by id, so pages never overlap nor skip users.
      *
-     * @return a list of UserResponse DTOs
+     * @param size the maximum number of users of the page
+     * @param sort the sort property: id, name, email or createdAt
+     * @param direction the sort direction: asc or desc
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @return the page of users and the cursor of the next page
      */
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        log.info(WriteLog.logInfo("--> Retrieving all users"));
-        return userRepository.findAll()
-                .stream()
+    public UserPageResponse getUsers(int size, String sort, String direction, String cursor) {
+        log.info(WriteLog.logInfo("--> Retrieving users page"));
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        KeysetCursor position = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        String property = position != null ? position.property() : sort;
+        Sort.Direction sortDirection = position != null ? position.direction() : this.sortDirection(direction);
+        if (!SORT_PROPERTIES.contains(property)) {
+            log.error(WriteLog.logError("--> Invalid sort property " + property));
+            throw new BadRequestException(List.of("Invalid sort property: " + property));
+        }
+
+        Sort order = "id".equals(property)
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, property, "id");
+        Window<UserApp> window = userRepository.findAllBy(this.scrollPosition(position), order, Limit.of(limit));
+        List<UserResponse> content = window.getContent().stream()
                 .map(UserMapper::mapToDto)
                 .toList();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            UserApp last = window.getContent().get(window.size() - 1);
+            nextCursor = new KeysetCursor(property, sortDirection, last.getId(), this.sortValue(last, property)).encode();
+        }
+        return UserPageResponse.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
+    }
+
+    /**
+     * Streams every user, ordered by id, through a forward-only cursor.
+     * Users are mapped in chunks so that the roles of a whole chunk are loaded by a single
+     * batch query, and each chunk is detached once mapped, so memory stays constant
+     * regardless of the table size.
+     *
+     * @param consumer the consumer receiving every user
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<UserResponse> consumer) {
+        log.info(WriteLog.logInfo("--> Streaming all users"));
+        List<UserApp> chunk = new ArrayList<>(UserApp.ROLES_BATCH_SIZE);
+        try (Stream<UserApp> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                chunk.add(user);
+                if (chunk.size() == UserApp.ROLES_BATCH_SIZE) {
+                    this.writeChunk(chunk, consumer);
+                }
+            });
+        }
+        this.writeChunk(chunk, consumer);
+    }
+
+    /**
+     * Searches users by name in the in-process name index, without querying the database.
+     * Queries of three or more characters match anywhere in the name, two-character
+     * queries match the start of a word.
+     *
+     * @param query the text to look for
+     * @param page the zero-based page number
+     * @param size the maximum number of users of the page
+     * @return the page of ranked matches and the number of matches
+     */
+    @Override
+    public UserSearchResponse searchUsers(String query, int page, int size) {
+        if (query == null || query.isBlank() || query.strip().length() < UserNameIndex.MIN_QUERY_LENGTH) {
+            log.error(WriteLog.logError("--> Search query too short: " + query));
+            throw new BadRequestException(List.of("Search query must have at least "
+                    + UserNameIndex.MIN_QUERY_LENGTH + " characters"));
+        }
+        if (page < 0) {
+            throw new BadRequestException(List.of("Page must not be negative"));
+        }
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        long offset = (long) page * limit;
+        if (offset > Integer.MAX_VALUE - limit) {
+            log.error(WriteLog.logError("--> Search page out of range: " + page));
+            throw new BadRequestException(List.of("Page is out of range: " + page));
+        }
+        UserNameIndex.Result result = userNameIndex.search(query, (int) offset, limit);
+        return UserSearchResponse.builder()
+                .content(result.hits())
+                .page(page)
+                .size(limit)
+                .total(result.total())
+                .hasNext(result.hasNext())
+                .build();
     }
 
     /**
@@ -144,7 +253,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void enableUser(EnableUser request) {
         log.info(WriteLog.logInfo("--> Enabling user service"));
-        var token = validationTokenRepository.findByToken(request.getToken())
+        var token = validationTokenStore.find(request.getToken())
                 .orElseThrow(() -> {
                     log.error(WriteLog.logError("--> Validation token not found: " + request.getToken()));
                     return new NotFoundException("Validation token not found: " + request.getToken());
@@ -178,19 +287,10 @@ public class UserServiceImpl implements UserService {
         user.setCredentialsNonExpired(true);
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         userRepository.save(user);
-        validationTokenRepository.delete(token);
-        log.info(WriteLog.logInfo("--> send notification to broker"));
-        CompletableFuture<SendResult<String, String>> future = kafkaStringTemplate.send(
-                "enableUserTopic", "registration-complete");
-        future.whenCompleteAsync((r,t) -> {
-            if (t != null) {
-                log.error(WriteLog.logError("--> Error sending message to broker: " + t.getMessage()));
-                throw new RuntimeException("Error sending message to broker", t);
-            } else {
-                validationTokenRepository.save(token);
-                log.info(WriteLog.logInfo("--> Message sent to broker successfully"));
-            }
-        });
+        validationTokenStore.delete(token);
+        this.publishUserChange(user, UserChangeType.ENABLED);
+        log.info(WriteLog.logInfo("--> enqueue notification to broker"));
+        outboxWriter.enqueue(ENABLE_USER_TOPIC, user.getEmail(), "registration-complete");
     }
 
     /**
@@ -202,6 +302,7 @@ public class UserServiceImpl implements UserService {
      * @throws NotFoundException if the user or roles are not found
      */
     @Override
+    @Transactional
     public UserResponse setAdmin(String email) {
         log.info(WriteLog.logInfo("--> set role admin to user " + email));
         var user = userRepository.findByEmail(email)
@@ -210,49 +311,51 @@ public class UserServiceImpl implements UserService {
                     return new BadRequestException(List.of("User not found with email " + email));
                 });
         Set<Role> roles = new HashSet<>();
-        Role userRole = roleRepository.findByRole(RoleName.ROLE_USER)
+        Role userRole = roleCache.get(RoleName.ROLE_USER)
                 .orElseThrow(() -> new NotFoundException("User role not found"));
         roles.add(userRole);
-        Role adminRole = roleRepository.findByRole(RoleName.ROLE_ADMIN)
+        Role adminRole = roleCache.get(RoleName.ROLE_ADMIN)
                 .orElseThrow(() -> new NotFoundException("Admin Role mot found"));
         roles.add(adminRole);
         user.setRoles(roles);
-        return UserMapper.mapToDto(userRepository.save(user));
+        var saved = userRepository.save(user);
+        this.publishUserChange(saved, UserChangeType.ROLES_CHANGED);
+        return UserMapper.mapToDto(saved);
     }
 
     /**
      * Retrieves all data of a user based on their email.
-     * Maps the UserApp entity to a UserAuthResponse DTO.
+     * Reads a read-only projection of the user and its roles with a single query,
+     * without loading the UserApp entity.
      *
      * @param email the email of the user to retrieve
      * @return the UserAuthResponse DTO containing all user data
      * @throws NotFoundException if the user with the given email does not exist
      */
     @Override
-
+    @Transactional(readOnly = true)
     public UserAuthResponse getAllDataUser(String email) {
         log.info(WriteLog.logInfo("--> Retrieving all data user service email: " + email));
-        var user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.error(WriteLog.logError("--> User not found with email: " + email));
-                    return new NotFoundException("User not found with email: " + email);
-                });
-
-        return UserAuthResponse.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .password(user.getPassword())
-                .phone(user.getPhone())
-                .accountNonExpired(user.isAccountNonExpired())
-                .accountNonLocked(user.isAccountNonLocked())
-                .credentialsNonExpired(user.isCredentialsNonExpired())
-                .enabled(user.isEnabled())
-                .role(user.getRoles().stream()
-                        .map(RoleMapper::mapToCore)
-                .collect(Collectors.toSet()))
-                .build();
+        List<UserAuthResponse> users = UserMapper.mapToAuth(userRepository.findAuthRowsByEmail(email));
+        if (users.isEmpty()) {
+            log.error(WriteLog.logError("--> User not found with email: " + email));
+            throw new NotFoundException("User not found with email: " + email);
+        }
+        return users.get(0);
+    }
 
+    /**
+     * Retrieves all data of several users with a single query.
+     * Emails that do not belong to any user are simply absent from the result.
+     *
+     * @param emails the emails of the users to retrieve
+     * @return the UserAuthResponse DTOs of the users found
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserAuthResponse> getAllDataUsers(Collection<String> emails) {
+        log.info(WriteLog.logInfo("--> Retrieving all data of " + emails.size() + " users"));
+        return UserMapper.mapToAuth(userRepository.findAuthRowsByEmailIn(emails));
     }
 
     /**
@@ -271,30 +374,51 @@ public class UserServiceImpl implements UserService {
                     return new NotFoundException("User not found with ID: " + id);
                 });
         userRepository.delete(user);
+        this.publishUserChange(user, UserChangeType.DELETED);
+    }
+
+    /**
+     * Replaces the password hash of a user with one computed with the current cost.
+     * The hash is only replaced if the stored one is still the hash that was verified,
+     * so a password changed in the meantime is never overwritten.
+     *
+     * @param msg the PasswordRehashMsg containing the verified and the new hash
+     */
+    @Override
+    @Transactional
+    public void rehashPassword(PasswordRehashMsg msg) {
+        log.info(WriteLog.logInfo("--> Rehashing password of user " + msg.getEmail()));
+        if (msg.getPassword() == null || !msg.getPassword().startsWith("$2")) {
+            log.error(WriteLog.logError("--> Invalid password hash received for " + msg.getEmail()));
+            return;
+        }
+        int updated = userRepository.updatePasswordIfUnchanged(msg.getEmail(), msg.getPreviousPassword(),
+                msg.getPassword());
+        if (updated == 0) {
+            log.warn(WriteLog.logWarning("--> Password of " + msg.getEmail() + " changed meanwhile, rehash skipped"));
+            return;
+        }
+        eventPublisher.publishEvent(UserChangedMsg.builder()
+                .email(msg.getEmail())
+                .type(UserChangeType.CREDENTIALS_CHANGED)
+                .build());
     }
 
     /**
      * Validates the user details from the UserRequest.
-     * Checks for required fields and formats, and throws BadRequestException if validation fails.
+     * Checks for required fields and formats with UserRequestValidator, then the uniqueness of a
+     * well-formed email, and throws BadRequestException if validation fails.
      *
      * @param request the UserRequest to validate
      */
     private void validateUser(UserRequest request) {
-        var errors = new ArrayList<String>();
         log.info(WriteLog.logInfo("--> Validating user service..."));
+        var errors = new ArrayList<>(UserRequestValidator.validate(request));
 
-        if (request.getName() == null || request.getName().isBlank()) {
-            errors.add("Name is required");
-        }
-        if (request.getEmail() == null || request.getEmail().isBlank()) {
-            errors.add("Email is required");
-        } else if (userRepository.existsByEmail(request.getEmail())) {
+        String email = request.getEmail();
+        if (email != null && !email.isBlank() && ValidationHelper.validateEmail(email)
+                && registeredEmailFilter.mightExist(email) && userRepository.existsByEmail(email)) {
             errors.add("Email already exists");
-        } else if (!ValidationHelper.validateEmail(request.getEmail())) {
-            errors.add("Invalid email format");
-        }
-        if (request.getPhone() == null || request.getPhone().isBlank()) {
-            errors.add("Phone is required");
         }
 
         if (!errors.isEmpty()) {
@@ -303,6 +427,86 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Maps a chunk of streamed users and detaches them.
+     * Mapping the first user loads the roles of the whole chunk in one batch.
+     *
+     * @param chunk the users to map, emptied afterwards
+     * @param consumer the consumer receiving every user
+     */
+    private void writeChunk(List<UserApp> chunk, Consumer<UserResponse> consumer) {
+        chunk.forEach(user -> consumer.accept(UserMapper.mapToDto(user)));
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    /**
+     * Parses the requested sort direction.
+     *
+     * @param direction the sort direction: asc or desc
+     * @return the sort direction
+     */
+    private Sort.Direction sortDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction).orElseThrow(() -> {
+            log.error(WriteLog.logError("--> Invalid sort direction " + direction));
+            return new BadRequestException(List.of("Invalid sort direction: " + direction));
+        });
+    }
+
+    /**
+     * Builds the keyset position following the row of the cursor.
+     *
+     * @param cursor the decoded cursor, or null for the first page
+     * @return the scroll position
+     */
+    private ScrollPosition scrollPosition(KeysetCursor cursor) {
+        if (cursor == null) return ScrollPosition.keyset();
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            switch (cursor.property()) {
+                case "name", "email" -> keys.put(cursor.property(), cursor.value());
+                case "createdAt" -> keys.put(cursor.property(), LocalDateTime.parse(cursor.value()));
+                default -> { }
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException(List.of("Invalid cursor"));
+        }
+        keys.put("id", cursor.id());
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Returns the value of the sort property of a user, as stored in the cursor.
+     *
+     * @param user the user
+     * @param property the sort property
+     * @return the value of the property, or null when sorting by id
+     */
+    private String sortValue(UserApp user, String property) {
+        return switch (property) {
+            case "name" -> user.getName();
+            case "email" -> user.getEmail();
+            case "createdAt" -> user.getCreatedAt().toString();
+            default -> null;
+        };
+    }
+
+    /**
+     * Publishes a user change so that other services can drop their copy of the user.
+     * The message reaches the broker after the current transaction commits.
+     *
+     * @param user the changed user
+     * @param type the kind of change
+     */
+    private void publishUserChange(UserApp user, UserChangeType type) {
+        eventPublisher.publishEvent(UserChangedMsg.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .type(type)
+                .build());
+    }
+
     /**
      * Generates a validation token for the user.
      * The token is a UUID string and has an expiry date set to 1 day from now.
@@ -0,0 +1,52 @@
+package com.ch.userservice.utils.imports;
+
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.userservice.api.models.requests.UserRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * UserImportReader class reads the rows of a bulk user import lazily from the request body.
+ * CSV bodies must start with a header row naming the columns (name, email, phone);
+ * NDJSON bodies contain one UserRequest object per line. Unknown columns and properties are ignored.
+ *
+ * @author caito
+ *
+ */
+public class UserImportReader {
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(UserRequest.class)
+            .with(CsvSchema.emptySchema().withHeader());
+    private static final ObjectReader NDJSON_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(UserRequest.class);
+
+    /**
+     * Opens an iterator over the rows of the body.
+     *
+     * @param input the request body
+     * @param contentType the content type of the body: text/csv or application/x-ndjson
+     * @return the iterator over the rows
+     * @throws IOException if the body cannot be read
+     */
+    public static MappingIterator<UserRequest> open(InputStream input, MediaType contentType) throws IOException {
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return CSV_READER.readValues(input);
+        }
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return NDJSON_READER.readValues(input);
+        }
+        throw new BadRequestException(List.of("Unsupported import format: " + contentType));
+    }
+}
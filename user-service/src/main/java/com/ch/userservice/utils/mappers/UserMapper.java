@@ -1,9 +1,13 @@
 package com.ch.userservice.utils.mappers;
 
+import com.ch.core.chcore.models.UserAuthResponse;
 import com.ch.userservice.api.models.requests.UserRequest;
 import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.core.chcore.models.RoleResponse;
 import com.ch.userservice.persistence.entities.UserApp;
+import com.ch.userservice.persistence.projections.UserAuthRow;
 
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -48,4 +52,33 @@ public class UserMapper {
                         .collect(Collectors.toSet()))
                 .build();
     }
+
+    /**
+     * Folds the projection rows of one or several users into UserAuthResponse DTOs,
+     * one per user, in the order of their first row.
+     *
+     * @param rows the UserAuthRow projections, one per user and role
+     * @return the UserAuthResponse DTOs containing all the users' data
+     */
+    public static List<UserAuthResponse> mapToAuth(List<UserAuthRow> rows){
+        Map<Long, UserAuthResponse> users = new LinkedHashMap<>();
+        for (UserAuthRow row : rows) {
+            UserAuthResponse user = users.computeIfAbsent(row.id(), id -> UserAuthResponse.builder()
+                    .id(row.id())
+                    .name(row.name())
+                    .email(row.email())
+                    .password(row.password())
+                    .phone(row.phone())
+                    .accountNonExpired(row.accountNonExpired())
+                    .accountNonLocked(row.accountNonLocked())
+                    .credentialsNonExpired(row.credentialsNonExpired())
+                    .enabled(row.enabled())
+                    .role(new HashSet<>())
+                    .build());
+            if (row.role() != null) {
+                user.getRole().add(new RoleResponse(row.role()));
+            }
+        }
+        return new ArrayList<>(users.values());
+    }
 }
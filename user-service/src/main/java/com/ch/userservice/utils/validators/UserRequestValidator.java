@@ -0,0 +1,43 @@
+package com.ch.userservice.utils.validators;
+
+import com.ch.core.chcore.helpers.ValidationHelper;
+import com.ch.userservice.api.models.requests.UserRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UserRequestValidator class checks the details of a UserRequest: the required fields and the
+ * email format. It is shared by the single user creation and the bulk import, which check the
+ * uniqueness of the emails on their own, one by one and per chunk.
+ *
+ * @author caito
+ *
+ */
+public class UserRequestValidator {
+
+    /**
+     * Validates the details of a user.
+     *
+     * @param request the UserRequest to validate
+     * @return the validation errors, empty if the details are valid
+     */
+    public static List<String> validate(UserRequest request) {
+        if (request == null) {
+            return List.of("Empty row");
+        }
+        List<String> errors = new ArrayList<>();
+        if (request.getName() == null || request.getName().isBlank()) {
+            errors.add("Name is required");
+        }
+        if (request.getEmail() == null || request.getEmail().isBlank()) {
+            errors.add("Email is required");
+        } else if (!ValidationHelper.validateEmail(request.getEmail())) {
+            errors.add("Invalid email format");
+        }
+        if (request.getPhone() == null || request.getPhone().isBlank()) {
+            errors.add("Phone is required");
+        }
+        return errors;
+    }
+}
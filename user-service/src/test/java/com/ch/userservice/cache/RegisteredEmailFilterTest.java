@@ -0,0 +1,95 @@
+package com.ch.userservice.cache;
+
+import com.ch.userservice.persistence.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegisteredEmailFilterTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<String> registered = new ArrayList<>();
+    private RegisteredEmailFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RegisteredEmailFilter(userRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 100, 0.001, 0.5);
+        for (int i = 0; i < 10; i++) {
+            registered.add("user" + i + "@chemical.co");
+        }
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> List.copyOf(registered).stream());
+    }
+
+    @Test
+    void everyEmailMightExistUntilBuilt() {
+        assertThat(filter.mightExist("new@chemical.co")).isTrue();
+    }
+
+    @Test
+    void registeredEmailsAreNeverDenied() {
+        filter.build();
+
+        assertThat(registered).allMatch(filter::mightExist);
+        assertThat(filter.mightExist("USER1@chemical.co")).isTrue();
+        assertThat(filter.mightExist("new@chemical.co")).isFalse();
+    }
+
+    @Test
+    void addedEmailsMightExist() {
+        filter.build();
+
+        filter.add("New@chemical.co");
+
+        assertThat(filter.mightExist("new@chemical.co")).isTrue();
+    }
+
+    @Test
+    void rebuildsOnceEnoughEmailsWereRemoved() {
+        filter.build();
+        registered.remove("user0@chemical.co");
+        filter.remove("user0@chemical.co");
+
+        filter.rebuildIfNeeded();
+
+        verify(userRepository, times(1)).streamAllEmails();
+        assertThat(filter.mightExist("user0@chemical.co")).isTrue();
+
+        for (int i = 1; i < 6; i++) {
+            registered.remove("user" + i + "@chemical.co");
+            filter.remove("user" + i + "@chemical.co");
+        }
+        filter.rebuildIfNeeded();
+
+        verify(userRepository, times(2)).streamAllEmails();
+        assertThat(filter.mightExist("user0@chemical.co")).isFalse();
+        assertThat(registered).allMatch(filter::mightExist);
+
+        filter.rebuildIfNeeded();
+
+        verify(userRepository, times(2)).streamAllEmails();
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentFilter() {
+        filter.build();
+        when(userRepository.streamAllEmails()).thenReturn(Stream.concat(Stream.of("user0@chemical.co"),
+                Stream.generate(() -> {
+                    throw new IllegalStateException("database down");
+                })));
+
+        filter.build();
+
+        assertThat(registered).allMatch(filter::mightExist);
+    }
+}
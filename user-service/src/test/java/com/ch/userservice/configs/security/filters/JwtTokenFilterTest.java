@@ -0,0 +1,111 @@
+package com.ch.userservice.configs.security.filters;
+
+import com.ch.core.chcore.exceptions.TokenException;
+import com.ch.userservice.configs.security.revocation.TokenRevocationList;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenFilterTest {
+    private static final String SECRET = "Hw9z1Yk8Nmq1IzlwcCg8j6yHzw6RKjzZUi9r7Ww555o0PP";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationList tokenRevocationList;
+    private JwtTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenRevocationList = new TokenRevocationList(meterRegistry, 15, 1000, 0.01);
+        filter = new JwtTokenFilter(meterRegistry, tokenRevocationList, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiedTokenIsServedFromTheCache() throws Exception {
+        String token = token(UUID.randomUUID().toString(), System.currentTimeMillis() + 60_000);
+
+        Authentication first = this.authenticate(token);
+        Authentication second = this.authenticate(token);
+
+        assertThat(first.getName()).isEqualTo("user@chemical.co");
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(second).isSameAs(first);
+        assertThat(this.gets("hit")).isEqualTo(1);
+        assertThat(this.gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws Exception {
+        // exp has second precision, so the token lapses at the start of the second after next
+        String token = token(UUID.randomUUID().toString(), System.currentTimeMillis() + 1000);
+        assertThat(this.authenticate(token)).isNotNull();
+
+        Thread.sleep(2100);
+
+        assertThatThrownBy(() -> this.authenticate(token)).isInstanceOf(TokenException.class);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceRevoked() throws Exception {
+        String jti = UUID.randomUUID().toString();
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        String token = token(jti, expiresAt);
+        assertThat(this.authenticate(token)).isNotNull();
+
+        tokenRevocationList.revoke(jti, expiresAt / 1000 * 1000);
+
+        assertThatThrownBy(() -> this.authenticate(token)).isInstanceOf(TokenException.class);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = token(UUID.randomUUID().toString(), System.currentTimeMillis() + 60_000);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> this.authenticate(tampered)).isInstanceOf(TokenException.class);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "user.jwt.authentications").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static String token(String jti, long expiresAt) {
+        return Jwts.builder()
+                .setSubject("user@chemical.co")
+                .claim("roles", List.of("ROLE_USER"))
+                .setId(jti)
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+}
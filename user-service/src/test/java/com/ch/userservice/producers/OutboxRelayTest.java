@@ -0,0 +1,137 @@
+package com.ch.userservice.producers;
+
+import com.ch.core.chcore.events.EventHeaders;
+import com.ch.core.chcore.events.HighMsg;
+import com.ch.userservice.persistence.entities.OutboxEvent;
+import com.ch.userservice.persistence.repositories.OutboxEventRepository;
+import com.ch.userservice.support.ServiceSliceTest;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_BATCHES_PER_RUN = 2;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void relaysInBatchesUpToTheLimitOfARun() {
+        this.enqueue(5);
+        MockProducer<String, String> producer = producer(true);
+        OutboxRelay relay = this.relay(producer, 1000);
+
+        relay.relay();
+
+        assertThat(producer.history()).hasSize(BATCH_SIZE * MAX_BATCHES_PER_RUN);
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+        relay.relay();
+
+        assertThat(producer.history()).hasSize(5);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void recordsCarryTheEventIdAndPayloadType() {
+        this.enqueue(1);
+        OutboxEvent event = outboxEventRepository.findAll().get(0);
+        MockProducer<String, String> producer = producer(true);
+
+        this.relay(producer, 1000).relay();
+
+        ProducerRecord<String, String> record = producer.history().get(0);
+        assertThat(record.topic()).isEqualTo("topic");
+        assertThat(record.key()).isEqualTo(event.getMessageKey());
+        assertThat(record.value()).isEqualTo(event.getPayload());
+        assertThat(new String(record.headers().lastHeader(EventHeaders.EVENT_ID).value(), StandardCharsets.UTF_8))
+                .isEqualTo(event.getEventId());
+        assertThat(new String(record.headers().lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value(),
+                StandardCharsets.UTF_8)).isEqualTo(HighMsg.class.getName());
+    }
+
+    @Test
+    void rowsAreKeptUntilTheBatchIsAcknowledged() {
+        this.enqueue(3);
+        MockProducer<String, String> unacknowledged = producer(false);
+
+        this.relay(unacknowledged, 100).relay();
+
+        assertThat(unacknowledged.history()).hasSize(BATCH_SIZE);
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        MockProducer<String, String> acknowledging = producer(true);
+        this.relay(acknowledging, 1000).relay();
+
+        assertThat(acknowledging.history()).hasSize(3);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private void enqueue(int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxWriter.enqueueAll("topic",
+                IntStream.range(0, count)
+                        .mapToObj(i -> HighMsg.builder().email("user" + i + "@chemical.co").build())
+                        .toList(), HighMsg::getEmail));
+    }
+
+    /**
+     * The template closes its producer after every send, as the real factories hand out
+     * close-safe producers; this one stays open so the sends of a test share its history.
+     */
+    private static MockProducer<String, String> producer(boolean autoComplete) {
+        return new MockProducer<>(autoComplete, new StringSerializer(), new StringSerializer()) {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void close(Duration timeout) {
+            }
+        };
+    }
+
+    private OutboxRelay relay(MockProducer<String, String> producer, long sendTimeoutMs) {
+        ProducerFactory<String, String> producerFactory = new ProducerFactory<>() {
+            @Override
+            public Producer<String, String> createProducer() {
+                return producer;
+            }
+
+            @Override
+            public ProducerFactory<String, String> copyWithConfigurationOverride(Map<String, Object> overrides) {
+                return this;
+            }
+        };
+        return new OutboxRelay(outboxEventRepository, producerFactory, transactionManager,
+                BATCH_SIZE, MAX_BATCHES_PER_RUN, sendTimeoutMs);
+    }
+}
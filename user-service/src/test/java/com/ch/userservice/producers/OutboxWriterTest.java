@@ -0,0 +1,85 @@
+package com.ch.userservice.producers;
+
+import com.ch.core.chcore.events.HighMsg;
+import com.ch.userservice.persistence.entities.OutboxEvent;
+import com.ch.userservice.persistence.repositories.OutboxEventRepository;
+import com.ch.userservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxWriterTest {
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rowsAreCommittedWithTheCallerTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.enqueue("topic", "key", msg("single@chemical.co"));
+            outboxWriter.enqueueAll("topic", List.of(msg("a@chemical.co"), msg("b@chemical.co")), HighMsg::getEmail);
+        });
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertThat(events).extracting(OutboxEvent::getMessageKey)
+                .containsExactlyInAnyOrder("key", "a@chemical.co", "b@chemical.co");
+        assertThat(events).extracting(OutboxEvent::getEventId).doesNotHaveDuplicates();
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getPayloadType()).isEqualTo(HighMsg.class.getName());
+            assertThat(event.getPayload()).contains("\"email\"");
+        });
+    }
+
+    @Test
+    void rowsAreRolledBackWithTheCallerTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.enqueue("topic", "key", msg("single@chemical.co"));
+            outboxWriter.enqueueAll("topic", List.of(msg("a@chemical.co"), msg("b@chemical.co")), HighMsg::getEmail);
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void writingOutsideATransactionIsRejected() {
+        assertThatThrownBy(() -> outboxWriter.enqueue("topic", "key", msg("single@chemical.co")))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThatThrownBy(() -> outboxWriter.enqueueAll("topic", List.of(msg("a@chemical.co")), HighMsg::getEmail))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private static HighMsg msg(String email) {
+        return HighMsg.builder().email(email).username("user").validationToken("token").build();
+    }
+}
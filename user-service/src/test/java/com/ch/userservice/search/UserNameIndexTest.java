@@ -0,0 +1,127 @@
+package com.ch.userservice.search;
+
+import com.ch.core.chcore.enums.UserChangeType;
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.userservice.api.models.responses.UserSearchHit;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class UserNameIndexTest {
+
+    private final UserNameIndex index = this.index(1000);
+
+    @Test
+    void ranksExactThenPrefixThenWordStartThenInfix() {
+        index.upsert(1L, "Mariana Lopez", "mariana@test.com");
+        index.upsert(2L, "Juan Anaya", "juan@test.com");
+        index.upsert(3L, "Ana Perez", "anap@test.com");
+        index.upsert(4L, "Ana", "ana@test.com");
+        index.upsert(5L, "Bob", "bob@test.com");
+        index.upsert(6L, "Anabel", "anabel@test.com");
+
+        assertThat(this.ids(index.search("ana", 0, 10))).containsExactly(4L, 3L, 6L, 2L, 1L);
+    }
+
+    @Test
+    void shortQueriesMatchOnlyTheStartOfAWord() {
+        index.upsert(1L, "Mariana Lopez", "mariana@test.com");
+        index.upsert(2L, "Juan Anaya", "juan@test.com");
+        index.upsert(3L, "Ana Perez", "ana@test.com");
+
+        assertThat(this.ids(index.search("an", 0, 10))).containsExactly(3L, 2L);
+        assertThat(this.ids(index.search("ria", 0, 10))).containsExactly(1L);
+        assertThat(this.ids(index.search("a", 0, 10))).isEmpty();
+    }
+
+    @Test
+    void matchesIgnoringCaseAccentsAndBlanks() {
+        index.upsert(1L, "José  María", "jose@test.com");
+
+        assertThat(this.ids(index.search("JOSE MARIA", 0, 10))).containsExactly(1L);
+        assertThat(this.ids(index.search("marí", 0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void keepsTheIndexUpToDateOnInsertRenameAndDelete() {
+        index.apply(UserChangedMsg.builder().id(1L).name("Carla").email("carla@test.com")
+                .type(UserChangeType.CREATED).build());
+        assertThat(this.ids(index.search("carl", 0, 10))).containsExactly(1L);
+
+        index.upsert(1L, "Diana Ruiz", "diana@test.com");
+        assertThat(index.search("carl", 0, 10).total()).isZero();
+        assertThat(index.search("ruiz", 0, 10).hits())
+                .extracting(UserSearchHit::getName, UserSearchHit::getEmail)
+                .containsExactly(Tuple.tuple("Diana Ruiz", "diana@test.com"));
+        assertThat(this.ids(index.search("ian", 0, 10))).containsExactly(1L);
+
+        index.apply(UserChangedMsg.builder().id(1L).type(UserChangeType.DELETED).build());
+        assertThat(index.search("diana", 0, 10).total()).isZero();
+        assertThat(index.search("ian", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void pagesCoverTheRankedResultsExactlyOnce() {
+        for (long id = 1; id <= 7; id++) {
+            index.upsert(id, "User " + (8 - id), "user" + id + "@test.com");
+        }
+        List<Long> all = this.ids(index.search("user", 0, 100));
+        assertThat(all).containsExactly(7L, 6L, 5L, 4L, 3L, 2L, 1L);
+
+        List<Long> walked = new ArrayList<>();
+        int offset = 0;
+        UserNameIndex.Result page;
+        do {
+            page = index.search("user", offset, 3);
+            assertThat(page.total()).isLessThanOrEqualTo(all.size());
+            walked.addAll(this.ids(page));
+            offset += 3;
+        } while (page.hasNext());
+
+        assertThat(walked).isEqualTo(all);
+        assertThat(offset).isEqualTo(9);
+        assertThat(index.search("user", 6, 1).hasNext()).isFalse();
+        assertThat(index.search("user", 5, 1).hasNext()).isTrue();
+        assertThat(index.search("user", 7, 3).hits()).isEmpty();
+    }
+
+    @Test
+    void farOffsetsReturnAnEmptyLastPage() {
+        index.upsert(1L, "Ana", "ana@test.com");
+
+        UserNameIndex.Result result = index.search("ana", Integer.MAX_VALUE - 1, 10);
+
+        assertThat(result.hits()).isEmpty();
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void countsMatchesUpToTheMaximum() {
+        UserNameIndex bounded = this.index(3);
+        for (long id = 1; id <= 5; id++) {
+            bounded.upsert(id, "User " + id, "user" + id + "@test.com");
+        }
+
+        UserNameIndex.Result result = bounded.search("user", 0, 10);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(this.ids(result)).containsExactly(1L, 2L, 3L);
+    }
+
+    private UserNameIndex index(int maxMatches) {
+        return new UserNameIndex(mock(UserRepository.class), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), maxMatches);
+    }
+
+    private List<Long> ids(UserNameIndex.Result result) {
+        return result.hits().stream().map(UserSearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.ch.userservice.services;
+
+import com.ch.userservice.persistence.entities.ValidationToken;
+import com.ch.userservice.services.impl.InMemoryValidationTokenStoreImpl;
+import com.ch.userservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@TestPropertySource(properties = {"application.validation-token.store=memory",
+        "application.validation-token.tick-ms=10"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryValidationTokenStoreTest {
+
+    @Autowired
+    private InMemoryValidationTokenStoreImpl store;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void savesAreAppliedOnCommit() {
+        ValidationToken single = token(LocalDateTime.now().plusDays(1));
+        ValidationToken batched = token(LocalDateTime.now().plusDays(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.save(single);
+            store.saveAll(List.of(batched));
+            assertThat(store.find(single.getToken())).isEmpty();
+        });
+
+        assertThat(store.find(single.getToken())).contains(single);
+        assertThat(store.find(batched.getToken())).contains(batched);
+    }
+
+    @Test
+    void savesAreDiscardedOnRollback() {
+        ValidationToken single = token(LocalDateTime.now().plusDays(1));
+        ValidationToken batched = token(LocalDateTime.now().plusDays(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.save(single);
+            store.saveAll(List.of(batched));
+            status.setRollbackOnly();
+        });
+
+        assertThat(store.find(single.getToken())).isEmpty();
+        assertThat(store.find(batched.getToken())).isEmpty();
+    }
+
+    @Test
+    void deletesAreDiscardedOnRollbackAndAppliedOnCommit() {
+        ValidationToken token = token(LocalDateTime.now().plusDays(1));
+        store.save(token);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.delete(token);
+            status.setRollbackOnly();
+        });
+        assertThat(store.find(token.getToken())).contains(token);
+
+        transactionTemplate.executeWithoutResult(status -> store.delete(token));
+        assertThat(store.find(token.getToken())).isEmpty();
+    }
+
+    @Test
+    void purgeDropsExpiredTokens() throws InterruptedException {
+        ValidationToken expired = token(LocalDateTime.now().plusNanos(20_000_000));
+        ValidationToken valid = token(LocalDateTime.now().plusDays(1));
+        store.saveAll(List.of(expired, valid));
+
+        Thread.sleep(50);
+        store.purge();
+
+        assertThat(store.find(expired.getToken())).isEmpty();
+        assertThat(store.find(valid.getToken())).contains(valid);
+    }
+
+    private static ValidationToken token(LocalDateTime expiryDate) {
+        return ValidationToken.builder()
+                .token(UUID.randomUUID().toString())
+                .expiryDate(expiryDate)
+                .email("user@chemical.co")
+                .build();
+    }
+}
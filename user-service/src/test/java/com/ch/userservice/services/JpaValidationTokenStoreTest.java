@@ -0,0 +1,113 @@
+package com.ch.userservice.services;
+
+import com.ch.userservice.persistence.entities.ValidationToken;
+import com.ch.userservice.persistence.repositories.ValidationTokenRepository;
+import com.ch.userservice.services.impl.JpaValidationTokenStoreImpl;
+import com.ch.userservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaValidationTokenStoreTest {
+    private static final int PURGE_BATCH_SIZE = 2;
+    private static final int MAX_PURGE_BATCHES = 2;
+
+    @Autowired
+    private ValidationTokenRepository validationTokenRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JpaValidationTokenStoreImpl store;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        store = new JpaValidationTokenStoreImpl(validationTokenRepository, jdbcTemplate, transactionManager,
+                PURGE_BATCH_SIZE, MAX_PURGE_BATCHES);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validationTokenRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void savedTokensAreFoundAndDeleted() {
+        ValidationToken single = token(LocalDateTime.now().plusDays(1));
+        ValidationToken batched = token(LocalDateTime.now().plusDays(1));
+        transactionTemplate.executeWithoutResult(status -> {
+            store.save(single);
+            store.saveAll(List.of(batched));
+        });
+
+        assertThat(store.find(batched.getToken())).get()
+                .extracting(ValidationToken::getEmail).isEqualTo(batched.getEmail());
+        ValidationToken found = store.find(single.getToken()).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> store.delete(found));
+
+        assertThat(store.find(single.getToken())).isEmpty();
+    }
+
+    @Test
+    void savesAreDiscardedOnRollback() {
+        ValidationToken single = token(LocalDateTime.now().plusDays(1));
+        ValidationToken batched = token(LocalDateTime.now().plusDays(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            store.save(single);
+            store.saveAll(List.of(batched));
+            status.setRollbackOnly();
+        });
+
+        assertThat(store.find(single.getToken())).isEmpty();
+        assertThat(store.find(batched.getToken())).isEmpty();
+    }
+
+    @Test
+    void purgeDeletesExpiredTokensInBoundedBatches() {
+        int expired = PURGE_BATCH_SIZE * MAX_PURGE_BATCHES + 1;
+        List<ValidationToken> tokens = new ArrayList<>();
+        for (int i = 0; i < expired; i++) {
+            tokens.add(token(LocalDateTime.now().minusMinutes(i + 1)));
+        }
+        ValidationToken valid = token(LocalDateTime.now().plusDays(1));
+        tokens.add(valid);
+        transactionTemplate.executeWithoutResult(status -> store.saveAll(tokens));
+
+        store.purge();
+
+        assertThat(validationTokenRepository.count()).isEqualTo(2);
+
+        store.purge();
+
+        assertThat(validationTokenRepository.findAll()).extracting(ValidationToken::getToken)
+                .containsExactly(valid.getToken());
+    }
+
+    private static ValidationToken token(LocalDateTime expiryDate) {
+        return ValidationToken.builder()
+                .token(UUID.randomUUID().toString())
+                .expiryDate(expiryDate)
+                .email("user@chemical.co")
+                .build();
+    }
+}
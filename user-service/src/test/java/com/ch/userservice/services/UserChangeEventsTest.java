@@ -0,0 +1,135 @@
+package com.ch.userservice.services;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.enums.UserChangeType;
+import com.ch.core.chcore.events.UserChangedMsg;
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.userservice.api.models.requests.EnableUser;
+import com.ch.userservice.cache.RoleCache;
+import com.ch.userservice.persistence.entities.Role;
+import com.ch.userservice.persistence.entities.UserApp;
+import com.ch.userservice.persistence.entities.ValidationToken;
+import com.ch.userservice.persistence.repositories.RoleRepository;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import com.ch.userservice.persistence.repositories.ValidationTokenRepository;
+import com.ch.userservice.services.contracts.UserService;
+import com.ch.userservice.support.ServiceSliceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The changes that make other services drop their copy of a user, as the credential cache of the
+ * auth service does, announce the user and the kind of change.
+ */
+@ServiceSliceTest
+@RecordApplicationEvents
+class UserChangeEventsTest {
+    private static final String EMAIL = "user@chemical.co";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private ValidationTokenRepository validationTokenRepository;
+    @Autowired
+    private RoleCache roleCache;
+    @Autowired
+    private ApplicationEvents events;
+
+    private UserApp user;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().role(RoleName.ROLE_USER).build());
+        roleRepository.save(Role.builder().role(RoleName.ROLE_ADMIN).build());
+        roleCache.refresh();
+        user = userRepository.save(UserApp.builder()
+                .name("user")
+                .email(EMAIL)
+                .roles(new HashSet<>(Set.of(role)))
+                .build());
+    }
+
+    @Test
+    void enablingAUserAnnouncesIt() {
+        String token = validationTokenRepository.save(ValidationToken.builder()
+                .token(UUID.randomUUID().toString())
+                .expiryDate(LocalDateTime.now().plusDays(1))
+                .email(EMAIL)
+                .build()).getToken();
+
+        userService.enableUser(EnableUser.builder()
+                .token(token)
+                .password("Secret#123")
+                .confirmPassword("Secret#123")
+                .build());
+
+        assertThat(this.changes()).containsExactly(UserChangeType.ENABLED);
+        assertThat(this.emails()).containsExactly(EMAIL);
+    }
+
+    @Test
+    void rejectedEnableAnnouncesNothing() {
+        String token = validationTokenRepository.save(ValidationToken.builder()
+                .token(UUID.randomUUID().toString())
+                .expiryDate(LocalDateTime.now().plusDays(1))
+                .email(EMAIL)
+                .build()).getToken();
+
+        assertThatThrownBy(() -> userService.enableUser(EnableUser.builder()
+                .token(token)
+                .password("Secret#123")
+                .confirmPassword("Other#123")
+                .build()))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(this.changes()).isEmpty();
+    }
+
+    @Test
+    void promotingAUserAnnouncesIt() {
+        userService.setAdmin(EMAIL);
+
+        assertThat(this.changes()).containsExactly(UserChangeType.ROLES_CHANGED);
+        assertThat(this.emails()).containsExactly(EMAIL);
+    }
+
+    @Test
+    void promotingAnUnknownUserAnnouncesNothing() {
+        assertThatThrownBy(() -> userService.setAdmin("nobody@chemical.co"))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(this.changes()).isEmpty();
+    }
+
+    @Test
+    void deletingAUserAnnouncesIt() {
+        userService.deleteUser(user.getId());
+
+        assertThat(this.changes()).containsExactly(UserChangeType.DELETED);
+        assertThat(this.emails()).containsExactly(EMAIL);
+    }
+
+    private List<UserChangeType> changes() {
+        return events.stream(UserChangedMsg.class).map(UserChangedMsg::getType).toList();
+    }
+
+    private List<String> emails() {
+        return events.stream(UserChangedMsg.class).map(UserChangedMsg::getEmail).toList();
+    }
+}
@@ -0,0 +1,180 @@
+package com.ch.userservice.services;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.userservice.api.models.requests.UserRequest;
+import com.ch.userservice.api.models.responses.UserImportError;
+import com.ch.userservice.api.models.responses.UserImportResponse;
+import com.ch.userservice.cache.RoleCache;
+import com.ch.userservice.persistence.entities.Role;
+import com.ch.userservice.persistence.entities.UserApp;
+import com.ch.userservice.persistence.repositories.RoleRepository;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import com.ch.userservice.services.contracts.UserImportService;
+import com.ch.userservice.support.ServiceSliceTest;
+import com.ch.userservice.utils.imports.UserImportReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+@ServiceSliceTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+    @Autowired
+    private RoleRepository roleRepository;
+    @MockitoSpyBean
+    private UserRepository userRepository;
+    @Autowired
+    private RoleCache roleCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        roleRepository.save(Role.builder().role(RoleName.ROLE_USER).build());
+        roleCache.refresh();
+        userRepository.save(UserApp.builder()
+                .name("existing")
+                .email("existing@chemical.co")
+                .phone("1")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users_roles");
+        jdbcTemplate.update("delete from vakidation_tokens");
+        jdbcTemplate.update("delete from outbox_events");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("delete from roles");
+    }
+
+    @Test
+    void rejectsEmailsDuplicatedInTheImport() {
+        UserImportResponse response = userImportService.importUsers(List.of(
+                user("first", "dup@chemical.co"),
+                user("second", "DUP@chemical.co"),
+                user("third", "third@chemical.co")).iterator());
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getErrors()).containsExactly("Email duplicated in import");
+        });
+        assertThat(userRepository.existsByEmail("third@chemical.co")).isTrue();
+    }
+
+    @Test
+    void rejectsEmailsThatAlreadyExist() {
+        UserImportResponse response = userImportService.importUsers(List.of(
+                user("existing", "existing@chemical.co"),
+                user("new", "new@chemical.co")).iterator());
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(1);
+            assertThat(error.getErrors()).containsExactly("Email already exists");
+        });
+    }
+
+    @Test
+    void reportsInvalidRowsWithTheRulesOfASingleCreation() {
+        UserImportResponse response = userImportService.importUsers(List.of(
+                user("", "not-an-email"),
+                UserRequest.builder().name("no phone").email("phone@chemical.co").build()).iterator());
+
+        assertThat(response.getImported()).isZero();
+        assertThat(response.getErrors()).extracting(UserImportError::getErrors).containsExactly(
+                List.of("Name is required", "Invalid email format"),
+                List.of("Phone is required"));
+    }
+
+    @Test
+    void importsTheOtherRowsOfAChunkRejectedByAConcurrentRegistration() {
+        doReturn(List.of()).when(userRepository).findExistingEmails(anyCollection());
+
+        UserImportResponse response = userImportService.importUsers(List.of(
+                user("before", "before@chemical.co"),
+                user("racing", "existing@chemical.co"),
+                user("after", "after@chemical.co")).iterator());
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getErrors()).containsExactly("Email already exists");
+        });
+        assertThat(userRepository.existsByEmail("before@chemical.co")).isTrue();
+        assertThat(userRepository.existsByEmail("after@chemical.co")).isTrue();
+    }
+
+    @Test
+    void skipsMalformedNdjsonRows() throws IOException {
+        UserImportResponse response = userImportService.importUsers(read(MediaType.APPLICATION_NDJSON, """
+                {"name":"first","email":"first@chemical.co","phone":"1"}
+                {"name":["not","a","name"],"email":"bad@chemical.co","phone":"2"}
+                {"name":"third","email":"third@chemical.co","phone":"3"}
+                """));
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getErrors()).containsExactly("Malformed row");
+        });
+    }
+
+    @Test
+    void skipsMalformedCsvRows() throws IOException {
+        UserImportResponse response = userImportService.importUsers(read(UserImportReader.TEXT_CSV, """
+                name,email,phone
+                first,first@chemical.co,1
+                second,second@chemical.co,2,unexpected
+                third,third@chemical.co,3
+                """));
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getErrors()).containsExactly("Malformed row");
+        });
+    }
+
+    @Test
+    void stopsAtUnreadableContent() throws IOException {
+        UserImportResponse response = userImportService.importUsers(read(MediaType.APPLICATION_NDJSON, """
+                {"name":"first","email":"first@chemical.co","phone":"1"}
+                {"name":"second",
+                """));
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(UserImportError::getErrors)
+                .containsExactly(List.of("Malformed row"), List.of("Malformed content, import stopped"));
+    }
+
+    private static UserRequest user(String name, String email) {
+        return UserRequest.builder().name(name).email(email).phone("1").build();
+    }
+
+    private static Iterator<UserRequest> read(MediaType contentType, String body) throws IOException {
+        return UserImportReader.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ch.userservice.services;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.exceptions.BadRequestException;
+import com.ch.core.test.Fixtures;
+import com.ch.userservice.api.models.responses.UserPageResponse;
+import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.userservice.persistence.entities.Role;
+import com.ch.userservice.persistence.entities.UserApp;
+import com.ch.userservice.persistence.repositories.RoleRepository;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import com.ch.userservice.services.contracts.UserService;
+import com.ch.userservice.support.ServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ServiceSliceTest
+class UserServicePaginationTest {
+    private static final int USERS = 23;
+    private static final int PAGE_SIZE = 4;
+    private static final Map<String, Comparator<UserApp>> ORDERS = Map.of(
+            "id", Comparator.comparing(UserApp::getId),
+            "name", Comparator.comparing(UserApp::getName).thenComparing(UserApp::getId),
+            "email", Comparator.comparing(UserApp::getEmail).thenComparing(UserApp::getId),
+            "createdAt", Comparator.comparing(UserApp::getCreatedAt).thenComparing(UserApp::getId));
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().role(RoleName.ROLE_USER).build());
+        // five names over the users, so pages end in the middle of ties
+        userRepository.saveAll(Fixtures.times(USERS, i -> UserApp.builder()
+                .name("user, " + (i * 7 % 5))
+                .email("user" + i + "@chemical.co")
+                .roles(Set.of(role))
+                .build()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"id,asc", "id,desc", "name,asc", "name,desc", "email,asc", "email,desc",
+            "createdAt,asc", "createdAt,desc"})
+    void pagesWalkTheWholeSortedTableOnce(String sort, String direction) {
+        Comparator<UserApp> order = ORDERS.get(sort);
+        List<Long> expected = userRepository.findAll().stream()
+                .sorted("asc".equals(direction) ? order : order.reversed())
+                .map(UserApp::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPageResponse page = userService.getUsers(PAGE_SIZE, sort, direction, cursor);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            walked.addAll(page.getContent().stream().map(UserResponse::getId).toList());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).hasSize(USERS).isEqualTo(expected);
+    }
+
+    @Test
+    void sortColumnsRejectNulls() {
+        assertThatThrownBy(() -> userRepository.saveAndFlush(UserApp.builder().email("nameless@chemical.co").build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> userService.getUsers(PAGE_SIZE, "name", "asc", "not a cursor"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
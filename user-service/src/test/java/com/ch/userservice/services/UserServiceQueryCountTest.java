@@ -0,0 +1,91 @@
+package com.ch.userservice.services;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.ch.core.test.Fixtures;
+import com.ch.core.test.StatementBudget;
+import com.ch.userservice.api.models.responses.UserPageResponse;
+import com.ch.userservice.api.models.responses.UserResponse;
+import com.ch.userservice.persistence.entities.Role;
+import com.ch.userservice.persistence.entities.UserApp;
+import com.ch.userservice.persistence.repositories.RoleRepository;
+import com.ch.userservice.persistence.repositories.UserRepository;
+import com.ch.userservice.services.contracts.UserService;
+import com.ch.userservice.support.ServiceSliceTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ServiceSliceTest
+class UserServiceQueryCountTest {
+    private static final int USERS = 250;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        Role user = roleRepository.save(Role.builder().role(RoleName.ROLE_USER).build());
+        Role admin = roleRepository.save(Role.builder().role(RoleName.ROLE_ADMIN).build());
+        List<UserApp> users = Fixtures.times(USERS, i -> UserApp.builder()
+                .name("user " + i)
+                .email("user" + i + "@chemical.co")
+                .enabled(true)
+                .roles(i % 10 == 0 ? Set.of(user, admin) : Set.of(user))
+                .build());
+        firstId = userRepository.saveAll(users).get(0).getId();
+    }
+
+    @Test
+    void pageOfUsersLoadsRolesInOneBatch() {
+        UserPageResponse page = StatementBudget.assertAtMost(entityManager, 2,
+                () -> userService.getUsers(50, "name", "asc", null));
+
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(page.getContent()).allSatisfy(u -> assertThat(u.getRole()).isNotEmpty());
+        assertThat(page.isHasNext()).isTrue();
+    }
+
+    @Test
+    void streamingLoadsRolesOncePerChunk() {
+        List<UserResponse> streamed = new ArrayList<>();
+        long chunks = (USERS + UserApp.ROLES_BATCH_SIZE - 1) / UserApp.ROLES_BATCH_SIZE;
+
+        StatementBudget.assertAtMost(entityManager, 1 + chunks, () -> {
+            userService.streamUsers(streamed::add);
+            return null;
+        });
+
+        assertThat(streamed).hasSize(USERS);
+        assertThat(streamed).allSatisfy(u -> assertThat(u.getRole()).isNotEmpty());
+    }
+
+    @Test
+    void lookupsJoinRoles() {
+        UserResponse byId = StatementBudget.assertAtMost(entityManager, 1,
+                () -> userService.getUserById(firstId));
+        UserAuthResponse byEmail = StatementBudget.assertAtMost(entityManager, 1,
+                () -> userService.getAllDataUser("user1@chemical.co"));
+        List<UserAuthResponse> byEmails = StatementBudget.assertAtMost(entityManager, 1,
+                () -> userService.getAllDataUsers(List.of("user2@chemical.co", "user3@chemical.co")));
+
+        assertThat(byId.getRole()).hasSize(2);
+        assertThat(byEmail.getRole()).hasSize(1);
+        assertThat(byEmails).hasSize(2);
+    }
+}
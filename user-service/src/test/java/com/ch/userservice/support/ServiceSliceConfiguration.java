@@ -0,0 +1,37 @@
+package com.ch.userservice.support;
+
+import com.ch.userservice.producers.OutboxWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Components of the {@link ServiceSliceTest} slice.
+ * The services, caches and search packages are scanned, so new components there are picked up
+ * without touching the tests. Of the producers only the outbox writer is loaded, as the relay and
+ * the Kafka producers are not part of the service layer. Password hashing is mocked.
+ *
+ * @author caito
+ *
+ */
+@TestConfiguration
+@ComponentScan(basePackages = {"com.ch.userservice.services", "com.ch.userservice.cache",
+        "com.ch.userservice.search"})
+@Import(OutboxWriter.class)
+public class ServiceSliceConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    PasswordEncoder passwordEncoder() {
+        return Mockito.mock(PasswordEncoder.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ch.userservice.support;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test slice of the service layer on an embedded database.
+ * It loads the JPA repositories together with every component of the services, caches and search
+ * packages, as wired by {@link ServiceSliceConfiguration}, and enables the Hibernate statistics
+ * used by {@link com.ch.core.test.StatementBudget}.
+ *
+ * @author caito
+ *
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ServiceSliceConfiguration.class)
+public @interface ServiceSliceTest {
+}
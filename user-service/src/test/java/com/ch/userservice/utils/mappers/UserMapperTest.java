@@ -0,0 +1,57 @@
+package com.ch.userservice.utils.mappers;
+
+import com.ch.core.chcore.enums.RoleName;
+import com.ch.core.chcore.models.RoleResponse;
+import com.ch.core.chcore.models.UserAuthResponse;
+import com.ch.userservice.persistence.projections.UserAuthRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserMapperTest {
+
+    @Test
+    void foldsTheRolesOfAUserIntoOneResponse() {
+        List<UserAuthResponse> users = UserMapper.mapToAuth(List.of(
+                this.row(1L, "ana@test.com", RoleName.ROLE_USER),
+                this.row(1L, "ana@test.com", RoleName.ROLE_ADMIN)));
+
+        assertThat(users).hasSize(1);
+        assertThat(users.get(0).getEmail()).isEqualTo("ana@test.com");
+        assertThat(users.get(0).getPassword()).isEqualTo("hash-1");
+        assertThat(users.get(0).getRole()).containsExactlyInAnyOrder(
+                new RoleResponse(RoleName.ROLE_USER), new RoleResponse(RoleName.ROLE_ADMIN));
+    }
+
+    @Test
+    void keepsUsersApartInTheOrderOfTheirFirstRow() {
+        List<UserAuthResponse> users = UserMapper.mapToAuth(List.of(
+                this.row(2L, "bob@test.com", RoleName.ROLE_USER),
+                this.row(1L, "ana@test.com", RoleName.ROLE_USER),
+                this.row(2L, "bob@test.com", RoleName.ROLE_ADMIN)));
+
+        assertThat(users).extracting(UserAuthResponse::getId).containsExactly(2L, 1L);
+        assertThat(users.get(0).getRole()).hasSize(2);
+        assertThat(users.get(1).getRole()).containsExactly(new RoleResponse(RoleName.ROLE_USER));
+    }
+
+    @Test
+    void userWithoutRolesHasAnEmptyRoleSet() {
+        List<UserAuthResponse> users = UserMapper.mapToAuth(List.of(this.row(3L, "eve@test.com", null)));
+
+        assertThat(users).hasSize(1);
+        assertThat(users.get(0).getRole()).isEmpty();
+    }
+
+    @Test
+    void noRowsMapToNoUsers() {
+        assertThat(UserMapper.mapToAuth(List.of())).isEmpty();
+    }
+
+    private UserAuthRow row(Long id, String email, RoleName role) {
+        return new UserAuthRow(id, "user " + id, email, "hash-" + id, "600000000",
+                true, true, true, true, role);
+    }
+}